@@ -0,0 +1,66 @@
+package Problema_Viajante;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de las operaciones de {@link EstrategiaGenetica}: evaluación, cruce, mutación
+ * y una generación completa, parametrizado por cantidad de ciudades y tamaño de población.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Thread)
+public class EstrategiaGeneticaBenchmark {
+
+    @Param({"10", "100", "1000", "5000"})
+    public int numCiudades;
+
+    @Param({"50", "500"})
+    public int tamanioPoblacion;
+
+    private EstrategiaGenetica genetico;
+    private int ranura;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Grafo grafo = GrafosBenchmark.completo(numCiudades, 1L);
+        genetico = new EstrategiaGenetica(grafo, numCiudades, tamanioPoblacion, 3L);
+    }
+
+    /**
+     * Rota la ranura usada para que las operaciones no trabajen siempre sobre el mismo cromosoma.
+     * Se avanza dentro del benchmark porque un {@code @Setup(Level.Invocation)} pesaría más que
+     * las operaciones medidas en instancias pequeñas.
+     *
+     * @return ranura a usar en esta invocación
+     */
+    private int siguienteRanura() {
+        ranura = ranura + 1 == tamanioPoblacion ? 0 : ranura + 1;
+        return ranura;
+    }
+
+    @Benchmark
+    public long calcularFitness() {
+        return genetico.calcularFitness(siguienteRanura());
+    }
+
+    @Benchmark
+    public void cruzar() {
+        int padre = siguienteRanura();
+        genetico.cruzar(padre, (padre + 1) % tamanioPoblacion, tamanioPoblacion + padre);
+    }
+
+    @Benchmark
+    public void mutar() {
+        genetico.mutar(siguienteRanura());
+    }
+
+    @Benchmark
+    public void ejecutarGeneracion() {
+        genetico.ejecutarGeneracion();
+    }
+}
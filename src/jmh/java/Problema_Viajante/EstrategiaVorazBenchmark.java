@@ -0,0 +1,32 @@
+package Problema_Viajante;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de la estrategia voraz en modo sin salida ({@link EstrategiaVoraz#resolver()}).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Thread)
+public class EstrategiaVorazBenchmark {
+
+    @Param({"10", "100", "1000", "5000"})
+    public int numCiudades;
+
+    private EstrategiaVoraz voraz;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        voraz = new EstrategiaVoraz(GrafosBenchmark.completo(numCiudades, 1L));
+    }
+
+    @Benchmark
+    public ResultadoSolucion encontrarRutaVoraz() {
+        return voraz.resolver();
+    }
+}
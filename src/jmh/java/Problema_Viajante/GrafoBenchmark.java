@@ -0,0 +1,64 @@
+package Problema_Viajante;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de las consultas de distancia de {@link Grafo} y {@link GrafoCompilado}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Thread)
+public class GrafoBenchmark {
+
+    @Param({"10", "100", "1000", "5000"})
+    public int numCiudades;
+
+    private static final int CONSULTAS = 1024;
+
+    private Grafo grafo;
+    private GrafoCompilado matriz;
+    private String[] origenes;
+    private String[] destinos;
+    private int[] indicesOrigen;
+    private int[] indicesDestino;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        grafo = GrafosBenchmark.completo(numCiudades, 1L);
+        matriz = grafo.compilar();
+        SplittableRandom random = new SplittableRandom(2L);
+        origenes = new String[CONSULTAS];
+        destinos = new String[CONSULTAS];
+        indicesOrigen = new int[CONSULTAS];
+        indicesDestino = new int[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            indicesOrigen[i] = random.nextInt(numCiudades);
+            indicesDestino[i] = random.nextInt(numCiudades);
+            origenes[i] = matriz.getNombre(indicesOrigen[i]);
+            destinos[i] = matriz.getNombre(indicesDestino[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONSULTAS)
+    public void getDistanciaPorNombre(Blackhole bh) {
+        for (int i = 0; i < CONSULTAS; i++) {
+            bh.consume(grafo.getDistancia(origenes[i], destinos[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONSULTAS)
+    public void getDistanciaPorIndice(Blackhole bh) {
+        for (int i = 0; i < CONSULTAS; i++) {
+            bh.consume(matriz.getDistancia(indicesOrigen[i], indicesDestino[i]));
+        }
+    }
+}
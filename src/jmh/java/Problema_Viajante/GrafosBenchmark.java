@@ -0,0 +1,35 @@
+package Problema_Viajante;
+
+import java.util.Random;
+
+/**
+ * Grafos de prueba para los benchmarks.
+ * El archivo de ciudades no alcanza para instancias grandes, así que las ciudades reciben
+ * nombres sintéticos y pesos aleatorios de 1 a 50, igual que en {@link Main}.
+ */
+final class GrafosBenchmark {
+
+    private GrafosBenchmark() {
+    }
+
+    /**
+     * Genera un grafo completo reproducible.
+     *
+     * @param numCiudades cantidad de ciudades
+     * @param semilla     semilla de los pesos
+     * @return grafo completo
+     */
+    static Grafo completo(int numCiudades, long semilla) {
+        Grafo grafo = new Grafo();
+        Random random = new Random(semilla);
+        for (int i = 0; i < numCiudades; i++) {
+            grafo.agregarCiudad("Ciudad " + i);
+        }
+        for (int i = 0; i < numCiudades; i++) {
+            for (int j = i + 1; j < numCiudades; j++) {
+                grafo.agregarArco("Ciudad " + i, "Ciudad " + j, random.nextInt(50) + 1);
+            }
+        }
+        return grafo;
+    }
+}
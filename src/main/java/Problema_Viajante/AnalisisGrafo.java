@@ -0,0 +1,195 @@
+package Problema_Viajante;
+
+/**
+ * Analisis grafo.
+ * Consultas estructurales sobre un {@link GrafoAdyacencia} con identificadores enteros y arreglos
+ * primitivos: conexidad y componentes por BFS iterativo (sin recursión, así que no desborda la pila
+ * en cadenas largas), estadísticas de grado y verificación de la desigualdad triangular. Las
+ * componentes se calculan una sola vez, al pedirlas por primera vez.
+ */
+public final class AnalisisGrafo {
+    private final GrafoAdyacencia grafo;
+    private final int numCiudades;
+    private int[] componente;      // componente de cada ciudad; null hasta calcularlas
+    private int numComponentes;
+
+    /**
+     * Constructor Analisis grafo.
+     *
+     * @param grafo grafo en formato CSR
+     */
+    public AnalisisGrafo(GrafoAdyacencia grafo) {
+        this.grafo = grafo;
+        this.numCiudades = grafo.getNumCiudades();
+    }
+
+    /**
+     * Determina si el grafo es conexo con un único BFS desde la ciudad 0 y un bitset de visitadas.
+     *
+     * @return true si todas las ciudades son alcanzables entre sí
+     */
+    public boolean esConexo() {
+        if (componente != null) {
+            return numComponentes <= 1;
+        }
+        if (numCiudades == 0) {
+            return true;
+        }
+        long[] visitado = new long[(numCiudades + 63) >>> 6];
+        int[] cola = new int[numCiudades];
+        return bfs(0, visitado, cola, null, 0) == numCiudades;
+    }
+
+    /**
+     * Devuelve la cantidad de componentes conexas.
+     *
+     * @return número de componentes
+     */
+    public int getNumComponentes() {
+        calcularComponentes();
+        return numComponentes;
+    }
+
+    /**
+     * Devuelve la componente conexa de una ciudad.
+     *
+     * @param ciudad identificador de la ciudad
+     * @return número de componente (0..getNumComponentes()-1)
+     */
+    public int getComponente(int ciudad) {
+        calcularComponentes();
+        return componente[ciudad];
+    }
+
+    private void calcularComponentes() {
+        if (componente != null) {
+            return;
+        }
+        componente = new int[numCiudades];
+        long[] visitado = new long[(numCiudades + 63) >>> 6];
+        int[] cola = new int[numCiudades];
+        numComponentes = 0;
+        for (int i = 0; i < numCiudades; i++) {
+            if ((visitado[i >>> 6] & (1L << i)) == 0) {
+                bfs(i, visitado, cola, componente, numComponentes++);
+            }
+        }
+    }
+
+    /**
+     * Recorrido en anchura iterativo con una cola en un arreglo.
+     *
+     * @param origen     ciudad de partida
+     * @param visitado   bitset de visitadas, compartido entre llamadas
+     * @param cola       arreglo de al menos numCiudades posiciones
+     * @param componente arreglo donde se etiqueta cada ciudad alcanzada, o null
+     * @param etiqueta   etiqueta de la componente
+     * @return cantidad de ciudades alcanzadas
+     */
+    private int bfs(int origen, long[] visitado, int[] cola, int[] componente, int etiqueta) {
+        int cabeza = 0;
+        int fin = 0;
+        cola[fin++] = origen;
+        visitado[origen >>> 6] |= 1L << origen;
+        while (cabeza < fin) {
+            int actual = cola[cabeza++];
+            if (componente != null) {
+                componente[actual] = etiqueta;
+            }
+            for (int p = grafo.getInicio(actual); p < grafo.getInicio(actual + 1); p++) {
+                int vecino = grafo.getDestino(p);
+                if ((visitado[vecino >>> 6] & (1L << vecino)) == 0) {
+                    visitado[vecino >>> 6] |= 1L << vecino;
+                    cola[fin++] = vecino;
+                }
+            }
+        }
+        return fin;
+    }
+
+    /**
+     * Devuelve el grado mínimo. Una ciudad con grado menor que 2 no puede estar en ningún ciclo
+     * hamiltoniano.
+     *
+     * @return grado mínimo, o 0 si el grafo está vacío
+     */
+    public int getGradoMinimo() {
+        int minimo = numCiudades == 0 ? 0 : Integer.MAX_VALUE;
+        for (int i = 0; i < numCiudades; i++) {
+            minimo = Math.min(minimo, grafo.getGrado(i));
+        }
+        return minimo;
+    }
+
+    /**
+     * Devuelve el grado máximo.
+     *
+     * @return grado máximo, o 0 si el grafo está vacío
+     */
+    public int getGradoMaximo() {
+        int maximo = 0;
+        for (int i = 0; i < numCiudades; i++) {
+            maximo = Math.max(maximo, grafo.getGrado(i));
+        }
+        return maximo;
+    }
+
+    /**
+     * Devuelve el grado promedio.
+     *
+     * @return 2 * arcos / ciudades
+     */
+    public double getGradoPromedio() {
+        return numCiudades == 0 ? 0 : 2.0 * grafo.getNumArcos() / numCiudades;
+    }
+
+    /**
+     * Indica si hay un arco entre cada par de ciudades.
+     *
+     * @return true si el grafo es completo
+     */
+    public boolean esCompleto() {
+        return grafo.getNumArcos() == (long) numCiudades * (numCiudades - 1) / 2;
+    }
+
+    /**
+     * Verifica la desigualdad triangular {@code d(u, x) <= d(u, v) + d(v, x)} en todos los
+     * triángulos del grafo. Para cada ciudad u marca las distancias a sus vecinos en un arreglo
+     * y recorre los vecinos de sus vecinos, así que cuesta O(suma de grado^2): milisegundos en
+     * grafos dispersos y O(n^3) en completos. Termina en la primera violación.
+     *
+     * @return true si ningún arco es más largo que un camino de dos arcos entre sus extremos
+     */
+    public boolean cumpleDesigualdadTriangular() {
+        int[] marca = new int[numCiudades];  // marca[x] == u + 1 si x es vecino de u
+        int[] pesoDesdeU = new int[numCiudades];
+        for (int u = 0; u < numCiudades; u++) {
+            for (int p = grafo.getInicio(u); p < grafo.getInicio(u + 1); p++) {
+                marca[grafo.getDestino(p)] = u + 1;
+                pesoDesdeU[grafo.getDestino(p)] = grafo.getPeso(p);
+            }
+            for (int p = grafo.getInicio(u); p < grafo.getInicio(u + 1); p++) {
+                int v = grafo.getDestino(p);
+                long pesoUV = grafo.getPeso(p);
+                for (int q = grafo.getInicio(v); q < grafo.getInicio(v + 1); q++) {
+                    int x = grafo.getDestino(q);
+                    if (marca[x] == u + 1 && pesoDesdeU[x] > pesoUV + grafo.getPeso(q)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Indica si valen los atajos que solo son correctos en instancias métricas (por ejemplo unir
+     * dos ciudades directamente en vez de pasar por una intermedia, o cotas tipo Christofides):
+     * el grafo debe ser completo y cumplir la desigualdad triangular.
+     *
+     * @return true si la instancia es métrica
+     */
+    public boolean esMetrico() {
+        return esCompleto() && cumpleDesigualdadTriangular();
+    }
+}
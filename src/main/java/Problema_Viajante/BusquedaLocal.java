@@ -0,0 +1,442 @@
+package Problema_Viajante;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Busqueda local.
+ * Mejora un recorrido con movimientos 2-opt y Or-opt (mover un tramo de 1 a 3 ciudades) hasta
+ * llegar a un óptimo local o agotar el presupuesto. Solo se prueban movimientos hacia las ciudades
+ * de la {@link ListaCandidatos}, y cada ciudad tiene un bit "no mirar": una ciudad sin movimientos
+ * de mejora sale de la cola de trabajo y solo vuelve cuando cambia una de sus aristas.
+ * <p>
+ * El recorrido se guarda como arreglo con la posición de cada ciudad, así que consultar el sucesor
+ * o el predecesor es O(1) y cada inversión recorre a lo sumo la mitad del ciclo. Una instancia
+ * conserva sus arreglos de trabajo y no debe compartirse entre hilos.
+ */
+public class BusquedaLocal {
+    private static final int MAX_TRAMO_OR_OPT = 3;
+    private static final int CANDIDATOS_POR_DEFECTO = 8;
+
+    private final MatrizDistancias matriz;
+    private final ListaCandidatos candidatos;
+    private final int numCiudades;
+
+    private final int[] recorrido;  // posición -> ciudad
+    private final int[] posicion;   // ciudad -> posición
+    private final int[] cola;       // cola circular de ciudades activas
+    private final boolean[] enCola; // false = bit "no mirar" encendido
+    private int[] tramo;            // espacio de trabajo de las patadas de doble puente
+    private int inicioCola, tamanioCola;
+
+    private long limiteIteraciones = Long.MAX_VALUE;
+    private long limiteTiempoNanos = Long.MAX_VALUE;
+    private long movimientos; // movimientos aplicados en la última llamada
+
+    /**
+     * Constructor Busqueda local con una lista de candidatos propia de tamaño por defecto.
+     *
+     * @param matriz matriz de distancias
+     */
+    public BusquedaLocal(MatrizDistancias matriz) {
+        this(matriz, new ListaCandidatos(matriz, CANDIDATOS_POR_DEFECTO));
+    }
+
+    /**
+     * Constructor Busqueda local.
+     *
+     * @param matriz     matriz de distancias
+     * @param candidatos vecinos cercanos de cada ciudad
+     */
+    public BusquedaLocal(MatrizDistancias matriz, ListaCandidatos candidatos) {
+        this.matriz = matriz;
+        this.candidatos = candidatos;
+        this.numCiudades = matriz.getNumCiudades();
+        this.recorrido = new int[numCiudades];
+        this.posicion = new int[numCiudades];
+        this.cola = new int[numCiudades];
+        this.enCola = new boolean[numCiudades];
+    }
+
+    /**
+     * Limita la cantidad de ciudades que se examinan en cada llamada a {@link #mejorar}.
+     *
+     * @param limiteIteraciones máximo de iteraciones
+     */
+    public void setLimiteIteraciones(long limiteIteraciones) {
+        this.limiteIteraciones = limiteIteraciones;
+    }
+
+    /**
+     * Limita el tiempo de cada llamada a {@link #mejorar}.
+     *
+     * @param limiteTiempoNanos máximo de nanosegundos
+     */
+    public void setLimiteTiempo(long limiteTiempoNanos) {
+        this.limiteTiempoNanos = limiteTiempoNanos;
+    }
+
+    /**
+     * Devuelve la cantidad de movimientos aplicados en la última llamada.
+     *
+     * @return movimientos de mejora aplicados
+     */
+    public long getMovimientos() {
+        return movimientos;
+    }
+
+    /**
+     * Mejora en su lugar un recorrido cerrado.
+     *
+     * @param tour arreglo que contiene el recorrido
+     * @param base posición de la primera ciudad del recorrido dentro del arreglo
+     * @return cambio de longitud del recorrido (cero o negativo)
+     */
+    public long mejorar(int[] tour, int base) {
+        System.arraycopy(tour, base, recorrido, 0, numCiudades);
+        for (int i = 0; i < numCiudades; i++) {
+            posicion[recorrido[i]] = i;
+        }
+        inicioCola = 0;
+        tamanioCola = 0;
+        for (int i = 0; i < numCiudades; i++) {
+            enCola[recorrido[i]] = false;
+            activar(recorrido[i]);
+        }
+        long delta = optimizar();
+        System.arraycopy(recorrido, 0, tour, base, numCiudades);
+        return delta;
+    }
+
+    /**
+     * Mejora desde el estado actual procesando solo las ciudades activas. Lo usan los
+     * solucionadores que ya cargaron el recorrido y activaron algunas ciudades.
+     *
+     * @return cambio de longitud del recorrido (cero o negativo)
+     */
+    long optimizar() {
+        movimientos = 0;
+        if (numCiudades < 5) {
+            return 0;
+        }
+        long delta = 0;
+        long iteraciones = 0;
+        long limite = limiteTiempoNanos == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + limiteTiempoNanos;
+
+        while (tamanioCola > 0 && iteraciones < limiteIteraciones) {
+            if ((++iteraciones & 0xFF) == 0 && System.nanoTime() > limite) {
+                break;
+            }
+            int ciudad = cola[inicioCola];
+            inicioCola = (inicioCola + 1) % numCiudades;
+            tamanioCola--;
+            enCola[ciudad] = false;
+
+            long mejora = mejorar2Opt(ciudad);
+            if (mejora == 0) {
+                mejora = mejorarOrOpt(ciudad);
+            }
+            if (mejora < 0) {
+                delta += mejora;
+                movimientos++;
+                activar(ciudad); // Puede tener más mejoras
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * Busca y aplica el primer movimiento 2-opt de mejora que toca a la ciudad.
+     *
+     * @param a ciudad examinada
+     * @return cambio de longitud (negativo) o 0 si no hubo mejora
+     */
+    private long mejorar2Opt(int a) {
+        for (int sentido = 0; sentido < 2; sentido++) {
+            boolean adelante = sentido == 0;
+            int b = adelante ? sucesor(a) : predecesor(a);
+            int dAB = d(a, b);
+            for (int i = 0; i < candidatos.getCantidad(a); i++) {
+                int c = candidatos.getVecino(a, i);
+                int dAC = d(a, c);
+                if (dAC >= dAB) {
+                    break; // Los candidatos están ordenados: ninguno más puede mejorar
+                }
+                int e = adelante ? sucesor(c) : predecesor(c);
+                if (c == b || e == a) {
+                    continue;
+                }
+                long delta = (long) dAC + d(b, e) - dAB - d(c, e);
+                if (delta < 0) {
+                    intercambiarAristas(a, b, c, e);
+                    activar(a);
+                    activar(b);
+                    activar(c);
+                    activar(e);
+                    return delta;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Busca y aplica el primer movimiento Or-opt de mejora: un tramo de 1 a 3 ciudades que
+     * empieza en la ciudad se reinserta, en cualquier orientación, junto a un candidato.
+     *
+     * @param s1 primera ciudad del tramo
+     * @return cambio de longitud (negativo) o 0 si no hubo mejora
+     */
+    private long mejorarOrOpt(int s1) {
+        int s2 = s1;
+        for (int largo = 1; largo <= MAX_TRAMO_OR_OPT && largo < numCiudades - 3; largo++) {
+            if (largo > 1) {
+                s2 = sucesor(s2);
+            }
+            int p = predecesor(s1);
+            int n = sucesor(s2);
+            long ganancia = (long) d(p, s1) + d(s2, n) - d(p, n);
+            if (ganancia <= 0) {
+                continue;
+            }
+            for (int extremo = 0; extremo < 2; extremo++) {
+                int ancla = extremo == 0 ? s1 : s2;
+                for (int i = 0; i < candidatos.getCantidad(ancla); i++) {
+                    int c = candidatos.getVecino(ancla, i);
+                    if (d(ancla, c) >= ganancia) {
+                        break;
+                    }
+                    int e = sucesor(c);
+                    if (enTramo(c, s1, largo) || enTramo(e, s1, largo) || c == n || e == p) {
+                        continue;
+                    }
+                    long invertido = (long) d(c, s2) + d(s1, e) - d(c, e);
+                    long directo = (long) d(c, s1) + d(s2, e) - d(c, e);
+                    long delta = Math.min(invertido, directo) - ganancia;
+                    if (delta < 0) {
+                        moverTramo(s1, s2, p, n, c, e, directo < invertido);
+                        activar(p);
+                        activar(n);
+                        activar(c);
+                        activar(e);
+                        activar(s1);
+                        activar(s2);
+                        return delta;
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Reinserta el tramo s1..s2 (entre p y n) entre c y e = sucesor(c), como tres movimientos 2-opt.
+     *
+     * @param s1      primera ciudad del tramo
+     * @param s2      última ciudad del tramo
+     * @param p       predecesor de s1
+     * @param n       sucesor de s2
+     * @param c       ciudad tras la que se inserta el tramo
+     * @param e       sucesor de c
+     * @param directo true para conservar la orientación del tramo (c, s1..s2, e)
+     */
+    private void moverTramo(int s1, int s2, int p, int n, int c, int e, boolean directo) {
+        intercambiarAristas(p, s1, c, e);   // (p,s1),(c,e)  -> (p,c),(s1,e)
+        intercambiarAristas(p, c, n, s2);   // (p,c),(n,s2)  -> (p,n),(c,s2)
+        if (directo) {
+            intercambiarAristas(c, s2, s1, e); // (c,s2),(s1,e) -> (c,s1),(s2,e)
+        }
+    }
+
+    /**
+     * Reemplaza las aristas (a,b) y (c,e) por (a,c) y (b,e). Ambas aristas deben tener la misma
+     * orientación en el recorrido: b sucesor de a y e sucesor de c, o ambos predecesores.
+     *
+     * @param a extremo de la primera arista
+     * @param b vecino de a en la primera arista
+     * @param c extremo de la segunda arista
+     * @param e vecino de c en la segunda arista
+     */
+    private void intercambiarAristas(int a, int b, int c, int e) {
+        if (sucesor(a) == b) {
+            invertir(posicion[b], posicion[c]);
+        } else {
+            invertir(posicion[a], posicion[e]);
+        }
+    }
+
+    /**
+     * Invierte el tramo del ciclo que va de la posición i a la j (avanzando y con vuelta).
+     * Si el tramo es más largo que la mitad del ciclo invierte el complemento, que produce
+     * el mismo ciclo no dirigido.
+     */
+    private void invertir(int i, int j) {
+        int largo = (j - i + numCiudades) % numCiudades + 1;
+        if (2 * largo > numCiudades) {
+            int nuevoI = (j + 1) % numCiudades;
+            j = (i - 1 + numCiudades) % numCiudades;
+            i = nuevoI;
+            largo = numCiudades - largo;
+        }
+        for (int k = 0; k < largo / 2; k++) {
+            int ci = recorrido[i];
+            int cj = recorrido[j];
+            recorrido[i] = cj;
+            posicion[cj] = i;
+            recorrido[j] = ci;
+            posicion[ci] = j;
+            i = i + 1 == numCiudades ? 0 : i + 1;
+            j = j == 0 ? numCiudades - 1 : j - 1;
+        }
+    }
+
+    /**
+     * Indica si una ciudad pertenece al tramo de {@code largo} ciudades que empieza en s1.
+     *
+     * @param ciudad ciudad consultada
+     * @param s1     primera ciudad del tramo
+     * @param largo  cantidad de ciudades del tramo
+     * @return true si la ciudad está en el tramo
+     */
+    private boolean enTramo(int ciudad, int s1, int largo) {
+        return (posicion[ciudad] - posicion[s1] + numCiudades) % numCiudades < largo;
+    }
+
+    /**
+     * Aplica una patada de doble puente local: elige una posición al azar y, dentro de una ventana
+     * a partir de ella, intercambia dos tramos consecutivos (A B C D -> A C B D). Cambia tres aristas,
+     * un movimiento que 2-opt y Or-opt no deshacen fácilmente, y activa sus extremos.
+     *
+     * @param random  generador de números aleatorios
+     * @param ventana largo máximo de los dos tramos intercambiados juntos
+     * @return cambio de longitud provocado por la patada
+     */
+    long doblePuente(RandomGenerator random, int ventana) {
+        int largo = Math.min(ventana, numCiudades - 2);
+        if (largo < 2) {
+            return 0;
+        }
+        int s = random.nextInt(numCiudades);
+        int finC = random.nextInt(largo - 1) + 2;   // largo de B + C, en [2, largo]
+        int finB = random.nextInt(finC - 1) + 1;    // largo de B, en [1, finC - 1]
+
+        int x = recorrido[s];
+        int b1 = recorrido[(s + 1) % numCiudades];
+        int bFin = recorrido[(s + finB) % numCiudades];
+        int c1 = recorrido[(s + finB + 1) % numCiudades];
+        int cFin = recorrido[(s + finC) % numCiudades];
+        int y = recorrido[(s + finC + 1) % numCiudades];
+        long delta = (long) d(x, c1) + d(cFin, b1) + d(bFin, y) - d(x, b1) - d(bFin, c1) - d(cFin, y);
+
+        // Reescribir las posiciones s+1 .. s+finC con C seguido de B
+        if (tramo == null || tramo.length < finC) {
+            tramo = new int[largo];
+        }
+        for (int i = 0; i < finC; i++) {
+            tramo[i] = recorrido[(s + 1 + i) % numCiudades];
+        }
+        int p = (s + 1) % numCiudades;
+        for (int i = finB; i < finC; i++) {
+            recorrido[p] = tramo[i];
+            posicion[tramo[i]] = p;
+            p = p + 1 == numCiudades ? 0 : p + 1;
+        }
+        for (int i = 0; i < finB; i++) {
+            recorrido[p] = tramo[i];
+            posicion[tramo[i]] = p;
+            p = p + 1 == numCiudades ? 0 : p + 1;
+        }
+
+        activar(x);
+        activar(b1);
+        activar(bFin);
+        activar(c1);
+        activar(cFin);
+        activar(y);
+        return delta;
+    }
+
+    /**
+     * Carga un recorrido sin optimizarlo y deja la cola de ciudades activas vacía.
+     *
+     * @param tour arreglo que contiene el recorrido
+     * @param base posición de la primera ciudad del recorrido dentro del arreglo
+     */
+    void cargar(int[] tour, int base) {
+        System.arraycopy(tour, base, recorrido, 0, numCiudades);
+        for (int i = 0; i < numCiudades; i++) {
+            posicion[recorrido[i]] = i;
+            enCola[i] = false;
+        }
+        inicioCola = 0;
+        tamanioCola = 0;
+    }
+
+    /**
+     * Copia el recorrido actual al arreglo indicado.
+     *
+     * @param tour arreglo de destino
+     * @param base posición de la primera ciudad del recorrido dentro del arreglo
+     */
+    void copiarRecorrido(int[] tour, int base) {
+        System.arraycopy(recorrido, 0, tour, base, numCiudades);
+    }
+
+    /**
+     * Apaga el bit "no mirar" de una ciudad y la agrega a la cola si no estaba.
+     *
+     * @param ciudad identificador de la ciudad
+     */
+    void activar(int ciudad) {
+        if (!enCola[ciudad]) {
+            enCola[ciudad] = true;
+            cola[(inicioCola + tamanioCola) % numCiudades] = ciudad;
+            tamanioCola++;
+        }
+    }
+
+    /**
+     * Sucesor de una ciudad en el recorrido actual.
+     *
+     * @param ciudad identificador de la ciudad
+     * @return ciudad siguiente
+     */
+    int sucesor(int ciudad) {
+        int p = posicion[ciudad] + 1;
+        return recorrido[p == numCiudades ? 0 : p];
+    }
+
+    /**
+     * Predecesor de una ciudad en el recorrido actual.
+     *
+     * @param ciudad identificador de la ciudad
+     * @return ciudad anterior
+     */
+    int predecesor(int ciudad) {
+        int p = posicion[ciudad];
+        return recorrido[p == 0 ? numCiudades - 1 : p - 1];
+    }
+
+    /**
+     * Longitud del recorrido actual.
+     *
+     * @return suma de las aristas del ciclo
+     */
+    long longitud() {
+        long total = d(recorrido[numCiudades - 1], recorrido[0]);
+        for (int i = 1; i < numCiudades; i++) {
+            total += d(recorrido[i - 1], recorrido[i]);
+        }
+        return total;
+    }
+
+    /**
+     * Distancia entre dos ciudades.
+     *
+     * @param a primera ciudad
+     * @param b segunda ciudad
+     * @return distancia en la matriz
+     */
+    private int d(int a, int b) {
+        return matriz.getDistancia(a, b);
+    }
+}
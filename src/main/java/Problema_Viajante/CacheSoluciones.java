@@ -0,0 +1,322 @@
+package Problema_Viajante;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Cache soluciones.
+ * Caché LRU acotada de las mejores rutas encontradas, indexada por la huella de la instancia
+ * ({@link #huella(MatrizDistancias)}: ciudades y distancias) y por los parámetros del solucionador.
+ * La huella no depende del orden interno de las ciudades, así que el mismo conjunto de ciudades y
+ * distancias cargado otra vez (por ejemplo un {@link Grafo} con otro orden de inserción) se reconoce.
+ * <p>
+ * Las rutas guardadas también sirven de semilla para instancias parecidas
+ * ({@link #semillasPara(MatrizDistancias, int)}), y la caché se puede guardar en disco y volver a
+ * cargar entre ejecuciones.
+ */
+public final class CacheSoluciones {
+    private static final int MAGIA = 0x43534F4C;   // "CSOL"
+    private static final int VERSION = 1;
+    private static final double PARECIDO_MINIMO = 0.5; // fracción de ciudades en común para sembrar
+
+    private final LinkedHashMap<String, Entrada> entradas; // orden de acceso = LRU
+    private long aciertos;
+    private long fallos;
+
+    /**
+     * Ruta guardada para una instancia y unos parámetros.
+     */
+    private static final class Entrada {
+        final long huella;
+        final String parametros;
+        final List<String> ruta;
+        final long longitud;
+
+        Entrada(long huella, String parametros, List<String> ruta, long longitud) {
+            this.huella = huella;
+            this.parametros = parametros;
+            this.ruta = ruta;
+            this.longitud = longitud;
+        }
+    }
+
+    /**
+     * Constructor Cache soluciones.
+     *
+     * @param maxEntradas máximo de rutas guardadas; al superarlo se descarta la usada hace más tiempo
+     */
+    public CacheSoluciones(int maxEntradas) {
+        int limite = Math.max(1, maxEntradas);
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> eldest) {
+                return size() > limite;
+            }
+        };
+    }
+
+    /**
+     * Calcula la huella de 64 bits de una instancia a partir de los nombres de sus ciudades y de sus
+     * distancias. Cada ciudad se identifica por su posición en el orden alfabético de los nombres y
+     * los términos se combinan con una suma, así que el resultado no depende del orden interno.
+     * Cuesta O(n^2) consultas sobre una matriz; un {@link GrafoCoordenadas} se resume por sus
+     * coordenadas y un {@link CierreMetrico} por los arcos de su red, sin calcular distancias.
+     *
+     * @param matriz instancia
+     * @return huella de la instancia
+     */
+    public static long huella(MatrizDistancias matriz) {
+        int n = matriz.getNumCiudades();
+        String[] nombres = new String[n];
+        for (int i = 0; i < n; i++) {
+            nombres[i] = matriz.getNombre(i);
+        }
+        Integer[] orden = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            orden[i] = i;
+        }
+        Arrays.sort(orden, (a, b) -> nombres[a].compareTo(nombres[b]));
+        int[] rango = new int[n];
+        long huella = mezclar(n);
+        for (int r = 0; r < n; r++) {
+            rango[orden[r]] = r;
+            huella += mezclar(((long) r << 32) ^ nombres[orden[r]].hashCode());
+        }
+
+        if (matriz instanceof GrafoCoordenadas) {
+            GrafoCoordenadas coordenadas = (GrafoCoordenadas) matriz;
+            huella ^= mezclar(coordenadas.getMetrica().ordinal() + 1);
+            for (int i = 0; i < n; i++) {
+                huella += mezclar(mezclar(rango[i] ^ Double.doubleToLongBits(coordenadas.getX(i)))
+                        ^ Double.doubleToLongBits(coordenadas.getY(i)));
+            }
+        } else if (matriz instanceof CierreMetrico) {
+            GrafoAdyacencia red = ((CierreMetrico) matriz).getRed();
+            for (int i = 0; i < n; i++) {
+                for (int p = red.getInicio(i); p < red.getInicio(i + 1); p++) {
+                    huella += mezclar(mezclar(((long) rango[i] << 32) | rango[red.getDestino(p)]) ^ red.getPeso(p));
+                }
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    if (i != j) {
+                        huella += mezclar(mezclar(((long) rango[i] << 32) | rango[j]) ^ matriz.getDistancia(i, j));
+                    }
+                }
+            }
+        }
+        return huella;
+    }
+
+    /**
+     * Función de mezcla de SplitMix64 (también la usa la huella de aristas de {@link EstrategiaGenetica}).
+     */
+    static long mezclar(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String clave(long huella, String parametros) {
+        return Long.toHexString(huella) + '|' + parametros;
+    }
+
+    /**
+     * Busca la ruta guardada para una instancia y unos parámetros.
+     *
+     * @param matriz     instancia
+     * @param parametros descripción del solucionador y sus parámetros (por ejemplo "genetico:50")
+     * @return resultado guardado (con tiempo y contadores en 0), o null si no está
+     */
+    public ResultadoSolucion buscar(MatrizDistancias matriz, String parametros) {
+        return buscar(huella(matriz), parametros);
+    }
+
+    /**
+     * Busca la ruta guardada para una huella ya calculada y unos parámetros.
+     *
+     * @param huella     huella de la instancia
+     * @param parametros descripción del solucionador y sus parámetros
+     * @return resultado guardado (con tiempo y contadores en 0), o null si no está
+     */
+    public synchronized ResultadoSolucion buscar(long huella, String parametros) {
+        Entrada entrada = entradas.get(clave(huella, parametros));
+        if (entrada == null) {
+            fallos++;
+            return null;
+        }
+        aciertos++;
+        return new ResultadoSolucion(new ArrayList<>(entrada.ruta), entrada.longitud, 0, 0, 0);
+    }
+
+    /**
+     * Guarda el resultado de un solucionador. Si ya había una ruta para la misma instancia y los
+     * mismos parámetros se conserva la más corta. Los resultados sin ruta no se guardan.
+     *
+     * @param matriz     instancia
+     * @param parametros descripción del solucionador y sus parámetros
+     * @param resultado  resultado del solucionador
+     */
+    public void guardar(MatrizDistancias matriz, String parametros, ResultadoSolucion resultado) {
+        guardar(huella(matriz), parametros, resultado);
+    }
+
+    /**
+     * Guarda el resultado de un solucionador para una huella ya calculada.
+     *
+     * @param huella     huella de la instancia
+     * @param parametros descripción del solucionador y sus parámetros
+     * @param resultado  resultado del solucionador
+     */
+    public synchronized void guardar(long huella, String parametros, ResultadoSolucion resultado) {
+        if (!resultado.isCompleta()) {
+            return;
+        }
+        String clave = clave(huella, parametros);
+        Entrada anterior = entradas.get(clave);
+        if (anterior == null || resultado.getLongitud() < anterior.longitud) {
+            entradas.put(clave, new Entrada(huella, parametros, List.copyOf(resultado.getRuta()), resultado.getLongitud()));
+        }
+    }
+
+    /**
+     * Busca rutas guardadas que sirvan de semilla para una instancia, aunque no sea idéntica: se
+     * eligen las entradas que comparten al menos la mitad de las ciudades, de la más parecida a la
+     * menos parecida. Las rutas pueden tener ciudades que ya no están o no tener las nuevas;
+     * {@link EstrategiaGenetica#sembrar(List)} las repara.
+     *
+     * @param matriz   instancia a resolver
+     * @param cantidad máximo de rutas devueltas
+     * @return rutas guardadas, sin repetir
+     */
+    public synchronized List<List<String>> semillasPara(MatrizDistancias matriz, int cantidad) {
+        Set<String> ciudades = new HashSet<>(matriz.getNumCiudades() * 2);
+        for (int i = 0; i < matriz.getNumCiudades(); i++) {
+            ciudades.add(matriz.getNombre(i));
+        }
+        List<Entrada> candidatas = new ArrayList<>();
+        List<Double> parecidos = new ArrayList<>();
+        for (Entrada entrada : entradas.values()) {
+            Set<String> ciudadesEntrada = new HashSet<>(entrada.ruta);
+            int comunes = 0;
+            for (String ciudad : ciudadesEntrada) {
+                if (ciudades.contains(ciudad)) {
+                    comunes++;
+                }
+            }
+            // Jaccard entre los dos conjuntos de ciudades
+            double parecido = (double) comunes / (ciudades.size() + ciudadesEntrada.size() - comunes);
+            if (parecido >= PARECIDO_MINIMO) {
+                candidatas.add(entrada);
+                parecidos.add(parecido);
+            }
+        }
+        Integer[] orden = new Integer[candidatas.size()];
+        for (int i = 0; i < orden.length; i++) {
+            orden[i] = i;
+        }
+        Arrays.sort(orden, (a, b) -> Double.compare(parecidos.get(b), parecidos.get(a)));
+
+        List<List<String>> semillas = new ArrayList<>();
+        Set<List<String>> vistas = new HashSet<>();
+        for (int i = 0; i < orden.length && semillas.size() < cantidad; i++) {
+            List<String> ruta = candidatas.get(orden[i]).ruta;
+            if (vistas.add(ruta)) {
+                semillas.add(ruta);
+            }
+        }
+        return semillas;
+    }
+
+    /**
+     * Devuelve la cantidad de rutas guardadas.
+     *
+     * @return entradas en la caché
+     */
+    public synchronized int getTamanio() {
+        return entradas.size();
+    }
+
+    /**
+     * Devuelve la cantidad de búsquedas que encontraron una ruta.
+     *
+     * @return aciertos
+     */
+    public synchronized long getAciertos() {
+        return aciertos;
+    }
+
+    /**
+     * Devuelve la cantidad de búsquedas que no encontraron una ruta.
+     *
+     * @return fallos
+     */
+    public synchronized long getFallos() {
+        return fallos;
+    }
+
+    /**
+     * Guarda la caché en un archivo binario, de la entrada usada hace más tiempo a la más reciente.
+     *
+     * @param archivo ruta del archivo a crear o reemplazar
+     * @throws IOException si no se puede escribir
+     */
+    public synchronized void guardarEnDisco(Path archivo) throws IOException {
+        try (DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(archivo)))) {
+            salida.writeInt(MAGIA);
+            salida.writeInt(VERSION);
+            salida.writeInt(entradas.size());
+            for (Entrada entrada : entradas.values()) {
+                salida.writeLong(entrada.huella);
+                salida.writeUTF(entrada.parametros);
+                salida.writeLong(entrada.longitud);
+                salida.writeInt(entrada.ruta.size());
+                for (String ciudad : entrada.ruta) {
+                    salida.writeUTF(ciudad);
+                }
+            }
+        }
+    }
+
+    /**
+     * Carga una caché guardada con {@link #guardarEnDisco(Path)}. Si el archivo no existe devuelve
+     * una caché vacía.
+     *
+     * @param archivo     ruta del archivo
+     * @param maxEntradas máximo de rutas guardadas
+     * @return caché con las entradas del archivo (las más recientes si son más que maxEntradas)
+     * @throws IOException si el archivo existe pero no se puede leer o no tiene el formato esperado
+     */
+    public static CacheSoluciones cargar(Path archivo, int maxEntradas) throws IOException {
+        CacheSoluciones cache = new CacheSoluciones(maxEntradas);
+        if (!Files.exists(archivo)) {
+            return cache;
+        }
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(archivo)))) {
+            if (entrada.readInt() != MAGIA || entrada.readInt() != VERSION) {
+                throw new IOException("No es una caché de soluciones: " + archivo);
+            }
+            int cantidad = entrada.readInt();
+            for (int e = 0; e < cantidad; e++) {
+                long huella = entrada.readLong();
+                String parametros = entrada.readUTF();
+                long longitud = entrada.readLong();
+                int tamanio = entrada.readInt();
+                List<String> ruta = new ArrayList<>(tamanio);
+                for (int i = 0; i < tamanio; i++) {
+                    ruta.add(entrada.readUTF());
+                }
+                cache.entradas.put(clave(huella, parametros),
+                        new Entrada(huella, parametros, Collections.unmodifiableList(ruta), longitud));
+            }
+        }
+        return cache;
+    }
+}
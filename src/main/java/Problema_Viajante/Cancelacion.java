@@ -0,0 +1,60 @@
+package Problema_Viajante;
+
+/**
+ * Cancelacion.
+ * Token para detener un solucionador antes de tiempo: se cancela con {@link #cancelar()} desde
+ * cualquier hilo o al vencer el plazo opcional. Los solucionadores lo consultan entre iteraciones
+ * (una generación, una patada) y devuelven la mejor ruta encontrada hasta ese momento.
+ */
+public final class Cancelacion {
+    private final long plazoNanos;       // instante de System.nanoTime(); Long.MAX_VALUE = sin plazo
+    private volatile boolean cancelada;
+
+    private Cancelacion(long plazoNanos) {
+        this.plazoNanos = plazoNanos;
+    }
+
+    /**
+     * Token que solo se cancela al llamar a {@link #cancelar()}.
+     *
+     * @return token sin plazo
+     */
+    public static Cancelacion sinPlazo() {
+        return new Cancelacion(Long.MAX_VALUE);
+    }
+
+    /**
+     * Token que se cancela solo al pasar el tiempo indicado desde ahora.
+     *
+     * @param nanos nanosegundos disponibles
+     * @return token con plazo
+     */
+    public static Cancelacion conPlazo(long nanos) {
+        return new Cancelacion(System.nanoTime() + nanos);
+    }
+
+    /**
+     * Cancela la ejecución; el solucionador se detiene en la próxima consulta.
+     */
+    public void cancelar() {
+        cancelada = true;
+    }
+
+    /**
+     * Indica si hay plazo.
+     *
+     * @return true si el token vence solo
+     */
+    public boolean tienePlazo() {
+        return plazoNanos != Long.MAX_VALUE;
+    }
+
+    /**
+     * Indica si hay que detenerse, ya sea por cancelación explícita o por plazo vencido.
+     *
+     * @return true si el solucionador debe terminar
+     */
+    public boolean isCancelada() {
+        return cancelada || (plazoNanos != Long.MAX_VALUE && System.nanoTime() - plazoNanos >= 0);
+    }
+}
@@ -0,0 +1,373 @@
+package Problema_Viajante;
+
+import java.util.*;
+
+/**
+ * Cierre metrico.
+ * Vista completa de una red dispersa (por ejemplo una red de carreteras): la distancia entre dos
+ * ciudades es la del camino más corto en el {@link GrafoAdyacencia}, así que todos los solucionadores
+ * pueden usarla como si el grafo fuera completo y métrico. Las filas se calculan a pedido con
+ * Dijkstra (montículo binario indexado sobre arreglos primitivos) y se guardan en una caché LRU de
+ * tamaño acotado, en lugar de precalcular las n^2 distancias. Como el grafo es no dirigido, una
+ * consulta (i, j) también se responde con la fila de j si esa es la que está en caché.
+ * <p>
+ * Las consultas de vecinos ({@link #kMasCercanas(int, int, int[])}, usada por {@link ListaCandidatos},
+ * y {@link #masCercanaNoVisitada(int, long[])}, usada por {@link EstrategiaVoraz}) cortan Dijkstra en
+ * cuanto asientan las ciudades pedidas, así que solo exploran los alrededores de la ciudad. Las
+ * distancias a los vecinos más cercanos de cada ciudad se guardan aparte, en O(n) memoria, porque
+ * son las que más consultan las heurísticas.
+ * <p>
+ * Es seguro usarla desde varios hilos: la caché y los arreglos de trabajo se protegen con un candado,
+ * y las filas ya calculadas no se modifican.
+ */
+public final class CierreMetrico implements MatrizDistancias {
+    private static final long MEMORIA_POR_DEFECTO = 64L << 20; // bytes para filas en caché
+    private static final int CERCANOS = 16;                      // distancias guardadas por ciudad
+
+    private final GrafoAdyacencia grafo;
+    private final int numCiudades;
+    private final Map<String, Integer> indices;
+    private final LinkedHashMap<Integer, int[]> filas;   // orden de acceso = LRU
+
+    // Arreglos de trabajo de Dijkstra, reutilizados entre filas
+    private final long[] distancia;
+    private final int[] monticulo;
+    private final int[] posicion;      // posición en el montículo, -1 = fuera
+    private final int[] tocadas;       // ciudades con distancia asignada en la última búsqueda
+    private int numTocadas;
+    private long filasCalculadas;
+
+    // Vecinos más cercanos ya calculados: numCiudades * CERCANOS, se reservan al primer uso
+    private int[] cercanos;
+    private int[] distanciasCercanas;
+    private byte[] cantidadCercanos;
+    // Última respuesta de masCercanaNoVisitada, que suele consultarse justo después
+    private int ultimoOrigen = -1;
+    private int ultimoDestino = -1;
+    private int ultimaDistancia;
+
+    /**
+     * Constructor Cierre metrico con una caché de unos 64 MB.
+     *
+     * @param grafo red en formato CSR
+     */
+    public CierreMetrico(GrafoAdyacencia grafo) {
+        this(grafo, (int) Math.min(Integer.MAX_VALUE, MEMORIA_POR_DEFECTO / (4L * Math.max(1, grafo.getNumCiudades()))));
+    }
+
+    /**
+     * Constructor Cierre metrico.
+     *
+     * @param grafo   red en formato CSR
+     * @param maxFilas máximo de filas de distancias guardadas a la vez (al menos 2)
+     */
+    public CierreMetrico(GrafoAdyacencia grafo, int maxFilas) {
+        this.grafo = grafo;
+        this.numCiudades = grafo.getNumCiudades();
+        this.indices = new HashMap<>(numCiudades * 2);
+        for (int i = 0; i < numCiudades; i++) {
+            indices.put(grafo.getNombre(i), i);
+        }
+        int limite = Math.max(2, Math.min(maxFilas, numCiudades));
+        this.filas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, int[]> eldest) {
+                return size() > limite;
+            }
+        };
+        this.distancia = new long[numCiudades];
+        this.monticulo = new int[numCiudades];
+        this.posicion = new int[numCiudades];
+        this.tocadas = new int[numCiudades];
+        Arrays.fill(distancia, Long.MAX_VALUE);
+        Arrays.fill(posicion, -1);
+    }
+
+    /**
+     * Devuelve la red dispersa sobre la que se calculan los caminos más cortos.
+     *
+     * @return red en formato CSR
+     */
+    public GrafoAdyacencia getRed() {
+        return grafo;
+    }
+
+    @Override
+    public int getNumCiudades() {
+        return numCiudades;
+    }
+
+    /**
+     * Obtiene la longitud del camino más corto entre dos ciudades.
+     *
+     * @param origen  identificador de la ciudad de origen
+     * @param destino identificador de la ciudad de destino
+     * @return distancia del camino más corto o Integer.MAX_VALUE si están en componentes distintas
+     */
+    @Override
+    public int getDistancia(int origen, int destino) {
+        if (origen == destino) {
+            return 0;
+        }
+        synchronized (filas) {
+            int[] fila = filas.get(origen);
+            if (fila == null) {
+                int[] filaDestino = filas.get(destino);
+                if (filaDestino != null) {
+                    return filaDestino[origen];
+                }
+                int cercana = distanciaCercana(origen, destino);
+                if (cercana < 0) {
+                    cercana = distanciaCercana(destino, origen);
+                }
+                if (cercana >= 0) {
+                    return cercana;
+                }
+                if ((origen == ultimoOrigen && destino == ultimoDestino)
+                        || (origen == ultimoDestino && destino == ultimoOrigen)) {
+                    return ultimaDistancia;
+                }
+                fila = calcularFila(origen);
+                filas.put(origen, fila);
+            }
+            return fila[destino];
+        }
+    }
+
+    /**
+     * Busca las k ciudades más cercanas a otra según el camino más corto, deteniendo Dijkstra en
+     * cuanto se asientan. Las primeras {@value #CERCANOS} distancias quedan guardadas para
+     * {@link #getDistancia(int, int)}.
+     *
+     * @param ciudad  identificador de la ciudad de referencia
+     * @param k       cantidad de vecinos buscados
+     * @param destino arreglo donde se escriben los vecinos, del más cercano al más lejano
+     * @return cantidad de vecinos escritos (menos de k si la componente es más chica)
+     */
+    public int kMasCercanas(int ciudad, int k, int[] destino) {
+        synchronized (filas) {
+            int cantidad = dijkstra(ciudad, null, k, null, destino);
+            if (cercanos == null) {
+                cercanos = new int[numCiudades * CERCANOS];
+                distanciasCercanas = new int[numCiudades * CERCANOS];
+                cantidadCercanos = new byte[numCiudades];
+            }
+            int guardar = Math.min(cantidad, CERCANOS);
+            if (guardar > cantidadCercanos[ciudad]) {
+                for (int i = 0; i < guardar; i++) {
+                    cercanos[ciudad * CERCANOS + i] = destino[i];
+                    distanciasCercanas[ciudad * CERCANOS + i] = recortar(distancia[destino[i]]);
+                }
+                cantidadCercanos[ciudad] = (byte) guardar;
+            }
+            return cantidad;
+        }
+    }
+
+    /**
+     * Busca la ciudad no visitada más cercana a otra según el camino más corto (el camino puede
+     * pasar por ciudades visitadas), deteniendo Dijkstra en cuanto asienta la primera.
+     *
+     * @param ciudad   identificador de la ciudad de referencia
+     * @param visitado bitset de ciudades visitadas
+     * @return ciudad más cercana o -1 si no queda ninguna alcanzable
+     */
+    public int masCercanaNoVisitada(int ciudad, long[] visitado) {
+        synchronized (filas) {
+            int[] encontrada = new int[1];
+            if (dijkstra(ciudad, null, 1, visitado, encontrada) == 0) {
+                return -1;
+            }
+            ultimoOrigen = ciudad;
+            ultimoDestino = encontrada[0];
+            ultimaDistancia = recortar(distancia[encontrada[0]]);
+            return encontrada[0];
+        }
+    }
+
+    /**
+     * Busca una distancia entre los vecinos más cercanos guardados de una ciudad.
+     *
+     * @return distancia, o -1 si el destino no está entre ellos
+     */
+    private int distanciaCercana(int origen, int destino) {
+        if (cercanos == null) {
+            return -1;
+        }
+        for (int i = 0; i < cantidadCercanos[origen]; i++) {
+            if (cercanos[origen * CERCANOS + i] == destino) {
+                return distanciasCercanas[origen * CERCANOS + i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Devuelve la cantidad de filas calculadas con Dijkstra desde la creación (incluidas las que
+     * se volvieron a calcular tras salir de la caché).
+     *
+     * @return filas calculadas
+     */
+    public long getFilasCalculadas() {
+        synchronized (filas) {
+            return filasCalculadas;
+        }
+    }
+
+    /**
+     * Reconstruye el camino real por la red entre dos ciudades (no usa la caché).
+     *
+     * @param origen  identificador de la ciudad de origen
+     * @param destino identificador de la ciudad de destino
+     * @return nombres de las ciudades del camino, incluidos los extremos; vacío si no hay camino
+     */
+    public List<String> camino(int origen, int destino) {
+        int[] anterior = new int[numCiudades];
+        synchronized (filas) {
+            dijkstra(origen, anterior, 0, null, null);
+            if (distancia[destino] == Long.MAX_VALUE) {
+                return new ArrayList<>();
+            }
+        }
+        LinkedList<String> camino = new LinkedList<>();
+        for (int c = destino; c != -1; c = anterior[c]) {
+            camino.addFirst(grafo.getNombre(c));
+        }
+        return camino;
+    }
+
+    /**
+     * Calcula la fila de distancias de una ciudad. Se llama con el candado tomado.
+     */
+    private int[] calcularFila(int origen) {
+        dijkstra(origen, null, 0, null, null);
+        filasCalculadas++;
+        int[] fila = new int[numCiudades];
+        for (int i = 0; i < numCiudades; i++) {
+            fila[i] = recortar(distancia[i]);
+        }
+        return fila;
+    }
+
+    /**
+     * Convierte una distancia de Dijkstra a int. Los caminos más largos que un int se recortan
+     * para no confundirlos con "sin conexión".
+     */
+    private static int recortar(long distancia) {
+        return distancia == Long.MAX_VALUE ? Integer.MAX_VALUE : (int) Math.min(distancia, Integer.MAX_VALUE - 1);
+    }
+
+    /**
+     * Dijkstra desde una ciudad con montículo binario indexado (con reducción de clave).
+     * Deja el resultado en {@code distancia} (las ciudades no alcanzadas quedan en Long.MAX_VALUE)
+     * y solo reinicia las posiciones que tocó la búsqueda anterior, así que una búsqueda cortada
+     * cuesta lo que explora y no O(n). Se llama con el candado tomado.
+     *
+     * @param origen    ciudad de origen
+     * @param anterior  arreglo donde se guarda el predecesor de cada ciudad, o null
+     * @param maxSalida cortar al asentar esta cantidad de ciudades de salida, o 0 para no cortar
+     * @param excluidas bitset de ciudades que no cuentan como salida, o null
+     * @param salida    arreglo donde se escriben las ciudades asentadas (sin el origen), o null
+     * @return cantidad de ciudades escritas en la salida
+     */
+    private int dijkstra(int origen, int[] anterior, int maxSalida, long[] excluidas, int[] salida) {
+        for (int i = 0; i < numTocadas; i++) {
+            distancia[tocadas[i]] = Long.MAX_VALUE;
+            posicion[tocadas[i]] = -1;
+        }
+        numTocadas = 0;
+        if (anterior != null) {
+            Arrays.fill(anterior, -1);
+        }
+        int tamanio = 0;
+        int escritas = 0;
+        distancia[origen] = 0;
+        tocadas[numTocadas++] = origen;
+        monticulo[tamanio] = origen;
+        posicion[origen] = tamanio++;
+        while (tamanio > 0) {
+            int actual = monticulo[0];
+            posicion[actual] = -1;
+            if (--tamanio > 0) {
+                monticulo[0] = monticulo[tamanio];
+                posicion[monticulo[0]] = 0;
+                bajar(0, tamanio);
+            }
+            if (maxSalida > 0 && actual != origen
+                    && (excluidas == null || (excluidas[actual >>> 6] & (1L << actual)) == 0)) {
+                salida[escritas++] = actual;
+                if (escritas == maxSalida) {
+                    return escritas; // Lo que quedó en el montículo se reinicia en la próxima búsqueda
+                }
+            }
+            long base = distancia[actual];
+            for (int p = grafo.getInicio(actual); p < grafo.getInicio(actual + 1); p++) {
+                int vecino = grafo.getDestino(p);
+                long nueva = base + grafo.getPeso(p);
+                if (nueva < distancia[vecino]) {
+                    boolean enMonticulo = posicion[vecino] >= 0;
+                    if (distancia[vecino] == Long.MAX_VALUE) {
+                        tocadas[numTocadas++] = vecino;
+                    }
+                    distancia[vecino] = nueva;
+                    if (anterior != null) {
+                        anterior[vecino] = actual;
+                    }
+                    if (!enMonticulo) {
+                        monticulo[tamanio] = vecino;
+                        posicion[vecino] = tamanio++;
+                    }
+                    subir(posicion[vecino]);
+                }
+            }
+        }
+        return escritas;
+    }
+
+    private void subir(int i) {
+        int ciudad = monticulo[i];
+        while (i > 0) {
+            int padre = (i - 1) >>> 1;
+            if (distancia[monticulo[padre]] <= distancia[ciudad]) {
+                break;
+            }
+            monticulo[i] = monticulo[padre];
+            posicion[monticulo[i]] = i;
+            i = padre;
+        }
+        monticulo[i] = ciudad;
+        posicion[ciudad] = i;
+    }
+
+    private void bajar(int i, int tamanio) {
+        int ciudad = monticulo[i];
+        while (true) {
+            int hijo = 2 * i + 1;
+            if (hijo >= tamanio) {
+                break;
+            }
+            if (hijo + 1 < tamanio && distancia[monticulo[hijo + 1]] < distancia[monticulo[hijo]]) {
+                hijo++;
+            }
+            if (distancia[monticulo[hijo]] >= distancia[ciudad]) {
+                break;
+            }
+            monticulo[i] = monticulo[hijo];
+            posicion[monticulo[i]] = i;
+            i = hijo;
+        }
+        monticulo[i] = ciudad;
+        posicion[ciudad] = i;
+    }
+
+    @Override
+    public int getIndice(String ciudad) {
+        Integer indice = indices.get(ciudad);
+        return indice != null ? indice : -1;
+    }
+
+    @Override
+    public String getNombre(int indice) {
+        return grafo.getNombre(indice);
+    }
+}
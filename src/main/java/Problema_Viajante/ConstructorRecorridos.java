@@ -0,0 +1,321 @@
+package Problema_Viajante;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Constructor recorridos.
+ * Heurísticas de construcción aleatorizadas que usa {@link EstrategiaGenetica} para sembrar la
+ * población inicial: vecino más cercano con elección entre los candidatos más cercanos, aristas
+ * voraces con longitudes perturbadas y orden de una curva de Hilbert desplazada al azar (solo en
+ * instancias de coordenadas). Cada instancia tiene sus propios arreglos de trabajo, así que se usa
+ * una por hilo; la matriz y la lista de candidatos se comparten de solo lectura.
+ */
+public final class ConstructorRecorridos {
+    private static final int ALTERNATIVAS = 3;           // candidatos no visitados entre los que se elige
+    private static final double PROBABILIDAD_MAS_CERCANO = 0.75;
+    private static final double PERTURBACION_ARISTAS = 0.2; // hasta +20% sobre cada longitud
+    private static final int BITS_CURVA = 16;            // resolución de la curva de Hilbert por eje
+
+    private final MatrizDistancias matriz;
+    private final ListaCandidatos candidatos;
+    private final int numCiudades;
+
+    // Arreglos de trabajo
+    private final boolean[] visitado;
+    private final int[] pendientes;         // ciudades sin visitar, para el recorrido completo de respaldo
+    private final int[] posicionPendiente;
+    private int numPendientes;
+    private final int[] grado;
+    private final int[] vecino1;
+    private final int[] vecino2;
+    private final int[] padre;              // conjuntos disjuntos de los fragmentos
+    private long[] aristas;                 // se crean en el primer uso de cada heurística
+    private long[] claves;
+
+    /**
+     * Constructor Constructor recorridos.
+     *
+     * @param matriz     matriz de distancias
+     * @param candidatos vecinos más cercanos de cada ciudad
+     */
+    public ConstructorRecorridos(MatrizDistancias matriz, ListaCandidatos candidatos) {
+        this.matriz = matriz;
+        this.candidatos = candidatos;
+        this.numCiudades = matriz.getNumCiudades();
+        this.visitado = new boolean[numCiudades];
+        this.pendientes = new int[numCiudades];
+        this.posicionPendiente = new int[numCiudades];
+        this.grado = new int[numCiudades];
+        this.vecino1 = new int[numCiudades];
+        this.vecino2 = new int[numCiudades];
+        this.padre = new int[numCiudades];
+    }
+
+    /**
+     * Indica si la instancia admite la curva de Hilbert.
+     *
+     * @return true si las ciudades tienen coordenadas
+     */
+    public boolean admiteCurva() {
+        return matriz instanceof GrafoCoordenadas;
+    }
+
+    /**
+     * Marca todas las ciudades como no visitadas.
+     */
+    private void reiniciarVisitas() {
+        Arrays.fill(visitado, false);
+        for (int i = 0; i < numCiudades; i++) {
+            pendientes[i] = i;
+            posicionPendiente[i] = i;
+        }
+        numPendientes = numCiudades;
+    }
+
+    /**
+     * Marca una ciudad como visitada quitándola de las pendientes en O(1).
+     */
+    private void visitar(int ciudad) {
+        visitado[ciudad] = true;
+        int ultima = pendientes[--numPendientes];
+        int posicion = posicionPendiente[ciudad];
+        pendientes[posicion] = ultima;
+        posicionPendiente[ultima] = posicion;
+    }
+
+    /**
+     * Ciudad pendiente más cercana, revisando todas las pendientes.
+     */
+    private int masCercanaPendiente(int ciudad) {
+        int mejor = pendientes[0];
+        int distanciaMejor = matriz.getDistancia(ciudad, mejor);
+        for (int p = 1; p < numPendientes; p++) {
+            int distancia = matriz.getDistancia(ciudad, pendientes[p]);
+            if (distancia < distanciaMejor) {
+                distanciaMejor = distancia;
+                mejor = pendientes[p];
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * Vecino más cercano aleatorizado: empieza en una ciudad al azar y en cada paso toma el candidato
+     * no visitado más cercano con probabilidad {@value #PROBABILIDAD_MAS_CERCANO}, o si no otro de los
+     * {@value #ALTERNATIVAS} más cercanos. Sin candidatos libres revisa todas las pendientes.
+     *
+     * @param recorrido arreglo de {@code numCiudades} donde se escribe el recorrido
+     * @param random    generador aleatorio del hilo
+     */
+    public void vecinoMasCercano(int[] recorrido, RandomGenerator random) {
+        reiniciarVisitas();
+        int actual = random.nextInt(numCiudades);
+        visitar(actual);
+        recorrido[0] = actual;
+        int[] opciones = new int[ALTERNATIVAS];
+        for (int paso = 1; paso < numCiudades; paso++) {
+            int encontradas = 0;
+            for (int c = 0; c < candidatos.getCantidad(actual) && encontradas < ALTERNATIVAS; c++) {
+                int vecino = candidatos.getVecino(actual, c);
+                if (!visitado[vecino]) {
+                    opciones[encontradas++] = vecino;
+                }
+            }
+            int siguiente;
+            if (encontradas == 0) {
+                siguiente = masCercanaPendiente(actual);
+            } else if (encontradas == 1 || random.nextDouble() < PROBABILIDAD_MAS_CERCANO) {
+                siguiente = opciones[0];
+            } else {
+                siguiente = opciones[1 + random.nextInt(encontradas - 1)];
+            }
+            visitar(siguiente);
+            recorrido[paso] = siguiente;
+            actual = siguiente;
+        }
+    }
+
+    /**
+     * Aristas voraces aleatorizadas: recorre las aristas de la lista de candidatos de menor a mayor
+     * longitud (cada una alargada al azar hasta un {@value #PERTURBACION_ARISTAS} de su valor) y
+     * agrega las que no dejan una ciudad con grado 3 ni cierran un ciclo. Los fragmentos resultantes
+     * se unen empezando por uno al azar y pasando cada vez al extremo libre más cercano.
+     *
+     * @param recorrido arreglo de {@code numCiudades} donde se escribe el recorrido
+     * @param random    generador aleatorio del hilo
+     */
+    public void aristasVoraces(int[] recorrido, RandomGenerator random) {
+        int k = candidatos.getK();
+        if (aristas == null) {
+            aristas = new long[numCiudades * k];
+        }
+        int numAristas = 0;
+        for (int i = 0; i < numCiudades; i++) {
+            for (int c = 0; c < candidatos.getCantidad(i); c++) {
+                int distancia = matriz.getDistancia(i, candidatos.getVecino(i, c));
+                long perturbada = Math.min(Integer.MAX_VALUE,
+                        (long) (distancia * (1 + PERTURBACION_ARISTAS * random.nextDouble())));
+                aristas[numAristas++] = (perturbada << 32) | (i * k + c);
+            }
+        }
+        Arrays.sort(aristas, 0, numAristas);
+
+        Arrays.fill(grado, 0);
+        Arrays.fill(vecino1, -1);
+        Arrays.fill(vecino2, -1);
+        for (int i = 0; i < numCiudades; i++) {
+            padre[i] = i;
+        }
+        for (int a = 0; a < numAristas; a++) {
+            int indice = (int) aristas[a];
+            int u = indice / k;
+            int v = candidatos.getVecino(u, indice % k);
+            if (grado[u] >= 2 || grado[v] >= 2) {
+                continue;
+            }
+            int raizU = raiz(u);
+            int raizV = raiz(v);
+            if (raizU == raizV) {
+                continue;
+            }
+            padre[raizU] = raizV;
+            unir(u, v);
+            unir(v, u);
+        }
+
+        // Extremos de los fragmentos (una ciudad aislada es un fragmento de un solo extremo)
+        int numExtremos = 0;
+        int[] extremos = padre; // la unión ya no se necesita
+        for (int i = 0; i < numCiudades; i++) {
+            if (grado[i] < 2) {
+                extremos[numExtremos++] = i;
+            }
+        }
+        Arrays.fill(visitado, false);
+        int escritas = 0;
+        int extremo = numExtremos > 0 ? extremos[random.nextInt(numExtremos)] : random.nextInt(numCiudades);
+        while (true) {
+            // Recorre el fragmento desde el extremo hasta el otro extremo
+            int anterior = -1;
+            int actual = extremo;
+            while (actual >= 0) {
+                visitado[actual] = true;
+                recorrido[escritas++] = actual;
+                int siguiente = vecino1[actual] != anterior ? vecino1[actual] : vecino2[actual];
+                anterior = actual;
+                actual = siguiente;
+            }
+            if (escritas == numCiudades) {
+                return;
+            }
+            // Extremo libre más cercano; los ya visitados se quitan de la lista al encontrarlos
+            int ultimo = anterior;
+            int mejor = -1;
+            int distanciaMejor = Integer.MAX_VALUE;
+            for (int e = 0; e < numExtremos; ) {
+                int candidato = extremos[e];
+                if (visitado[candidato]) {
+                    extremos[e] = extremos[--numExtremos];
+                    continue;
+                }
+                int distancia = matriz.getDistancia(ultimo, candidato);
+                if (mejor < 0 || distancia < distanciaMejor) {
+                    mejor = candidato;
+                    distanciaMejor = distancia;
+                }
+                e++;
+            }
+            extremo = mejor;
+        }
+    }
+
+    private int raiz(int ciudad) {
+        while (padre[ciudad] != ciudad) {
+            padre[ciudad] = padre[padre[ciudad]];
+            ciudad = padre[ciudad];
+        }
+        return ciudad;
+    }
+
+    private void unir(int u, int v) {
+        if (vecino1[u] < 0) {
+            vecino1[u] = v;
+        } else {
+            vecino2[u] = v;
+        }
+        grado[u]++;
+    }
+
+    /**
+     * Curva de Hilbert: ordena las ciudades por su posición sobre la curva después de desplazar las
+     * coordenadas al azar (con vuelta al otro lado) y aplicar una de las ocho simetrías del cuadrado,
+     * para que cada llamada dé un recorrido distinto. Solo sirve si {@link #admiteCurva()}.
+     *
+     * @param recorrido arreglo de {@code numCiudades} donde se escribe el recorrido
+     * @param random    generador aleatorio del hilo
+     */
+    public void curvaHilbert(int[] recorrido, RandomGenerator random) {
+        GrafoCoordenadas coordenadas = (GrafoCoordenadas) matriz;
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int i = 0; i < numCiudades; i++) {
+            minX = Math.min(minX, coordenadas.getX(i));
+            maxX = Math.max(maxX, coordenadas.getX(i));
+            minY = Math.min(minY, coordenadas.getY(i));
+            maxY = Math.max(maxY, coordenadas.getY(i));
+        }
+        double lado = Math.max(Math.max(maxX - minX, maxY - minY), 1e-9);
+        int celdas = 1 << BITS_CURVA;
+        double escala = (celdas - 1) / lado;
+        int desplazamientoX = random.nextInt(celdas);
+        int desplazamientoY = random.nextInt(celdas);
+        int simetria = random.nextInt(8);
+
+        if (claves == null) {
+            claves = new long[numCiudades];
+        }
+        for (int i = 0; i < numCiudades; i++) {
+            int x = ((int) ((coordenadas.getX(i) - minX) * escala) + desplazamientoX) & (celdas - 1);
+            int y = ((int) ((coordenadas.getY(i) - minY) * escala) + desplazamientoY) & (celdas - 1);
+            if ((simetria & 1) != 0) {
+                x = celdas - 1 - x;
+            }
+            if ((simetria & 2) != 0) {
+                y = celdas - 1 - y;
+            }
+            if ((simetria & 4) != 0) {
+                int tmp = x;
+                x = y;
+                y = tmp;
+            }
+            claves[i] = (indiceHilbert(celdas, x, y) << 31) | i;
+        }
+        Arrays.sort(claves);
+        for (int i = 0; i < numCiudades; i++) {
+            recorrido[i] = (int) (claves[i] & Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Posición de una celda sobre la curva de Hilbert que cubre una cuadrícula de lado {@code celdas}.
+     */
+    private static long indiceHilbert(int celdas, int x, int y) {
+        long d = 0;
+        for (int s = celdas / 2; s > 0; s /= 2) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            d += (long) s * s * ((3 * rx) ^ ry);
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = celdas - 1 - x;
+                    y = celdas - 1 - y;
+                }
+                int tmp = x;
+                x = y;
+                y = tmp;
+            }
+        }
+        return d;
+    }
+}
@@ -0,0 +1,265 @@
+package Problema_Viajante;
+
+import java.util.*;
+
+/**
+ * Cota inferior.
+ * Cotas inferiores de la longitud del ciclo óptimo a partir de árboles de expansión mínima
+ * (algoritmo de Prim O(k^2) sobre la matriz compilada, con arreglos primitivos reutilizables).
+ * Sirven para podar en {@link EstrategiaExacta} y para informar la brecha de las heurísticas
+ * cuando el óptimo no se puede calcular.
+ * <p>
+ * {@link #heldKarp()} mejora el 1-árbol con optimización por subgradiente (cota de Held-Karp):
+ * suma una penalización {@code pi[i]} a cada arista que toca la ciudad i, lo que no cambia cuál es
+ * el ciclo óptimo pero sí el 1-árbol mínimo, y ajusta las penalizaciones para acercar el grado de
+ * cada ciudad a 2. Con penalizaciones bien ajustadas la cota suele quedar a menos de un 1-2% del óptimo.
+ */
+public final class CotaInferior {
+    static final long INFINITO = Long.MAX_VALUE / 4; // Margen para sumar cotas sin desbordar
+    private static final int ITERACIONES_POR_DEFECTO = 200;
+    private static final int PACIENCIA = 10;          // iteraciones sin mejora antes de reducir el paso
+
+    private final MatrizDistancias matriz;
+    private final int numCiudades;
+    private final long[] clave;      // costo mínimo para unir cada ciudad al árbol
+    private final boolean[] enArbol;
+    private final int[] todas;       // ciudades 1..n-1 para el 1-árbol
+    private final double[] clavePenalizada;
+    private final int[] padre;
+
+    /**
+     * Constructor Cota inferior.
+     *
+     * @param matriz matriz de distancias
+     */
+    public CotaInferior(MatrizDistancias matriz) {
+        this.matriz = matriz;
+        this.numCiudades = matriz.getNumCiudades();
+        this.clave = new long[numCiudades];
+        this.enArbol = new boolean[numCiudades];
+        this.clavePenalizada = new double[numCiudades];
+        this.padre = new int[numCiudades];
+        this.todas = new int[Math.max(0, numCiudades - 1)];
+        for (int i = 1; i < numCiudades; i++) {
+            todas[i - 1] = i;
+        }
+    }
+
+    /**
+     * Cota del 1-árbol con la ciudad 0 como nodo especial: árbol de expansión mínima de las
+     * ciudades 1..n-1 más las dos aristas más cortas que salen de la ciudad 0.
+     *
+     * @return cota inferior de la longitud del ciclo óptimo
+     */
+    public long unoArbol() {
+        if (numCiudades < 3) {
+            return numCiudades == 2 ? 2L * matriz.getDistancia(0, 1) : 0;
+        }
+        long primera = INFINITO;
+        long segunda = INFINITO;
+        for (int j = 1; j < numCiudades; j++) {
+            long distancia = d(0, j);
+            if (distancia < primera) {
+                segunda = primera;
+                primera = distancia;
+            } else if (distancia < segunda) {
+                segunda = distancia;
+            }
+        }
+        return Math.min(INFINITO, arbolExpansion(todas, todas.length) + primera + segunda);
+    }
+
+    /**
+     * Cota de Held-Karp con la cota superior de un recorrido de vecino más cercano y la cantidad
+     * de iteraciones por defecto.
+     *
+     * @return cota inferior de la longitud del ciclo óptimo
+     */
+    public long heldKarp() {
+        return heldKarp(vecinoMasCercano(), ITERACIONES_POR_DEFECTO);
+    }
+
+    /**
+     * Cota de Held-Karp por optimización por subgradiente del 1-árbol.
+     * El paso sigue la regla de Polyak {@code lambda * (cotaSuperior - w) / ||grado - 2||^2} y
+     * {@code lambda} se reduce a la mitad tras {@link #PACIENCIA} iteraciones sin mejora.
+     *
+     * @param cotaSuperior   longitud de algún recorrido conocido (mientras más ajustada, mejor el paso)
+     * @param maxIteraciones máximo de iteraciones de subgradiente
+     * @return cota inferior de la longitud del ciclo óptimo (nunca menor que {@link #unoArbol()})
+     */
+    public long heldKarp(long cotaSuperior, int maxIteraciones) {
+        long cotaBase = unoArbol();
+        if (numCiudades < 3 || cotaBase >= INFINITO) {
+            return cotaBase;
+        }
+        double[] pi = new double[numCiudades];
+        int[] grado = new int[numCiudades];
+        double mejor = cotaBase;
+        double lambda = 2.0;
+        int sinMejora = 0;
+        for (int iteracion = 0; iteracion < maxIteraciones && lambda > 1e-4; iteracion++) {
+            double w = unoArbolPenalizado(pi, grado);
+            if (w > mejor + 1e-9) {
+                mejor = w;
+                sinMejora = 0;
+            } else if (++sinMejora >= PACIENCIA) {
+                lambda /= 2;
+                sinMejora = 0;
+            }
+
+            long norma = 0;
+            for (int i = 0; i < numCiudades; i++) {
+                norma += (long) (grado[i] - 2) * (grado[i] - 2);
+            }
+            if (norma == 0 || Math.ceil(mejor - 1e-6) >= cotaSuperior) {
+                break; // El 1-árbol ya es un ciclo, o la cota alcanzó al recorrido conocido
+            }
+            double paso = lambda * Math.max(cotaSuperior - w, 1.0) / norma;
+            for (int i = 0; i < numCiudades; i++) {
+                pi[i] += paso * (grado[i] - 2);
+            }
+        }
+        return Math.max(cotaBase, (long) Math.ceil(mejor - 1e-6)); // Las longitudes son enteras
+    }
+
+    /**
+     * 1-árbol mínimo con costos {@code d(i, j) + pi[i] + pi[j]} (Prim sobre las ciudades 1..n-1 más
+     * las dos aristas más baratas de la ciudad 0), descontando {@code 2 * sum(pi)}.
+     *
+     * @param pi    penalización de cada ciudad
+     * @param grado arreglo donde se escribe el grado de cada ciudad en el 1-árbol
+     * @return valor de la cota para estas penalizaciones
+     */
+    private double unoArbolPenalizado(double[] pi, int[] grado) {
+        Arrays.fill(grado, 0);
+        for (int i = 1; i < numCiudades; i++) {
+            clavePenalizada[i] = Double.MAX_VALUE;
+            enArbol[i] = false;
+            padre[i] = -1;
+        }
+        clavePenalizada[1] = 0;
+        double peso = 0;
+        for (int paso = 1; paso < numCiudades; paso++) {
+            int mejor = -1;
+            for (int i = 1; i < numCiudades; i++) {
+                if (!enArbol[i] && (mejor < 0 || clavePenalizada[i] < clavePenalizada[mejor])) {
+                    mejor = i;
+                }
+            }
+            enArbol[mejor] = true;
+            peso += clavePenalizada[mejor];
+            if (padre[mejor] >= 0) {
+                grado[mejor]++;
+                grado[padre[mejor]]++;
+            }
+            for (int i = 1; i < numCiudades; i++) {
+                if (!enArbol[i]) {
+                    double costo = d(mejor, i) + pi[mejor] + pi[i];
+                    if (costo < clavePenalizada[i]) {
+                        clavePenalizada[i] = costo;
+                        padre[i] = mejor;
+                    }
+                }
+            }
+        }
+
+        int primera = -1;
+        int segunda = -1;
+        for (int j = 1; j < numCiudades; j++) {
+            double costo = d(0, j) + pi[j];
+            if (primera < 0 || costo < d(0, primera) + pi[primera]) {
+                segunda = primera;
+                primera = j;
+            } else if (segunda < 0 || costo < d(0, segunda) + pi[segunda]) {
+                segunda = j;
+            }
+        }
+        peso += d(0, primera) + pi[primera] + d(0, segunda) + pi[segunda] + 2 * pi[0];
+        grado[0] = 2;
+        grado[primera]++;
+        grado[segunda]++;
+
+        double suma = 0;
+        for (int i = 0; i < numCiudades; i++) {
+            suma += pi[i];
+        }
+        return peso - 2 * suma;
+    }
+
+    /**
+     * Longitud de un recorrido de vecino más cercano desde la ciudad 0, usada como cota superior.
+     *
+     * @return longitud del recorrido, o {@link #INFINITO} si se queda sin aristas
+     */
+    private long vecinoMasCercano() {
+        Arrays.fill(enArbol, false);
+        int actual = 0;
+        enArbol[0] = true;
+        long longitud = 0;
+        for (int paso = 1; paso < numCiudades; paso++) {
+            int siguiente = -1;
+            for (int j = 0; j < numCiudades; j++) {
+                if (!enArbol[j] && (siguiente < 0 || d(actual, j) < d(actual, siguiente))) {
+                    siguiente = j;
+                }
+            }
+            if (d(actual, siguiente) >= INFINITO) {
+                return INFINITO;
+            }
+            enArbol[siguiente] = true;
+            longitud += d(actual, siguiente);
+            actual = siguiente;
+        }
+        return Math.min(INFINITO, longitud + d(actual, 0));
+    }
+
+    /**
+     * Peso del árbol de expansión mínima de un subconjunto de ciudades.
+     *
+     * @param ciudades identificadores de las ciudades del subconjunto
+     * @param cantidad cantidad de ciudades a usar desde el inicio del arreglo
+     * @return peso del árbol, o {@link #INFINITO} si el subconjunto no es conexo
+     */
+    long arbolExpansion(int[] ciudades, int cantidad) {
+        if (cantidad <= 1) {
+            return 0;
+        }
+        for (int i = 0; i < cantidad; i++) {
+            clave[i] = INFINITO;
+            enArbol[i] = false;
+        }
+        clave[0] = 0;
+        long peso = 0;
+        for (int paso = 0; paso < cantidad; paso++) {
+            int mejor = -1;
+            for (int i = 0; i < cantidad; i++) {
+                if (!enArbol[i] && (mejor < 0 || clave[i] < clave[mejor])) {
+                    mejor = i;
+                }
+            }
+            if (clave[mejor] >= INFINITO) {
+                return INFINITO;
+            }
+            enArbol[mejor] = true;
+            peso += clave[mejor];
+            for (int i = 0; i < cantidad; i++) {
+                if (!enArbol[i]) {
+                    long distancia = d(ciudades[mejor], ciudades[i]);
+                    if (distancia < clave[i]) {
+                        clave[i] = distancia;
+                    }
+                }
+            }
+        }
+        return peso;
+    }
+
+    /**
+     * Distancia entre dos ciudades con las aristas inexistentes como {@link #INFINITO}.
+     */
+    private long d(int a, int b) {
+        int distancia = matriz.getDistancia(a, b);
+        return distancia == Integer.MAX_VALUE ? INFINITO : distancia;
+    }
+}
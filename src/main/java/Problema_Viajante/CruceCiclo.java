@@ -0,0 +1,54 @@
+package Problema_Viajante;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Cruce de ciclos (CX - Cycle Crossover).
+ * Descompone las posiciones en ciclos entre ambos padres y los hereda alternadamente, de modo que
+ * cada gen del hijo conserva la posición que tenía en alguno de los padres. No usa aleatoriedad.
+ */
+public class CruceCiclo implements OperadorCruce {
+    private final int numCiudades;
+    private final int[] posicionPadre1; // gen -> posición en el primer padre
+    private final int[] marca;
+    private int sello;
+
+    /**
+     * Constructor Cruce ciclo.
+     *
+     * @param numCiudades cantidad de genes de cada cromosoma
+     */
+    public CruceCiclo(int numCiudades) {
+        this.numCiudades = numCiudades;
+        this.posicionPadre1 = new int[numCiudades];
+        this.marca = new int[numCiudades];
+    }
+
+    @Override
+    public void cruzar(int[] padre1, int base1, int[] padre2, int base2, int[] hijo, int baseHijo, RandomGenerator random) {
+        if (++sello == 0) {
+            Arrays.fill(marca, 0);
+            sello = 1;
+        }
+        for (int i = 0; i < numCiudades; i++) {
+            posicionPadre1[padre1[base1 + i]] = i;
+        }
+
+        boolean desdePadre1 = true;
+        for (int inicio = 0; inicio < numCiudades; inicio++) {
+            if (marca[inicio] == sello) {
+                continue;
+            }
+            int[] fuente = desdePadre1 ? padre1 : padre2;
+            int baseFuente = desdePadre1 ? base1 : base2;
+            int idx = inicio;
+            do {
+                marca[idx] = sello;
+                hijo[baseHijo + idx] = fuente[baseFuente + idx];
+                idx = posicionPadre1[padre2[base2 + idx]];
+            } while (idx != inicio);
+            desdePadre1 = !desdePadre1;
+        }
+    }
+}
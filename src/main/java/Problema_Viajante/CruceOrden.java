@@ -0,0 +1,63 @@
+package Problema_Viajante;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Cruce de orden (OX - Order Crossover).
+ * Copia un segmento del primer padre y completa el resto con los genes del segundo padre en su
+ * orden relativo. Los genes ya colocados se marcan con un sello entero, así cada cruce es O(n)
+ * y no hace falta limpiar el arreglo de marcas entre llamadas.
+ */
+public class CruceOrden implements OperadorCruce {
+    private final int numCiudades;
+    private final int[] marca;
+    private int sello;
+
+    /**
+     * Constructor Cruce orden.
+     *
+     * @param numCiudades cantidad de genes de cada cromosoma
+     */
+    public CruceOrden(int numCiudades) {
+        this.numCiudades = numCiudades;
+        this.marca = new int[numCiudades];
+    }
+
+    @Override
+    public void cruzar(int[] padre1, int base1, int[] padre2, int base2, int[] hijo, int baseHijo, RandomGenerator random) {
+        int puntoInicio = random.nextInt(numCiudades);
+        int puntoFin = random.nextInt(numCiudades - puntoInicio) + puntoInicio;
+        int s = siguienteSello();
+
+        for (int i = puntoInicio; i <= puntoFin; i++) {
+            int gen = padre1[base1 + i];
+            hijo[baseHijo + i] = gen;
+            marca[gen] = s;
+        }
+
+        int idx = 0;
+        for (int k = 0; k < numCiudades; k++) {
+            int gen = padre2[base2 + k];
+            if (marca[gen] != s) {
+                if (idx == puntoInicio) {
+                    idx = puntoFin + 1; // Saltar el segmento heredado del primer padre
+                }
+                hijo[baseHijo + idx++] = gen;
+            }
+        }
+    }
+
+    /**
+     * Avanza el sello de marcas, reiniciando el arreglo solo cuando el contador se desborda.
+     *
+     * @return sello vigente para este cruce
+     */
+    private int siguienteSello() {
+        if (++sello == 0) {
+            Arrays.fill(marca, 0);
+            sello = 1;
+        }
+        return sello;
+    }
+}
@@ -0,0 +1,58 @@
+package Problema_Viajante;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Cruce parcialmente mapeado (PMX - Partially Mapped Crossover).
+ * Hereda un segmento del primer padre y coloca el resto de genes del segundo padre en su misma
+ * posición, resolviendo los conflictos a través del mapeo definido por el segmento.
+ */
+public class CrucePMX implements OperadorCruce {
+    private final int numCiudades;
+    private final int[] posicionPadre1; // gen -> posición en el primer padre
+    private final int[] marca;
+    private int sello;
+
+    /**
+     * Constructor Cruce PMX.
+     *
+     * @param numCiudades cantidad de genes de cada cromosoma
+     */
+    public CrucePMX(int numCiudades) {
+        this.numCiudades = numCiudades;
+        this.posicionPadre1 = new int[numCiudades];
+        this.marca = new int[numCiudades];
+    }
+
+    @Override
+    public void cruzar(int[] padre1, int base1, int[] padre2, int base2, int[] hijo, int baseHijo, RandomGenerator random) {
+        int puntoInicio = random.nextInt(numCiudades);
+        int puntoFin = random.nextInt(numCiudades - puntoInicio) + puntoInicio;
+        if (++sello == 0) {
+            Arrays.fill(marca, 0);
+            sello = 1;
+        }
+
+        for (int i = 0; i < numCiudades; i++) {
+            posicionPadre1[padre1[base1 + i]] = i;
+        }
+        for (int i = puntoInicio; i <= puntoFin; i++) {
+            int gen = padre1[base1 + i];
+            hijo[baseHijo + i] = gen;
+            marca[gen] = sello;
+        }
+
+        for (int i = 0; i < numCiudades; i++) {
+            if (i == puntoInicio) {
+                i = puntoFin;
+                continue;
+            }
+            int gen = padre2[base2 + i];
+            while (marca[gen] == sello) {
+                gen = padre2[base2 + posicionPadre1[gen]]; // Seguir el mapeo del segmento
+            }
+            hijo[baseHijo + i] = gen;
+        }
+    }
+}
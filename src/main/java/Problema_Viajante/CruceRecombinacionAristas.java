@@ -0,0 +1,138 @@
+package Problema_Viajante;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Cruce por recombinación de aristas (ERX - Edge Recombination Crossover).
+ * Construye el hijo recorriendo la unión de aristas de ambos padres y eligiendo siempre el vecino
+ * con menos aristas restantes; si la ciudad actual se queda sin vecinos se toma una ciudad libre al
+ * azar. Las listas de vecinos (a lo sumo 4 por ciudad) y el conjunto de ciudades libres son
+ * arreglos primitivos, por lo que cada cruce es O(n).
+ */
+public class CruceRecombinacionAristas implements OperadorCruce {
+    private static final int MAX_VECINOS = 4;
+
+    private final int numCiudades;
+    private final int[] vecinos;   // numCiudades * MAX_VECINOS
+    private final int[] grado;     // vecinos restantes por ciudad
+    private final int[] libres;    // ciudades aún no colocadas
+    private final int[] posicionLibre;
+    private final int[] empates;
+
+    /**
+     * Constructor Cruce recombinación aristas.
+     *
+     * @param numCiudades cantidad de genes de cada cromosoma
+     */
+    public CruceRecombinacionAristas(int numCiudades) {
+        this.numCiudades = numCiudades;
+        this.vecinos = new int[numCiudades * MAX_VECINOS];
+        this.grado = new int[numCiudades];
+        this.libres = new int[numCiudades];
+        this.posicionLibre = new int[numCiudades];
+        this.empates = new int[MAX_VECINOS];
+    }
+
+    @Override
+    public void cruzar(int[] padre1, int base1, int[] padre2, int base2, int[] hijo, int baseHijo, RandomGenerator random) {
+        for (int i = 0; i < numCiudades; i++) {
+            grado[i] = 0;
+            libres[i] = i;
+            posicionLibre[i] = i;
+        }
+        agregarAristas(padre1, base1);
+        agregarAristas(padre2, base2);
+
+        int cantidadLibres = numCiudades;
+        int actual = padre1[base1];
+        for (int k = 0; k < numCiudades; k++) {
+            hijo[baseHijo + k] = actual;
+            cantidadLibres = quitarLibre(actual, cantidadLibres);
+            for (int v = 0; v < grado[actual]; v++) {
+                quitarVecino(vecinos[actual * MAX_VECINOS + v], actual);
+            }
+            if (cantidadLibres == 0) {
+                break;
+            }
+
+            int menorGrado = Integer.MAX_VALUE;
+            int numEmpates = 0;
+            for (int v = 0; v < grado[actual]; v++) {
+                int candidato = vecinos[actual * MAX_VECINOS + v];
+                if (grado[candidato] < menorGrado) {
+                    menorGrado = grado[candidato];
+                    numEmpates = 0;
+                }
+                if (grado[candidato] == menorGrado) {
+                    empates[numEmpates++] = candidato;
+                }
+            }
+            actual = numEmpates > 0
+                    ? empates[random.nextInt(numEmpates)]
+                    : libres[random.nextInt(cantidadLibres)];
+        }
+    }
+
+    /**
+     * Agrega las aristas del ciclo de un padre a las listas de vecinos, sin repetidos.
+     *
+     * @param padre arreglo que contiene el padre
+     * @param base  posición del primer gen del padre
+     */
+    private void agregarAristas(int[] padre, int base) {
+        int anterior = padre[base + numCiudades - 1];
+        for (int i = 0; i < numCiudades; i++) {
+            int ciudad = padre[base + i];
+            agregarVecino(anterior, ciudad);
+            agregarVecino(ciudad, anterior);
+            anterior = ciudad;
+        }
+    }
+
+    /**
+     * Agrega un vecino a la lista de una ciudad si aún no está.
+     *
+     * @param ciudad ciudad dueña de la lista
+     * @param vecino ciudad vecina
+     */
+    private void agregarVecino(int ciudad, int vecino) {
+        int desde = ciudad * MAX_VECINOS;
+        for (int v = 0; v < grado[ciudad]; v++) {
+            if (vecinos[desde + v] == vecino) {
+                return;
+            }
+        }
+        vecinos[desde + grado[ciudad]++] = vecino;
+    }
+
+    /**
+     * Quita un vecino de la lista de una ciudad.
+     *
+     * @param ciudad ciudad dueña de la lista
+     * @param vecino ciudad a quitar
+     */
+    private void quitarVecino(int ciudad, int vecino) {
+        int desde = ciudad * MAX_VECINOS;
+        for (int v = 0; v < grado[ciudad]; v++) {
+            if (vecinos[desde + v] == vecino) {
+                vecinos[desde + v] = vecinos[desde + --grado[ciudad]];
+                return;
+            }
+        }
+    }
+
+    /**
+     * Quita una ciudad del conjunto de ciudades libres.
+     *
+     * @param ciudad         ciudad ya colocada en el hijo
+     * @param cantidadLibres cantidad actual de ciudades libres
+     * @return nueva cantidad de ciudades libres
+     */
+    private int quitarLibre(int ciudad, int cantidadLibres) {
+        int ultima = libres[cantidadLibres - 1];
+        int posicion = posicionLibre[ciudad];
+        libres[posicion] = ultima;
+        posicionLibre[ultima] = posicion;
+        return cantidadLibres - 1;
+    }
+}
@@ -0,0 +1,284 @@
+package Problema_Viajante;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Escritor grafo binario.
+ * Crea los archivos que abre {@link GrafoBinario}: escribe la cabecera, la tabla de nombres y luego
+ * la matriz fila por fila (o las coordenadas) con un único búfer reutilizado. Con
+ * {@link #convertirTexto(String, Path)} convierte una lista de aristas en texto sin armar la matriz
+ * en el heap.
+ */
+public final class EscritorGrafoBinario {
+
+    private EscritorGrafoBinario() {
+    }
+
+    /**
+     * Escribe una matriz de distancias eligiendo el formato más compacto: {@code char} si todas las
+     * distancias caben en 0..65534 y {@code int} en otro caso.
+     *
+     * @param matriz  matriz de distancias (por ejemplo {@link Grafo#compilar()})
+     * @param archivo ruta del archivo a crear
+     * @throws IOException si no se puede escribir
+     */
+    public static void escribir(MatrizDistancias matriz, Path archivo) throws IOException {
+        int n = matriz.getNumCiudades();
+        GrafoBinario.Formato formato = GrafoBinario.Formato.MATRIZ_CORTA;
+        for (int i = 0; i < n && formato == GrafoBinario.Formato.MATRIZ_CORTA; i++) {
+            for (int j = 0; j < n; j++) {
+                int distancia = matriz.getDistancia(i, j);
+                if (distancia != Integer.MAX_VALUE && (distancia < 0 || distancia >= GrafoBinario.SIN_ARISTA_CORTA)) {
+                    formato = GrafoBinario.Formato.MATRIZ_ENTERA;
+                    break;
+                }
+            }
+        }
+
+        try (FileChannel canal = abrirParaEscribir(archivo)) {
+            escribirCabecera(canal, formato, nombres(matriz));
+            ByteBuffer fila = ByteBuffer.allocateDirect(n * GrafoBinario.bytesPorCelda(formato))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < n; i++) {
+                fila.clear();
+                for (int j = 0; j < n; j++) {
+                    int distancia = matriz.getDistancia(i, j);
+                    if (formato == GrafoBinario.Formato.MATRIZ_CORTA) {
+                        fila.putChar(distancia == Integer.MAX_VALUE ? GrafoBinario.SIN_ARISTA_CORTA : (char) distancia);
+                    } else {
+                        fila.putInt(distancia);
+                    }
+                }
+                escribirCompleto(canal, fila);
+            }
+        }
+    }
+
+    /**
+     * Escribe una instancia euclídea como lista de coordenadas (16 bytes por ciudad).
+     *
+     * @param nombres nombres de las ciudades
+     * @param x       coordenada x de cada ciudad
+     * @param y       coordenada y de cada ciudad
+     * @param archivo ruta del archivo a crear
+     * @throws IOException si no se puede escribir
+     */
+    public static void escribirCoordenadas(String[] nombres, double[] x, double[] y, Path archivo) throws IOException {
+        try (FileChannel canal = abrirParaEscribir(archivo)) {
+            escribirCabecera(canal, GrafoBinario.Formato.COORDENADAS, nombres);
+            ByteBuffer bufer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < nombres.length; i++) {
+                if (bufer.remaining() < 16) {
+                    escribirCompleto(canal, bufer);
+                    bufer.clear();
+                }
+                bufer.putDouble(x[i]).putDouble(y[i]);
+            }
+            escribirCompleto(canal, bufer);
+        }
+    }
+
+    /**
+     * Convierte un grafo en texto al formato binario. Cada línea no vacía tiene la forma
+     * {@code origen;destino;distancia}; las líneas que empiezan con '#' se ignoran.
+     * <p>
+     * El texto se lee dos veces para no tener la matriz en el heap: la primera pasada numera las
+     * ciudades en orden de aparición y elige el formato; después se escribe la matriz vacía fila por
+     * fila y la segunda pasada vuelca cada arista sobre el archivo mapeado. Solo los nombres ocupan
+     * memoria, así que sirve para instancias de decenas de miles de ciudades. Si una arista se repite
+     * se conserva la primera.
+     *
+     * @param archivoTexto ruta del archivo de texto
+     * @param archivo      ruta del archivo binario a crear
+     * @throws IOException si no se puede leer o escribir
+     */
+    public static void convertirTexto(String archivoTexto, Path archivo) throws IOException {
+        Map<String, Integer> indices = new LinkedHashMap<>();
+        GrafoBinario.Formato formato = GrafoBinario.Formato.MATRIZ_CORTA;
+        try (BufferedReader br = new BufferedReader(new FileReader(archivoTexto, StandardCharsets.UTF_8))) {
+            String linea;
+            while ((linea = br.readLine()) != null) {
+                String[] partes = partirLinea(linea, archivoTexto);
+                if (partes == null) {
+                    continue;
+                }
+                indices.putIfAbsent(partes[0], indices.size());
+                indices.putIfAbsent(partes[1], indices.size());
+                int distancia = leerDistancia(partes[2], linea, archivoTexto);
+                if (distancia != Integer.MAX_VALUE && (distancia < 0 || distancia >= GrafoBinario.SIN_ARISTA_CORTA)) {
+                    formato = GrafoBinario.Formato.MATRIZ_ENTERA;
+                }
+            }
+        }
+        int n = indices.size();
+        int bytesPorCelda = GrafoBinario.bytesPorCelda(formato);
+        long bytesPorFila = (long) n * bytesPorCelda;
+
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            escribirCabecera(canal, formato, indices.keySet().toArray(new String[0]));
+            long desplazamientoDatos = canal.position();
+
+            // Matriz sin aristas, con la diagonal en 0
+            ByteBuffer fila = ByteBuffer.allocateDirect((int) bytesPorFila).order(ByteOrder.LITTLE_ENDIAN);
+            for (int j = 0; j < n; j++) {
+                if (formato == GrafoBinario.Formato.MATRIZ_CORTA) {
+                    fila.putChar(GrafoBinario.SIN_ARISTA_CORTA);
+                } else {
+                    fila.putInt(Integer.MAX_VALUE);
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                fila.clear();
+                if (formato == GrafoBinario.Formato.MATRIZ_CORTA) {
+                    fila.putChar(i * 2, (char) 0);
+                } else {
+                    fila.putInt(i * 4, 0);
+                }
+                fila.position(fila.capacity());
+                escribirCompleto(canal, fila);
+                if (formato == GrafoBinario.Formato.MATRIZ_CORTA) {
+                    fila.putChar(i * 2, GrafoBinario.SIN_ARISTA_CORTA);
+                } else {
+                    fila.putInt(i * 4, Integer.MAX_VALUE);
+                }
+            }
+
+            // Segunda pasada: cada arista en las dos celdas simétricas, en segmentos de filas completas
+            int filasPorSegmento = (int) Math.max(1, Math.min(n, GrafoBinario.MAX_SEGMENTO / Math.max(1, bytesPorFila)));
+            int numSegmentos = n == 0 ? 0 : (n + filasPorSegmento - 1) / filasPorSegmento;
+            MappedByteBuffer[] segmentos = new MappedByteBuffer[numSegmentos];
+            for (int s = 0; s < numSegmentos; s++) {
+                long primera = (long) s * filasPorSegmento;
+                long cantidad = Math.min(filasPorSegmento, n - primera);
+                segmentos[s] = canal.map(FileChannel.MapMode.READ_WRITE,
+                        desplazamientoDatos + primera * bytesPorFila, cantidad * bytesPorFila);
+                segmentos[s].order(ByteOrder.LITTLE_ENDIAN);
+            }
+            try (BufferedReader br = new BufferedReader(new FileReader(archivoTexto, StandardCharsets.UTF_8))) {
+                String linea;
+                while ((linea = br.readLine()) != null) {
+                    String[] partes = partirLinea(linea, archivoTexto);
+                    if (partes == null) {
+                        continue;
+                    }
+                    int origen = indices.get(partes[0]);
+                    int destino = indices.get(partes[1]);
+                    int distancia = leerDistancia(partes[2], linea, archivoTexto);
+                    MappedByteBuffer segmento = segmentos[origen / filasPorSegmento];
+                    int celda = ((origen % filasPorSegmento) * n + destino) * bytesPorCelda;
+                    if (formato == GrafoBinario.Formato.MATRIZ_CORTA) {
+                        if (segmento.getChar(celda) == GrafoBinario.SIN_ARISTA_CORTA) {
+                            char valor = distancia == Integer.MAX_VALUE ? GrafoBinario.SIN_ARISTA_CORTA : (char) distancia;
+                            segmento.putChar(celda, valor);
+                            segmentos[destino / filasPorSegmento]
+                                    .putChar(((destino % filasPorSegmento) * n + origen) * 2, valor);
+                        }
+                    } else if (segmento.getInt(celda) == Integer.MAX_VALUE) {
+                        segmento.putInt(celda, distancia);
+                        segmentos[destino / filasPorSegmento]
+                                .putInt(((destino % filasPorSegmento) * n + origen) * 4, distancia);
+                    }
+                }
+            }
+            for (MappedByteBuffer segmento : segmentos) {
+                segmento.force();
+            }
+        }
+    }
+
+    /**
+     * Separa una línea {@code origen;destino;distancia} del grafo en texto.
+     *
+     * @return las tres partes sin espacios, o null si la línea está vacía o es un comentario
+     * @throws IOException si la línea no tiene tres partes
+     */
+    private static String[] partirLinea(String linea, String archivoTexto) throws IOException {
+        linea = linea.trim();
+        if (linea.isEmpty() || linea.startsWith("#")) {
+            return null;
+        }
+        String[] partes = linea.split(";");
+        if (partes.length != 3) {
+            throw new IOException("Línea inválida en " + archivoTexto + ": " + linea);
+        }
+        for (int i = 0; i < partes.length; i++) {
+            partes[i] = partes[i].trim();
+        }
+        return partes;
+    }
+
+    private static int leerDistancia(String texto, String linea, String archivoTexto) throws IOException {
+        try {
+            return Integer.parseInt(texto);
+        } catch (NumberFormatException e) {
+            throw new IOException("Distancia inválida en " + archivoTexto + ": " + linea);
+        }
+    }
+
+    /**
+     * Escribe la cabecera y la tabla de nombres, rellenando hasta un múltiplo de 8.
+     */
+    private static void escribirCabecera(FileChannel canal, GrafoBinario.Formato formato, String[] nombres)
+            throws IOException {
+        byte[][] codificados = new byte[nombres.length][];
+        long tamanioTabla = 0;
+        for (int i = 0; i < nombres.length; i++) {
+            codificados[i] = nombres[i].getBytes(StandardCharsets.UTF_8);
+            if (codificados[i].length > 0xFFFF) {
+                throw new IOException("Nombre de ciudad demasiado largo: " + nombres[i]);
+            }
+            tamanioTabla += 2 + codificados[i].length;
+        }
+        long desplazamientoDatos = (GrafoBinario.TAMANIO_CABECERA + tamanioTabla + 7) & ~7L;
+
+        ByteBuffer bufer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        bufer.putInt(GrafoBinario.MAGIA)
+                .putInt(GrafoBinario.VERSION)
+                .putInt(formato.ordinal())
+                .putInt(nombres.length)
+                .putLong(desplazamientoDatos);
+        for (byte[] nombre : codificados) {
+            if (bufer.remaining() < 2 + nombre.length) {
+                escribirCompleto(canal, bufer);
+                bufer = ByteBuffer.allocate(Math.max(1 << 16, 2 + nombre.length)).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            bufer.putShort((short) nombre.length).put(nombre);
+        }
+        escribirCompleto(canal, bufer);
+        canal.position(desplazamientoDatos);
+    }
+
+    /**
+     * Vacía un búfer en el canal (un write puede escribir solo una parte).
+     */
+    private static void escribirCompleto(FileChannel canal, ByteBuffer bufer) throws IOException {
+        bufer.flip();
+        while (bufer.hasRemaining()) {
+            canal.write(bufer);
+        }
+    }
+
+    private static FileChannel abrirParaEscribir(Path archivo) throws IOException {
+        return FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private static String[] nombres(MatrizDistancias matriz) {
+        String[] nombres = new String[matriz.getNumCiudades()];
+        for (int i = 0; i < nombres.length; i++) {
+            nombres[i] = matriz.getNombre(i);
+        }
+        return nombres;
+    }
+}
@@ -0,0 +1,554 @@
+package Problema_Viajante;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Estrategia exacta.
+ * Calcula el recorrido óptimo de instancias pequeñas, para validar las heurísticas.
+ * <p>
+ * {@link Modo#HELD_KARP}: programación dinámica de Held-Karp con la ciudad 0 fija como inicio.
+ * La tabla {@code int[]} se indexa por {@code mascara * (n - 1) + ultima}, donde la máscara son las
+ * ciudades 1..n-1 ya visitadas. Los subconjuntos del mismo tamaño son independientes: cada capa
+ * recorre solo sus máscaras (en orden creciente con el truco de Gosper) y se reparte en tramos entre
+ * los hilos del pool asignado con {@link #setPool(ForkJoinPool)}; cada tramo encuentra su primera
+ * máscara por su rango en el sistema combinatorio. Parte de la ruta de {@link EstrategiaLinKernighan},
+ * que es lo que devuelve si se cancela antes de terminar. Memoria O(2^n * n), por eso se limita a
+ * {@link #MAX_CIUDADES_HELD_KARP} ciudades.
+ * <p>
+ * {@link Modo#RAMIFICACION_Y_PODA}: búsqueda en profundidad desde la ciudad 0 que parte de la
+ * solución de {@link EstrategiaLinKernighan} y poda con una cota de tipo 1-árbol: el resto del
+ * camino tiene que unir la ciudad actual, las no visitadas y la ciudad 0, así que cuesta al menos
+ * el árbol de expansión mínima de las no visitadas más la arista más corta hacia cada extremo.
+ * <p>
+ * Si una ejecución se cancela, {@link #getCotaInferior()} da una cota de Held-Karp por subgradiente
+ * para informar la brecha de la ruta devuelta.
+ */
+public class EstrategiaExacta implements SolucionadorTSP {
+    public static final int MAX_CIUDADES_HELD_KARP = 21;
+    private static final int INFINITO = Integer.MAX_VALUE;
+    private static final int TRAMOS_POR_HILO = 4;
+    private static final int ITERACIONES_COTA = 200;  // subgradiente de la cota al cancelar
+
+    /**
+     * Algoritmo exacto a usar.
+     */
+    public enum Modo {
+        HELD_KARP,
+        RAMIFICACION_Y_PODA
+    }
+
+    private final MatrizDistancias matriz;
+    private final int numCiudades;
+    private final Modo modo;
+    private ForkJoinPool pool;          // null = capas secuenciales
+    private long limiteTiempoNanos = Long.MAX_VALUE;
+    private boolean optimoDemostrado;
+    private long cotaInferior = -1;
+
+    // Held-Karp
+    private int[] tabla;
+    private int numBits;
+    private int[][] combinaciones;      // combinaciones[m][k] = C(m, k)
+
+    // Ramificación y poda
+    private CotaInferior cota;
+    private int[] rutaParcial;
+    private boolean[] visitado;
+    private int[] restantes;
+    private int[][] hijos;              // candidatos ordenados por nivel, reutilizados
+    private int[] mejorRuta;
+    private long mejorLongitud;
+    private long nodos, podas;
+    private Cancelacion cancelacion;
+    private OyenteMejora oyenteMejora;
+    private long inicio, limite;
+
+    /**
+     * Constructor Estrategia exacta.
+     * Usa Held-Karp si el grafo tiene como máximo {@link #MAX_CIUDADES_HELD_KARP} ciudades y
+     * ramificación y poda en otro caso.
+     *
+     * @param grafo the grafo
+     */
+    public EstrategiaExacta(Grafo grafo) {
+        this(grafo.compilar());
+    }
+
+    /**
+     * Constructor Estrategia exacta sobre una matriz de distancias, eligiendo el algoritmo por tamaño.
+     *
+     * @param matriz matriz de distancias
+     */
+    public EstrategiaExacta(MatrizDistancias matriz) {
+        this(matriz, matriz.getNumCiudades() <= MAX_CIUDADES_HELD_KARP ? Modo.HELD_KARP : Modo.RAMIFICACION_Y_PODA);
+    }
+
+    /**
+     * Constructor Estrategia exacta con un algoritmo fijo.
+     *
+     * @param grafo the grafo
+     * @param modo  algoritmo exacto
+     */
+    public EstrategiaExacta(Grafo grafo, Modo modo) {
+        this(grafo.compilar(), modo);
+    }
+
+    /**
+     * Constructor Estrategia exacta sobre una matriz de distancias con un algoritmo fijo.
+     *
+     * @param matriz matriz de distancias
+     * @param modo   algoritmo exacto
+     */
+    public EstrategiaExacta(MatrizDistancias matriz, Modo modo) {
+        this.matriz = matriz;
+        this.numCiudades = matriz.getNumCiudades();
+        if (modo == Modo.HELD_KARP && numCiudades > MAX_CIUDADES_HELD_KARP) {
+            throw new IllegalArgumentException("Held-Karp admite como máximo " + MAX_CIUDADES_HELD_KARP
+                    + " ciudades: " + numCiudades);
+        }
+        this.modo = modo;
+    }
+
+    /**
+     * Asigna el pool que reparte cada capa de Held-Karp entre sus hilos.
+     *
+     * @param pool pool de hilos, o null para calcular las capas en el hilo actual
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Limita el tiempo de cada ejecución; al vencer se devuelve lo mismo que al cancelar el token.
+     *
+     * @param limiteTiempoNanos máximo de nanosegundos
+     */
+    public void setLimiteTiempo(long limiteTiempoNanos) {
+        this.limiteTiempoNanos = limiteTiempoNanos;
+    }
+
+    /**
+     * Indica si la última ejecución terminó demostrando que la ruta es óptima
+     * (false si se canceló antes de terminar).
+     *
+     * @return true si la ruta devuelta es óptima
+     */
+    public boolean isOptimoDemostrado() {
+        return optimoDemostrado;
+    }
+
+    /**
+     * Devuelve una cota inferior de la longitud óptima según la última ejecución: la longitud de la
+     * ruta si se demostró óptima, o la cota de Held-Karp por subgradiente si se canceló (si la cota
+     * alcanza a la ruta, también queda demostrada óptima).
+     *
+     * @return cota inferior, o -1 si no hay ciclo o no se ejecutó
+     */
+    public long getCotaInferior() {
+        return cotaInferior;
+    }
+
+    @Override
+    public String getNombre() {
+        return "exacto";
+    }
+
+    @Override
+    public ResultadoSolucion resolver() {
+        return resolver(null, null);
+    }
+
+    /**
+     * Resolver.
+     * Held-Karp consulta el token entre capas y ramificación y poda cada pocos nodos. Los dos publican
+     * la ruta inicial de {@link EstrategiaLinKernighan} y cada mejora, y al cancelarse devuelven la mejor
+     * ruta hallada; solo no hay ruta si tampoco la heurística encontró un ciclo.
+     *
+     * @param cancelacion  token de cancelación o plazo, o null
+     * @param oyenteMejora oyente de mejoras, o null para no publicar
+     * @return resultado de la ejecución
+     */
+    @Override
+    public ResultadoSolucion resolver(Cancelacion cancelacion, OyenteMejora oyenteMejora) {
+        optimoDemostrado = false;
+        cotaInferior = -1;
+        inicio = System.nanoTime();
+        limite = limiteTiempoNanos == Long.MAX_VALUE ? Long.MAX_VALUE : inicio + limiteTiempoNanos;
+        if (numCiudades == 0) {
+            return new ResultadoSolucion(null, -1, System.nanoTime() - inicio, 0, 0);
+        }
+        if (numCiudades == 1) {
+            optimoDemostrado = true;
+            cotaInferior = 0;
+            return new ResultadoSolucion(decodificar(new int[]{0}), 0, System.nanoTime() - inicio, 0, 0);
+        }
+        this.cancelacion = cancelacion;
+        this.oyenteMejora = oyenteMejora;
+        mejorRuta = null;
+        mejorLongitud = CotaInferior.INFINITO;
+        solucionInicial();
+        long longitudInicial = mejorLongitud;
+
+        ResultadoSolucion resultado = modo == Modo.HELD_KARP ? heldKarp() : ramificacionYPoda();
+        if (optimoDemostrado) {
+            cotaInferior = resultado.getLongitud();
+        } else if (resultado.isCompleta()) {
+            cotaInferior = new CotaInferior(matriz).heldKarp(resultado.getLongitud(), ITERACIONES_COTA);
+            // Una ruta que alcanza la cota inferior es óptima aunque la búsqueda no haya terminado
+            optimoDemostrado = cotaInferior >= resultado.getLongitud();
+        }
+        if (oyenteMejora != null && modo == Modo.HELD_KARP && optimoDemostrado && resultado.getLongitud() < longitudInicial) {
+            oyenteMejora.alMejorar(resultado);
+        }
+        this.cancelacion = null;
+        this.oyenteMejora = null;
+        return resultado;
+    }
+
+    /**
+     * Resultado con la mejor ruta conocida (la inicial o la mejor de la búsqueda), o sin ruta si no hay.
+     *
+     * @param asignaciones  contador de asignaciones
+     * @param comparaciones contador de comparaciones
+     * @return resultado parcial
+     */
+    private ResultadoSolucion mejorConocida(long asignaciones, long comparaciones) {
+        return mejorRuta == null
+                ? new ResultadoSolucion(null, -1, System.nanoTime() - inicio, asignaciones, comparaciones)
+                : new ResultadoSolucion(decodificar(mejorRuta), mejorLongitud, System.nanoTime() - inicio,
+                asignaciones, comparaciones);
+    }
+
+    /**
+     * Programación dinámica de Held-Karp.
+     *
+     * @return resultado con la ruta óptima, la ruta inicial si se canceló, o sin ruta si no hay ciclo
+     */
+    private ResultadoSolucion heldKarp() {
+        numBits = numCiudades - 1;
+        int numMascaras = 1 << numBits;
+        tabla = new int[numMascaras * numBits];
+        Arrays.fill(tabla, INFINITO);
+        for (int j = 0; j < numBits; j++) {
+            tabla[(1 << j) * numBits + j] = matriz.getDistancia(0, j + 1);
+        }
+        combinaciones = new int[numBits + 1][numBits + 1];
+        for (int m = 0; m <= numBits; m++) {
+            combinaciones[m][0] = 1;
+            for (int k = 1; k <= m; k++) {
+                combinaciones[m][k] = combinaciones[m - 1][k - 1] + (k < m ? combinaciones[m - 1][k] : 0);
+            }
+        }
+
+        for (int tamanio = 2; tamanio <= numBits; tamanio++) {
+            if (detener(cancelacion)) {
+                tabla = null;
+                combinaciones = null;
+                return mejorConocida(0, 0);
+            }
+            final int capa = tamanio;
+            int total = combinaciones[numBits][capa];
+            int tramos = pool == null ? 1 : Math.min(total, pool.getParallelism() * TRAMOS_POR_HILO);
+            if (tramos <= 1) {
+                calcularTramo(capa, 0, total);
+            } else {
+                pool.submit(() -> IntStream.range(0, tramos).parallel()
+                        .forEach(t -> calcularTramo(capa, (int) ((long) total * t / tramos),
+                                (int) ((long) total * (t + 1) / tramos)))).join();
+            }
+        }
+        combinaciones = null;
+
+        // Cierre del ciclo hacia la ciudad 0
+        int completa = numMascaras - 1;
+        long mejor = INFINITO;
+        int ultima = -1;
+        for (int j = 0; j < numBits; j++) {
+            long costo = suma(tabla[completa * numBits + j], matriz.getDistancia(j + 1, 0));
+            if (costo < mejor) {
+                mejor = costo;
+                ultima = j;
+            }
+        }
+        // Contadores: estados de la tabla como asignaciones y transiciones evaluadas como comparaciones
+        long estados = tabla.length;
+        long transiciones = numBits < 2 ? 0 : (long) numBits * (numBits - 1) * (1L << (numBits - 2));
+        if (ultima < 0) {
+            tabla = null;
+            return new ResultadoSolucion(null, -1, System.nanoTime() - inicio, estados, transiciones);
+        }
+
+        // Reconstrucción hacia atrás buscando el predecesor que explica cada valor de la tabla
+        int[] recorrido = new int[numCiudades];
+        int mascara = completa;
+        for (int posicion = numCiudades - 1; posicion >= 1; posicion--) {
+            recorrido[posicion] = ultima + 1;
+            int valor = tabla[mascara * numBits + ultima];
+            int anterior = mascara ^ (1 << ultima);
+            int predecesor = -1;
+            for (int i = 0; i < numBits && anterior != 0 && predecesor < 0; i++) {
+                if ((anterior & (1 << i)) != 0
+                        && suma(tabla[anterior * numBits + i], matriz.getDistancia(i + 1, ultima + 1)) == valor) {
+                    predecesor = i;
+                }
+            }
+            mascara = anterior;
+            ultima = predecesor;
+        }
+        tabla = null;
+        optimoDemostrado = true;
+        return new ResultadoSolucion(decodificar(recorrido), mejor, System.nanoTime() - inicio, estados, transiciones);
+    }
+
+    /**
+     * Calcula las máscaras de una capa con rango en [desde, hasta), en orden creciente.
+     *
+     * @param capa  cantidad de ciudades de las máscaras
+     * @param desde primer rango (incluido)
+     * @param hasta último rango (excluido)
+     */
+    private void calcularTramo(int capa, int desde, int hasta) {
+        if (desde >= hasta) {
+            return;
+        }
+        int mascara = mascaraDeRango(desde, capa);
+        for (int rango = desde; ; ) {
+            calcularMascara(mascara);
+            if (++rango == hasta) {
+                return;
+            }
+            // Truco de Gosper: siguiente entero con la misma cantidad de bits en uno
+            int menor = mascara & -mascara;
+            int suma = mascara + menor;
+            mascara = (((suma ^ mascara) >>> 2) / menor) | suma;
+        }
+    }
+
+    /**
+     * Máscara de {@code capa} bits que ocupa la posición {@code rango} en orden creciente
+     * (sistema combinatorio: el rango es la suma de C(bit, i + 1) sobre sus bits en orden).
+     *
+     * @param rango posición entre 0 y C(numBits, capa) - 1
+     * @param capa  cantidad de bits en uno
+     * @return máscara correspondiente
+     */
+    private int mascaraDeRango(int rango, int capa) {
+        int mascara = 0;
+        for (int bit = numBits - 1; bit >= 0 && capa > 0; bit--) {
+            if (rango >= combinaciones[bit][capa]) {
+                rango -= combinaciones[bit][capa];
+                mascara |= 1 << bit;
+                capa--;
+            }
+        }
+        return mascara;
+    }
+
+    /**
+     * Calcula las entradas de la tabla para una máscara a partir de la capa anterior.
+     *
+     * @param mascara ciudades visitadas (bits 0..n-2 para las ciudades 1..n-1)
+     */
+    private void calcularMascara(int mascara) {
+        for (int j = 0; j < numBits; j++) {
+            if ((mascara & (1 << j)) == 0) {
+                continue;
+            }
+            int anterior = mascara ^ (1 << j);
+            long mejor = INFINITO;
+            for (int i = 0; i < numBits; i++) {
+                if ((anterior & (1 << i)) != 0) {
+                    long costo = suma(tabla[anterior * numBits + i], matriz.getDistancia(i + 1, j + 1));
+                    if (costo < mejor) {
+                        mejor = costo;
+                    }
+                }
+            }
+            tabla[mascara * numBits + j] = (int) Math.min(mejor, INFINITO);
+        }
+    }
+
+    /**
+     * Indica si hay que terminar por límite de tiempo o por cancelación.
+     *
+     * @param cancelacion token de cancelación, o null
+     * @return true si hay que terminar
+     */
+    private boolean detener(Cancelacion cancelacion) {
+        return System.nanoTime() > limite || (cancelacion != null && cancelacion.isCancelada());
+    }
+
+    /**
+     * Suma dos distancias tratando {@link #INFINITO} como arista inexistente.
+     */
+    private static long suma(int a, int b) {
+        return a == INFINITO || b == INFINITO ? INFINITO : (long) a + b;
+    }
+
+    /**
+     * Ramificación y poda en profundidad desde la ciudad 0, partiendo de la ruta inicial.
+     *
+     * @return resultado con la mejor ruta encontrada
+     */
+    private ResultadoSolucion ramificacionYPoda() {
+        cota = new CotaInferior(matriz);
+        rutaParcial = new int[numCiudades];
+        visitado = new boolean[numCiudades];
+        restantes = new int[numCiudades];
+        hijos = new int[numCiudades][numCiudades];
+        nodos = 0;
+        podas = 0;
+
+        rutaParcial[0] = 0;
+        visitado[0] = true;
+        boolean completa = explorar(0, 1, 0);
+
+        optimoDemostrado = completa && mejorRuta != null;
+        ResultadoSolucion resultado = mejorConocida(nodos, podas);
+        cota = null;
+        hijos = null;
+        return resultado;
+    }
+
+    /**
+     * Toma como primera cota superior la ruta de {@link EstrategiaLinKernighan}, si usa solo aristas existentes,
+     * y la publica.
+     */
+    private void solucionInicial() {
+        ResultadoSolucion heuristica = new EstrategiaLinKernighan(matriz, 0).resolver();
+        if (!heuristica.isCompleta()) {
+            return;
+        }
+        int[] recorrido = new int[numCiudades];
+        for (int i = 0; i < numCiudades; i++) {
+            recorrido[i] = matriz.getIndice(heuristica.getRuta().get(i));
+        }
+        long longitud = 0;
+        for (int i = 0; i < numCiudades; i++) {
+            int distancia = matriz.getDistancia(recorrido[i], recorrido[(i + 1) % numCiudades]);
+            if (distancia == INFINITO) {
+                return;
+            }
+            longitud += distancia;
+        }
+        actualizarMejor(recorrido, longitud);
+    }
+
+    /**
+     * Explora las extensiones de la ruta parcial {@code rutaParcial[0..nivel)}.
+     *
+     * @param actual ciudad en la que termina la ruta parcial
+     * @param nivel  cantidad de ciudades en la ruta parcial
+     * @param costo  longitud de la ruta parcial
+     * @return false si la búsqueda se canceló antes de terminar
+     */
+    private boolean explorar(int actual, int nivel, long costo) {
+        nodos++;
+        if ((nodos & 0x3FF) == 0 && detener(cancelacion)) {
+            return false;
+        }
+        if (nivel == numCiudades) {
+            int cierre = matriz.getDistancia(actual, 0);
+            if (cierre != INFINITO && costo + cierre < mejorLongitud) {
+                actualizarMejor(rutaParcial, costo + cierre);
+            }
+            return true;
+        }
+        if (costo + cotaResto(actual) >= mejorLongitud) {
+            podas++;
+            return true;
+        }
+
+        // Hijos de la más cercana a la más lejana para encontrar pronto buenas rutas
+        int[] candidatos = hijos[nivel];
+        int cantidad = 0;
+        for (int c = 1; c < numCiudades; c++) {
+            if (!visitado[c] && matriz.getDistancia(actual, c) != INFINITO) {
+                int k = cantidad++;
+                while (k > 0 && matriz.getDistancia(actual, candidatos[k - 1]) > matriz.getDistancia(actual, c)) {
+                    candidatos[k] = candidatos[k - 1];
+                    k--;
+                }
+                candidatos[k] = c;
+            }
+        }
+        for (int i = 0; i < cantidad; i++) {
+            int siguiente = candidatos[i];
+            long nuevoCosto = costo + matriz.getDistancia(actual, siguiente);
+            if (nuevoCosto >= mejorLongitud) {
+                podas++;
+                break; // El resto de hijos está aún más lejos
+            }
+            visitado[siguiente] = true;
+            rutaParcial[nivel] = siguiente;
+            boolean terminado = explorar(siguiente, nivel + 1, nuevoCosto);
+            visitado[siguiente] = false;
+            if (!terminado) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Cota inferior del resto del camino: árbol de expansión mínima de las ciudades no visitadas
+     * más la arista más corta desde la ciudad actual y la más corta de vuelta a la ciudad 0.
+     *
+     * @param actual ciudad en la que termina la ruta parcial
+     * @return cota inferior, o {@link CotaInferior#INFINITO} si el resto no se puede completar
+     */
+    private long cotaResto(int actual) {
+        int cantidad = 0;
+        long salida = CotaInferior.INFINITO;
+        long regreso = CotaInferior.INFINITO;
+        for (int c = 1; c < numCiudades; c++) {
+            if (!visitado[c]) {
+                restantes[cantidad++] = c;
+                int dSalida = matriz.getDistancia(actual, c);
+                int dRegreso = matriz.getDistancia(c, 0);
+                if (dSalida != INFINITO && dSalida < salida) {
+                    salida = dSalida;
+                }
+                if (dRegreso != INFINITO && dRegreso < regreso) {
+                    regreso = dRegreso;
+                }
+            }
+        }
+        return Math.min(CotaInferior.INFINITO, cota.arbolExpansion(restantes, cantidad) + salida + regreso);
+    }
+
+    /**
+     * Guarda una nueva mejor ruta y la publica.
+     *
+     * @param recorrido ruta completa
+     * @param longitud  longitud del ciclo
+     */
+    private void actualizarMejor(int[] recorrido, long longitud) {
+        mejorRuta = recorrido.clone();
+        mejorLongitud = longitud;
+        if (oyenteMejora != null) {
+            oyenteMejora.alMejorar(new ResultadoSolucion(decodificar(mejorRuta), longitud,
+                    System.nanoTime() - inicio, 0, 0));
+        }
+    }
+
+    /**
+     * Convierte el recorrido en la ruta cerrada con nombres, empezando en la ciudad 0.
+     *
+     * @param recorrido identificadores en orden de visita
+     * @return ruta cerrada
+     */
+    private List<String> decodificar(int[] recorrido) {
+        int desplazamiento = 0;
+        while (recorrido[desplazamiento] != 0) {
+            desplazamiento++;
+        }
+        List<String> ruta = new ArrayList<>(numCiudades + 1);
+        for (int i = 0; i <= numCiudades; i++) {
+            ruta.add(matriz.getNombre(recorrido[(desplazamiento + i) % numCiudades]));
+        }
+        return ruta;
+    }
+}
@@ -1,21 +1,90 @@
 package Problema_Viajante;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 /**
  * Clase Estrategia genetica.
+ * Cada cromosoma es una permutación {@code int[]} de los identificadores de ciudad del
+ * {@link MatrizDistancias} y representa un ciclo cerrado (el regreso a la primera ciudad es implícito).
+ * Toda la población vive en un único arreglo plano con doble búfer entre generaciones:
+ * las ranuras {@code [0, tamanioPoblacion)} guardan la población actual y las ranuras
+ * {@code [tamanioPoblacion, 2 * tamanioPoblacion)} a los hijos de la generación en curso.
+ * Los nombres de las ciudades solo se decodifican al imprimir.
+ * <p>
+ * Con {@link #setPool(ForkJoinPool)} la creación de hijos (cruce, evaluación y mutación) se reparte
+ * en bloques fijos entre los hilos del pool. Cada bloque tiene su propio {@link Trabajador} con un
+ * {@link SplittableRandom} derivado de la semilla y sus propios contadores, así que el resultado es
+ * reproducible para una misma semilla y cantidad de hilos.
+ * <p>
+ * Los padres se eligen según {@link TipoSeleccion} (torneo por defecto) y los sobrevivientes por
+ * truncamiento (μ+λ) con una selección parcial sobre el fitness en caché: O(P) por generación, sin
+ * ordenar la población. Cada cromosoma lleva una huella de sus aristas que no depende de la rotación
+ * ni del sentido; los clones quedan últimos en el truncamiento y la fracción de hijos que no son
+ * clones es la diversidad de la generación ({@link #getDiversidad()}).
+ * <p>
+ * Con {@link Metricas#ACTIVAS} se mide el tiempo de cada fase por trabajador y cada generación queda
+ * en un {@link RegistroGeneraciones} y como {@link EventoGeneracion} de JFR. La memoria informada son
+ * los bytes reales de la reserva de la población y los asignados por los hilos durante la ejecución.
  */
-public class EstrategiaGenetica {
-    private Grafo grafo;
-    private List<List<String>> poblacion;
+public class EstrategiaGenetica implements SolucionadorTSP {
+    private MatrizDistancias matriz;
     private int tamanioPoblacion;
     private int numCiudades;
+    private TipoCruce tipoCruce;
+    private TipoSeleccion tipoSeleccion = TipoSeleccion.TORNEO;
+    private int tamanioTorneo = TORNEO_POR_DEFECTO;
+
+    // Ejecución paralela
+    private ForkJoinPool pool;            // null = secuencial
+    private Trabajador[] trabajadores;    // un bloque de hijos por trabajador
+    private SplittableRandom raizAleatoria;
+
+    private static final int GENERACIONES_POR_DEFECTO = 40;
+    private static final int TORNEO_POR_DEFECTO = 2;
+    private static final int BITS_RANURA = 24;                      // hasta 2^23 cromosomas
+    private static final long MAX_FITNESS_ORDEN = (1L << (63 - BITS_RANURA)) - 1;
+    private static final int CAPACIDAD_REGISTRO = 1024;             // generaciones en el registro de métricas
+    private static final int INTENTOS_REPETIDOS = 20;               // reintentos de un cromosoma repetido al crear la población
+
+    // Modo memético (búsqueda local sobre los hijos)
+    private static final int CANDIDATOS_MEMETICO = 8;
+    private ListaCandidatos candidatos;   // compartida, solo lectura
+    private double probabilidadMemetica;  // 0 = desactivado
+    private long limiteIteracionesMemetico;
+
+    private OyenteTraza oyente;           // Traza opcional; null = sin E/S
+    private int numGeneraciones = GENERACIONES_POR_DEFECTO; // usadas por resolver()
+    private long longitudObjetivo = -1;   // parada por brecha; -1 = desactivada
+
+    // Reserva de cromosomas (doble búfer)
+    private int[] genes;          // 2 * tamanioPoblacion * numCiudades
+    private int[] genesAux;       // búfer de la siguiente generación
+    private long[] fitness;       // 2 * tamanioPoblacion
+    private long[] fitnessAux;
+    private long[] orden;         // (fitness << BITS_RANURA | ranura) para ordenar sin objetos
+    private int[] padres;         // padres de cada pareja elegidos por SUS, 2 por pareja
+    private long[] huellas;       // huella de aristas de cada ranura (XOR de huellaArista)
+    private long[] huellasAux;
+    private long[] tablaHuellas;  // conjunto de huellas con direccionamiento abierto; 0 = libre
+    private boolean poblacionCreada; // la población inicial se crea en el primer uso o al sembrar
+
+    // Diversidad y parada por convergencia
+    private double diversidad = 1;        // fracción de hijos de la última generación que no son clones
+    private double diversidadMinima;      // 0 = parada por convergencia desactivada
+    private int generacionesConvergencia;
+    private int generacionesSinDiversidad;
 
     // Variables de medición
-    private long tiempoInicio, tiempoFin;  // 2 * 64 bits = 128 bits
-    private int contadorAsignaciones;      // 32 bits
-    private int contadorComparaciones;     // 32 bits
-    private long memoriaConsumidaBits;     // 64 bits
+    private long tiempoInicio, tiempoFin;
+    private long contadorAsignaciones;
+    private long contadorComparaciones;
+    private long bytesAsignados;           // asignados por todos los hilos en la última ejecución
+    private Thread hiloGeneracion;         // hilo que ejecuta la generación; sus bytes se miden aparte
+    private int generacionesEjecutadas;
+    private final long[] nanosGeneracion = new long[Metricas.NUM_FASES];
+    private RegistroGeneraciones registro; // solo con Metricas.ACTIVAS
 
     /**
      * Constructor Estrategia genetica.
@@ -25,274 +94,1154 @@ public class EstrategiaGenetica {
      * @param tamanioPoblacion tamaño poblacion
      */
     public EstrategiaGenetica(Grafo grafo, int numCiudades, int tamanioPoblacion) {
-        this.grafo = grafo;                // referencia = 64 bits
-        this.numCiudades = numCiudades;    // 32 bits
-        this.tamanioPoblacion = tamanioPoblacion; // 32 bits
-        inicializarContadoresMemoria();
-        this.poblacion = generarPoblacionInicial(); // referencia = 64 bits
+        this(grafo, numCiudades, tamanioPoblacion, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Constructor Estrategia genetica con semilla fija, para ejecuciones reproducibles.
+     *
+     * @param grafo            the grafo
+     * @param numCiudades      numero de ciudades
+     * @param tamanioPoblacion tamaño poblacion
+     * @param semilla          semilla de los generadores aleatorios
+     */
+    public EstrategiaGenetica(Grafo grafo, int numCiudades, int tamanioPoblacion, long semilla) {
+        this(grafo.compilar(), numCiudades, tamanioPoblacion, semilla);
     }
 
     /**
-     * Contador de memoria.
+     * Constructor Estrategia genetica sobre una matriz de distancias.
+     *
+     * @param matriz           matriz de distancias (por ejemplo un {@link GrafoBinario})
+     * @param tamanioPoblacion tamaño poblacion
+     * @param semilla          semilla de los generadores aleatorios
      */
-    private void inicializarContadoresMemoria() {
-        memoriaConsumidaBits = 0;
-        // Contar variables de instancia
-        memoriaConsumidaBits += 128; // tiempoInicio, tiempoFin (2 * 64 bits)
-        memoriaConsumidaBits += 32;  // contadorAsignaciones
-        memoriaConsumidaBits += 32;  // contadorComparaciones
-        memoriaConsumidaBits += 64;  // memoriaConsumidaBits
-        memoriaConsumidaBits += 64;  // grafo (referencia)
-        memoriaConsumidaBits += 64;  // poblacion (referencia)
-        memoriaConsumidaBits += 32;  // tamanioPoblacion
-        memoriaConsumidaBits += 32;  // numCiudades
+    public EstrategiaGenetica(MatrizDistancias matriz, int tamanioPoblacion, long semilla) {
+        this(matriz, matriz.getNumCiudades(), tamanioPoblacion, semilla);
+    }
+
+    private EstrategiaGenetica(MatrizDistancias matriz, int numCiudades, int tamanioPoblacion, long semilla) {
+        this.matriz = matriz;
+        this.numCiudades = numCiudades;
+        this.tamanioPoblacion = tamanioPoblacion;
+        this.tipoCruce = TipoCruce.OX;
+        this.raizAleatoria = new SplittableRandom(semilla);
+        this.trabajadores = new Trabajador[]{crearTrabajador()};
+        if (Metricas.ACTIVAS) {
+            this.registro = new RegistroGeneraciones(CAPACIDAD_REGISTRO);
+        }
+        reservarPoblacion();
     }
 
     /**
-     * Contador de memoria.
+     * Reserva una sola vez los arreglos de la población; se reutilizan en todas las generaciones.
      */
-    private void contarMemoriaLista(List<?> lista) {
-        memoriaConsumidaBits += 128; // Overhead de la lista (referencia + size + capacity)
+    private void reservarPoblacion() {
+        int ranuras = 2 * tamanioPoblacion;
+        genes = new int[ranuras * numCiudades];
+        genesAux = new int[ranuras * numCiudades];
+        fitness = new long[ranuras];
+        fitnessAux = new long[ranuras];
+        orden = new long[ranuras];
+        padres = new int[2 * ((tamanioPoblacion + 1) / 2)];
+        huellas = new long[ranuras];
+        huellasAux = new long[ranuras];
+        tablaHuellas = new long[Integer.highestOneBit(Math.max(1, 2 * ranuras - 1)) << 1];
+    }
 
-        for (Object elemento : lista) {
-            if (elemento instanceof String) {
-                String str = (String) elemento;
-                memoriaConsumidaBits += 160; // Overhead del String
-                memoriaConsumidaBits += str.length() * 16; // Caracteres
-            } else if (elemento instanceof List) {
-                contarMemoriaLista((List<?>) elemento);
-            }
+    /**
+     * Desplazamiento de una ranura dentro del arreglo plano de genes.
+     *
+     * @param ranura índice del cromosoma
+     * @return posición del primer gen del cromosoma
+     */
+    private int inicio(int ranura) {
+        return ranura * numCiudades;
+    }
+
+    /**
+     * Crea la población inicial al azar si todavía no se creó ni se sembró con
+     * {@link #sembrarHeuristicas(double)}. La llaman todas las operaciones que leen la población.
+     */
+    private void crearPoblacionSiFalta() {
+        if (!poblacionCreada) {
+            generarPoblacionInicial(1);
         }
     }
 
     /**
      * Generador de población incial.
+     * Una fracción de los cromosomas se baraja al azar con la ciudad 0 fija en la posición 0 y el
+     * resto sale de {@link ConstructorRecorridos}. La población se reparte en bloques, uno por
+     * trabajador, que se construyen en el pool de {@link #setPool(ForkJoinPool)}. Cada bloque descarta
+     * sus repetidos (por huella, así que un recorrido y su inverso cuentan como repetidos) y los
+     * reemplaza por recorridos al azar; si la instancia es tan chica que no hay suficientes recorridos
+     * distintos, tras {@value #INTENTOS_REPETIDOS} intentos se acepta el repetido. Los repetidos entre
+     * bloques distintos los relega después el truncamiento ({@link #marcarClones(int)}).
      *
-     * @return resultado de la población
+     * @param fraccionAleatoria fracción de la población que se construye al azar (0 a 1)
      */
-    private List<List<String>> generarPoblacionInicial() {
-        Set<List<String>> poblacionSet = new HashSet<>();
-        List<String> ciudades = new ArrayList<>(grafo.getCiudades());
-        memoriaConsumidaBits += 128; // Referencias a poblacionSet y ciudades
+    private void generarPoblacionInicial(double fraccionAleatoria) {
+        int aleatorios = (int) Math.round(Math.max(0, Math.min(1, fraccionAleatoria)) * tamanioPoblacion);
+        if (aleatorios < tamanioPoblacion && candidatos == null) {
+            candidatos = new ListaCandidatos(matriz, CANDIDATOS_MEMETICO);
+        }
+        int bloques = trabajadores.length;
+        for (int b = 0; b < bloques; b++) {
+            Trabajador t = trabajadores[b];
+            t.random = raizAleatoria.split();
+            if (aleatorios < tamanioPoblacion && t.constructor == null) {
+                t.constructor = new ConstructorRecorridos(matriz, candidatos);
+                t.recorrido = new int[numCiudades];
+            }
+            int tamanioBloque = (int) ((long) tamanioPoblacion * (b + 1) / bloques - (long) tamanioPoblacion * b / bloques);
+            int capacidad = Integer.highestOneBit(Math.max(1, 2 * tamanioBloque - 1)) << 1;
+            if (t.huellasBloque == null || t.huellasBloque.length < capacidad) {
+                t.huellasBloque = new long[capacidad];
+            }
+        }
 
-        String ciudadInicial = grafo.getCiudades().get(0);
-        memoriaConsumidaBits += 64; // Referencia a ciudadInicial
+        if (pool == null || bloques == 1) {
+            for (int b = 0; b < bloques; b++) {
+                sembrarBloque(b, aleatorios);
+            }
+        } else {
+            pool.submit(() -> IntStream.range(0, bloques).parallel().forEach(b -> sembrarBloque(b, aleatorios))).join();
+        }
+        poblacionCreada = true;
+    }
+
+    /**
+     * Calcula el valor de aptitud (fitness) de un cromosoma midiendo la distancia total del recorrido.
+     *
+     * @param cromosomas arreglo que contiene el cromosoma
+     * @param base       posición del primer gen del cromosoma
+     * @param t          trabajador que acumula los contadores
+     * @return La distancia total del recorrido cerrado representado por el cromosoma
+     */
+    private long calcularFitness(int[] cromosomas, int base, Trabajador t) {
+        long distanciaTotal = 0;
+        int ciudadOrigen = cromosomas[base + numCiudades - 1]; // Arco de regreso al inicio
+        for (int i = 0; i < numCiudades; i++) {
+            int ciudadDestino = cromosomas[base + i];
+            distanciaTotal += matriz.getDistancia(ciudadOrigen, ciudadDestino);
+            ciudadOrigen = ciudadDestino;
+        }
+        t.comparaciones += numCiudades;
+        t.asignaciones += numCiudades;
+        return distanciaTotal;
+    }
 
-        while (poblacionSet.size() < tamanioPoblacion) {
-            Collections.shuffle(ciudades);
-            List<String> cromosoma = new ArrayList<>();
-            memoriaConsumidaBits += 64; // Referencia a cromosoma
+    /**
+     * Escribe un recorrido al azar en un cromosoma, con la ciudad 0 fija en la primera posición.
+     *
+     * @param base inicio del cromosoma
+     * @param t    trabajador con el generador aleatorio y los contadores
+     */
+    private void barajar(int base, Trabajador t) {
+        for (int i = 0; i < numCiudades; i++) {
+            genes[base + i] = i;
+        }
+        for (int i = numCiudades - 1; i > 1; i--) {
+            int j = t.random.nextInt(i) + 1;
+            int tmp = genes[base + i];
+            genes[base + i] = genes[base + j];
+            genes[base + j] = tmp;
+            t.asignaciones += 2;
+        }
+    }
 
-            cromosoma.add(ciudadInicial);
-            for (String ciudad : ciudades) {
-                if (!ciudad.equals(ciudadInicial)) {
-                    cromosoma.add(ciudad);
-                    contadorComparaciones++;
+    /**
+     * Crea la población a partir de heurísticas de construcción aleatorizadas
+     * ({@link ConstructorRecorridos}: vecino más cercano, aristas voraces y, en instancias de
+     * coordenadas, curva de Hilbert, en partes iguales) mezcladas con una fracción de recorridos al
+     * azar que conserva la diversidad. Llamada antes de la primera generación, la población al azar
+     * por defecto no llega a construirse; después, reemplaza a la población actual. Los cromosomas se
+     * construyen en bloques con el pool de {@link #setPool(ForkJoinPool)}, cada uno con su trabajador
+     * y su generador, y cada bloque reemplaza sus repetidos por recorridos al azar.
+     *
+     * @param fraccionAleatoria fracción de la población que se deja al azar (0 a 1)
+     */
+    public void sembrarHeuristicas(double fraccionAleatoria) {
+        generarPoblacionInicial(fraccionAleatoria);
+    }
+
+    /**
+     * Construye los cromosomas de un bloque de la población actual para
+     * {@link #generarPoblacionInicial(double)}. Las primeras {@code aleatorios} ranuras de la
+     * población son al azar y las demás se reparten entre las heurísticas por turno. Un cromosoma
+     * repetido dentro del bloque se vuelve a barajar; el fitness se calcula una sola vez, al aceptarlo.
+     *
+     * @param b          índice del bloque (y de su trabajador)
+     * @param aleatorios cantidad de ranuras al azar
+     */
+    private void sembrarBloque(int b, int aleatorios) {
+        Trabajador t = trabajadores[b];
+        int desde = (int) ((long) tamanioPoblacion * b / trabajadores.length);
+        int hasta = (int) ((long) tamanioPoblacion * (b + 1) / trabajadores.length);
+        int heuristicas = t.constructor != null && t.constructor.admiteCurva() ? 3 : 2;
+        Arrays.fill(t.huellasBloque, 0);
+        for (int ranura = desde; ranura < hasta; ranura++) {
+            int base = inicio(ranura);
+            if (ranura < aleatorios) {
+                barajar(base, t);
+            } else {
+                switch ((ranura - aleatorios) % heuristicas) {
+                    case 0:
+                        t.constructor.vecinoMasCercano(t.recorrido, t.random);
+                        break;
+                    case 1:
+                        t.constructor.aristasVoraces(t.recorrido, t.random);
+                        break;
+                    default:
+                        t.constructor.curvaHilbert(t.recorrido, t.random);
+                        break;
+                }
+                // Rotación para dejar la ciudad 0 en la primera posición
+                int desplazamiento = 0;
+                while (t.recorrido[desplazamiento] != 0) {
+                    desplazamiento++;
+                }
+                for (int i = 0; i < numCiudades; i++) {
+                    genes[base + i] = t.recorrido[(desplazamiento + i) % numCiudades];
                 }
+                t.asignaciones += numCiudades;
             }
-            cromosoma.add(ciudadInicial);
-            poblacionSet.add(cromosoma);
-            contadorAsignaciones++;
-            contarMemoriaLista(cromosoma);
+            huellas[ranura] = calcularHuella(genes, base);
+            t.comparaciones++;
+            for (int intentos = 0; !agregarHuella(t.huellasBloque, huellas[ranura]) && intentos < INTENTOS_REPETIDOS; intentos++) {
+                barajar(base, t);
+                huellas[ranura] = calcularHuella(genes, base);
+                t.comparaciones++;
+            }
+            fitness[ranura] = calcularFitness(genes, base, t);
         }
+    }
 
-        List<List<String>> resultado = new ArrayList<>(poblacionSet);
-        contarMemoriaLista(resultado);
-        return resultado;
+    /**
+     * Huella de una arista no dirigida, igual para (a, b) y (b, a).
+     *
+     * @param a ciudad de un extremo
+     * @param b ciudad del otro extremo
+     * @return huella de 64 bits
+     */
+    static long huellaArista(int a, int b) {
+        return CacheSoluciones.mezclar(((long) Math.min(a, b) << 32) | Math.max(a, b));
     }
 
     /**
-     * Calcula el valor de aptitud (fitness) de un cromosoma midiendo la distancia total del recorrido.
+     * Calcula la huella de un cromosoma: el XOR de las huellas de las aristas del ciclo. No depende
+     * de la ciudad en que empiece el ciclo ni del sentido, y un movimiento que cambia unas aristas la
+     * actualiza con el XOR de las aristas que salen y las que entran.
      *
-     * @param cromosoma Lista de ciudades que representa un recorrido completo
-     * @return La distancia total del recorrido representado por el cromosoma
+     * @param cromosomas arreglo que contiene el cromosoma
+     * @param base       posición del primer gen del cromosoma
+     * @return huella del recorrido
      */
-    private int calcularFitness(List<String> cromosoma) {
-        int distanciaTotal = 0;
-        memoriaConsumidaBits += 32; // Variable distanciaTotal
+    private long calcularHuella(int[] cromosomas, int base) {
+        long huella = 0;
+        int anterior = cromosomas[base + numCiudades - 1];
+        for (int i = 0; i < numCiudades; i++) {
+            int ciudad = cromosomas[base + i];
+            huella ^= huellaArista(anterior, ciudad);
+            anterior = ciudad;
+        }
+        return huella;
+    }
 
-        for (int i = 0; i < cromosoma.size() - 1; i++) {
-            String ciudadOrigen = cromosoma.get(i);
-            String ciudadDestino = cromosoma.get(i + 1);
-            memoriaConsumidaBits += 128; // Referencias a ciudadOrigen y ciudadDestino
+    /**
+     * Agrega una huella a un conjunto con direccionamiento abierto ({@code tablaHuellas} o la tabla
+     * de un bloque).
+     *
+     * @param tabla  conjunto de huellas, de tamaño potencia de dos; 0 = libre
+     * @param huella huella de un recorrido
+     * @return true si no estaba
+     */
+    private static boolean agregarHuella(long[] tabla, long huella) {
+        long clave = huella != 0 ? huella : 1; // 0 marca las posiciones libres
+        int mascara = tabla.length - 1;
+        int i = (int) (clave >>> 32) & mascara;
+        while (tabla[i] != 0) {
+            if (tabla[i] == clave) {
+                return false;
+            }
+            i = (i + 1) & mascara;
+        }
+        tabla[i] = clave;
+        return true;
+    }
 
-            distanciaTotal += grafo.getDistancia(ciudadOrigen, ciudadDestino);
-            contadorComparaciones++;
-            contadorAsignaciones++;
+    /**
+     * Selecciona el operador de cruce usado al generar los hijos.
+     *
+     * @param tipoCruce tipo de cruce (OX, PMX, CX o ERX)
+     */
+    public void setTipoCruce(TipoCruce tipoCruce) {
+        this.tipoCruce = tipoCruce;
+        for (Trabajador t : trabajadores) {
+            t.cruce = tipoCruce.crear(numCiudades);
         }
-        return distanciaTotal;
     }
 
     /**
-     * Realiza el cruce entre dos cromosomas padres para generar un nuevo cromosoma hijo.
-     * Utiliza el método de cruce de orden (OX - Order Crossover).
+     * Realiza el cruce entre dos cromosomas padres para generar un nuevo cromosoma hijo
+     * usando el operador de cruce configurado (por defecto OX - Order Crossover).
      *
-     * @param padre1 Primer cromosoma padre
-     * @param padre2 Segundo cromosoma padre
-     * @return Un nuevo cromosoma hijo resultado del cruce
+     * @param base1    inicio del primer cromosoma padre
+     * @param base2    inicio del segundo cromosoma padre
+     * @param baseHijo inicio de la ranura donde se escribe el hijo
+     * @param t        trabajador con el operador de cruce y el generador aleatorio
      */
-    private List<String> cruzar(List<String> padre1, List<String> padre2) {
-        int numGenes = padre1.size() - 1;
-        Random random = new Random();
-        memoriaConsumidaBits += 96; // numGenes (32) + random reference (64)
+    private void cruzar(int base1, int base2, int baseHijo, Trabajador t) {
+        t.cruce.cruzar(genes, base1, genes, base2, genes, baseHijo, t.random);
+        t.asignaciones += numCiudades;
+        t.comparaciones += numCiudades;
+    }
 
-        int puntoInicio = random.nextInt(numGenes);
-        int puntoFin = random.nextInt(numGenes - puntoInicio) + puntoInicio;
-        memoriaConsumidaBits += 64; // puntoInicio y puntoFin
+    /**
+     * Intercambia dos genes de un cromosoma.
+     *
+     * @param base inicio del cromosoma
+     * @param i    primera posición
+     * @param j    segunda posición
+     * @param t    trabajador que acumula los contadores
+     */
+    private void intercambiar(int base, int i, int j, Trabajador t) {
+        int tmp = genes[base + i];
+        genes[base + i] = genes[base + j];
+        genes[base + j] = tmp;
+        t.asignaciones += 2;
+    }
 
-        List<String> hijo = new ArrayList<>(Collections.nCopies(numGenes, null));
-        memoriaConsumidaBits += 64; // Referencia a hijo
-        contarMemoriaLista(hijo);
+    /**
+     * Distancia entre las ciudades de dos posiciones de un cromosoma.
+     *
+     * @param base inicio del cromosoma
+     * @param i    primera posición
+     * @param j    segunda posición
+     * @return distancia entre ambas ciudades
+     */
+    private long distanciaPosiciones(int base, int i, int j) {
+        return matriz.getDistancia(genes[base + i], genes[base + j]);
+    }
 
-        for (int i = puntoInicio; i <= puntoFin; i++) {
-            hijo.set(i, padre1.get(i));
-            contadorAsignaciones++;
+    /**
+     * Calcula en O(1) el cambio de longitud del recorrido al intercambiar dos posiciones,
+     * usando solo las (a lo sumo) cuatro aristas afectadas.
+     *
+     * @param base inicio del cromosoma
+     * @param i    primera posición
+     * @param j    segunda posición, distinta de la primera
+     * @return longitud nueva menos longitud actual
+     */
+    private long deltaIntercambio(int base, int i, int j) {
+        if (numCiudades < 4) {
+            return 0; // Con 3 o menos ciudades cualquier intercambio da el mismo ciclo
+        }
+        if (i > j) {
+            int tmp = i;
+            i = j;
+            j = tmp;
         }
+        if (i == 0 && j == numCiudades - 1) {
+            // Adyacentes a través del arco de cierre: el orden en el ciclo es ... j, i ...
+            int previo = j - 1;
+            int siguiente = i + 1;
+            return distanciaPosiciones(base, previo, i) + distanciaPosiciones(base, j, siguiente)
+                    - distanciaPosiciones(base, previo, j) - distanciaPosiciones(base, i, siguiente);
+        }
+        int previoI = (i + numCiudades - 1) % numCiudades;
+        int siguienteJ = (j + 1) % numCiudades;
+        if (j == i + 1) {
+            return distanciaPosiciones(base, previoI, j) + distanciaPosiciones(base, i, siguienteJ)
+                    - distanciaPosiciones(base, previoI, i) - distanciaPosiciones(base, j, siguienteJ);
+        }
+        int siguienteI = i + 1;
+        int previoJ = j - 1;
+        return distanciaPosiciones(base, previoI, j) + distanciaPosiciones(base, j, siguienteI)
+                + distanciaPosiciones(base, previoJ, i) + distanciaPosiciones(base, i, siguienteJ)
+                - distanciaPosiciones(base, previoI, i) - distanciaPosiciones(base, i, siguienteI)
+                - distanciaPosiciones(base, previoJ, j) - distanciaPosiciones(base, j, siguienteJ);
+    }
 
-        int idx = 0;
-        memoriaConsumidaBits += 32; // Variable idx
+    /**
+     * Intercambia dos posiciones solo si acorta el recorrido, actualizando el fitness en caché.
+     *
+     * @param ranura índice del cromosoma
+     * @param i      primera posición
+     * @param j      segunda posición
+     * @param t      trabajador que acumula los contadores
+     */
+    private void intercambiarSiMejora(int ranura, int i, int j, Trabajador t) {
+        int base = inicio(ranura);
+        long delta = deltaIntercambio(base, i, j);
 
-        for (String gen : padre2) {
-            if (!hijo.contains(gen)) {
-                while (hijo.get(idx) != null) {
-                    idx++;
-                }
-                hijo.set(idx, gen);
-                contadorAsignaciones++;
-            }
-            contadorComparaciones++;
+        t.comparaciones++;
+        if (delta < 0) {
+            intercambiar(base, i, j, t);
+            fitness[ranura] += delta;
         }
-
-        hijo.add(hijo.get(0));
-        return hijo;
     }
 
     /**
      * Aplica una mutación aleatoria al cromosoma intercambiando dos ciudades al azar.
      * Solo mantiene la mutación si mejora el fitness.
      *
-     * @param cromosoma Lista de ciudades a mutar
+     * @param ranura índice del cromosoma a mutar
+     * @param t      trabajador con el generador aleatorio y los contadores
      */
-    private void mutacionAleatoria(List<String> cromosoma) {
-        Random random = new Random();
-        memoriaConsumidaBits += 64; // Referencia a random
-
+    private void mutacionAleatoria(int ranura, Trabajador t) {
         int idx1, idx2;
-        memoriaConsumidaBits += 64; // Variables idx1 e idx2
 
         do {
-            idx1 = random.nextInt(numCiudades - 1) + 1;
-            idx2 = random.nextInt(numCiudades - 1) + 1;
-            contadorComparaciones += 2;
+            idx1 = t.random.nextInt(numCiudades - 1) + 1;
+            idx2 = t.random.nextInt(numCiudades - 1) + 1;
+            t.comparaciones += 2;
         } while (idx1 == idx2);
 
-        int fitnessOriginal = calcularFitness(cromosoma);
-        memoriaConsumidaBits += 32; // Variable fitnessOriginal
-
-        contadorComparaciones++;
-        Collections.swap(cromosoma, idx1, idx2);
-        contadorAsignaciones += 2;
-
-        int fitnessNuevo = calcularFitness(cromosoma);
-        memoriaConsumidaBits += 32; // Variable fitnessNuevo
-        contadorComparaciones++;
-
-        if (fitnessNuevo >= fitnessOriginal) {
-            Collections.swap(cromosoma, idx1, idx2);
-            contadorAsignaciones += 2;
-        }
+        intercambiarSiMejora(ranura, idx1, idx2, t);
     }
 
     /**
      * Aplica una mutación dirigida al cromosoma, identificando y modificando el segmento
      * con mayor distancia. Solo mantiene la mutación si mejora el fitness.
      *
-     * @param cromosoma Lista de ciudades a mutar
+     * @param ranura índice del cromosoma a mutar
+     * @param t      trabajador que acumula los contadores
      */
-    private void mutacionDirigida(List<String> cromosoma) {
-        int maxDistancia = -1;
+    private void mutacionDirigida(int ranura, Trabajador t) {
+        int base = inicio(ranura);
+        long maxDistancia = -1;
         int idx1 = 0;
         int idx2 = 0;
-        memoriaConsumidaBits += 96; // Variables maxDistancia, idx1, idx2
 
-        for (int i = 0; i < cromosoma.size() - 1; i++) {
-            int distancia = grafo.getDistancia(cromosoma.get(i), cromosoma.get(i + 1));
-            memoriaConsumidaBits += 32; // Variable distancia
+        for (int i = 0; i < numCiudades; i++) {
+            int siguiente = (i + 1) % numCiudades;
+            long distancia = distanciaPosiciones(base, i, siguiente);
 
-            contadorComparaciones++;
+            t.comparaciones++;
             if (distancia > maxDistancia) {
                 maxDistancia = distancia;
                 idx1 = i;
-                idx2 = i + 1;
-                contadorAsignaciones += 2;
+                idx2 = siguiente;
+                t.asignaciones += 2;
+            }
+        }
+
+        intercambiarSiMejora(ranura, idx1, idx2, t);
+    }
+
+    /**
+     * Aplica una mutación 2-opt: invierte un tramo aleatorio del recorrido si eso lo acorta.
+     * El cambio de longitud se evalúa en O(1) con las dos aristas que se reemplazan.
+     *
+     * @param ranura índice del cromosoma a mutar
+     * @param t      trabajador con el generador aleatorio y los contadores
+     */
+    private void mutacion2Opt(int ranura, Trabajador t) {
+        if (numCiudades < 4) {
+            return;
+        }
+        int base = inicio(ranura);
+        int i = t.random.nextInt(numCiudades - 1);
+        int j = t.random.nextInt(numCiudades - i - 1) + i + 1;
+        int siguienteJ = (j + 1) % numCiudades;
+        t.comparaciones++;
+        if (siguienteJ == i || j == i + 1) {
+            return; // Tramo vacío o el ciclo completo: no cambia el recorrido
+        }
+
+        long delta = distanciaPosiciones(base, i, j) + distanciaPosiciones(base, i + 1, siguienteJ)
+                - distanciaPosiciones(base, i, i + 1) - distanciaPosiciones(base, j, siguienteJ);
+        t.comparaciones++;
+        if (delta < 0) {
+            for (int a = i + 1, b = j; a < b; a++, b--) {
+                intercambiar(base, a, b, t);
             }
+            fitness[ranura] += delta;
         }
+    }
 
-        int fitnessOriginal = calcularFitness(cromosoma);
-        memoriaConsumidaBits += 32; // Variable fitnessOriginal
+    /**
+     * Aplica los tipos de mutación (aleatoria, dirigida y 2-opt) a un cromosoma.
+     * El fitness del cromosoma debe estar calculado; las mutaciones lo mantienen actualizado.
+     *
+     * @param ranura índice del cromosoma a mutar
+     * @param t      trabajador con el generador aleatorio y los contadores
+     */
+    private void mutar(int ranura, Trabajador t) {
+        mutacionAleatoria(ranura, t);
+        mutacionDirigida(ranura, t);
+        mutacion2Opt(ranura, t);
+    }
 
-        contadorComparaciones++;
-        Collections.swap(cromosoma, idx1, idx2);
-        contadorAsignaciones += 2;
+    /**
+     * Selecciona la forma de elegir los padres.
+     *
+     * @param tipoSeleccion tipo de selección (ALEATORIA, TORNEO o SUS)
+     */
+    public void setTipoSeleccion(TipoSeleccion tipoSeleccion) {
+        this.tipoSeleccion = tipoSeleccion;
+    }
 
-        int fitnessNuevo = calcularFitness(cromosoma);
-        memoriaConsumidaBits += 32; // Variable fitnessNuevo
+    /**
+     * Fija cuántos cromosomas compiten en cada torneo (2 por defecto; más aumenta la presión selectiva).
+     *
+     * @param tamanioTorneo cromosomas por torneo, al menos 1
+     */
+    public void setTamanioTorneo(int tamanioTorneo) {
+        this.tamanioTorneo = Math.max(1, tamanioTorneo);
+    }
 
-        contadorComparaciones++;
-        if (fitnessNuevo >= fitnessOriginal) {
-            Collections.swap(cromosoma, idx1, idx2);
-            contadorAsignaciones += 2;
+    /**
+     * Elige un padre de la población actual con el trabajador de un bloque.
+     *
+     * @param t trabajador con el generador aleatorio
+     * @return ranura del padre
+     */
+    private int elegirPadre(Trabajador t) {
+        int elegido = t.random.nextInt(tamanioPoblacion);
+        if (tipoSeleccion == TipoSeleccion.TORNEO) {
+            for (int k = 1; k < tamanioTorneo; k++) {
+                int rival = t.random.nextInt(tamanioPoblacion);
+                t.comparaciones++;
+                if (fitness[rival] < fitness[elegido]) {
+                    elegido = rival;
+                }
+            }
         }
+        return elegido;
     }
 
     /**
-     * Aplica ambos tipos de mutación (aleatoria y dirigida) a un cromosoma.
+     * Muestreo universal estocástico de todos los padres de la generación en {@code padres}.
+     * El peso de cada ruta es lo que mejora a la peor más uno; una sola posición al azar define
+     * punteros equiespaciados sobre los pesos acumulados, y al final se barajan para formar las parejas.
      *
-     * @param cromosoma Lista de ciudades a mutar
+     * @param random generador aleatorio de la generación
      */
-    private void mutar(List<String> cromosoma) {
-        int puntuacionAntes = calcularFitness(cromosoma);
-        memoriaConsumidaBits += 32; // Variable puntuacionAntes
+    private void muestrearPadres(SplittableRandom random) {
+        long peor = 0;
+        for (int i = 0; i < tamanioPoblacion; i++) {
+            peor = Math.max(peor, fitness[i]);
+        }
+        double total = 0;
+        for (int i = 0; i < tamanioPoblacion; i++) {
+            total += peor - fitness[i] + 1;
+        }
+        double paso = total / padres.length;
+        double puntero = random.nextDouble() * paso;
+        double acumulado = 0;
+        int elegidos = 0;
+        for (int i = 0; i < tamanioPoblacion && elegidos < padres.length; i++) {
+            acumulado += peor - fitness[i] + 1;
+            while (elegidos < padres.length && puntero < acumulado) {
+                padres[elegidos++] = i;
+                puntero += paso;
+            }
+        }
+        while (elegidos < padres.length) { // redondeo del último puntero
+            padres[elegidos++] = tamanioPoblacion - 1;
+        }
+        for (int i = padres.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = padres[i];
+            padres[i] = padres[j];
+            padres[j] = tmp;
+        }
+        contadorComparaciones += tamanioPoblacion;
+        contadorAsignaciones += padres.length;
+    }
 
-        mutacionAleatoria(cromosoma);
-        mutacionDirigida(cromosoma);
+    /**
+     * Configura la ejecución paralela de las generaciones.
+     * Los hijos se reparten en tantos bloques como hilos tenga el pool; con {@code null}
+     * se vuelve a la ejecución secuencial.
+     *
+     * @param pool pool de hilos donde se crean los hijos, o null
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+        int bloques = pool != null ? Math.max(1, Math.min(pool.getParallelism(), (tamanioPoblacion + 1) / 2)) : 1;
+        trabajadores = new Trabajador[bloques];
+        for (int b = 0; b < bloques; b++) {
+            trabajadores[b] = crearTrabajador();
+        }
+    }
 
-        int puntuacionDespues = calcularFitness(cromosoma);
-        memoriaConsumidaBits += 32; // Variable puntuacionDespues
+    /**
+     * Activa el modo memético: tras el cruce y la mutación, cada hijo pasa con la probabilidad
+     * indicada por una búsqueda local (2-opt / Or-opt) limitada a un número de iteraciones.
+     *
+     * @param probabilidad      probabilidad de aplicar la búsqueda local a cada hijo (0 la desactiva)
+     * @param limiteIteraciones ciudades examinadas como máximo en cada búsqueda local
+     */
+    public void setModoMemetico(double probabilidad, long limiteIteraciones) {
+        this.probabilidadMemetica = probabilidad;
+        this.limiteIteracionesMemetico = limiteIteraciones;
+        if (probabilidad > 0 && candidatos == null) {
+            candidatos = new ListaCandidatos(matriz, CANDIDATOS_MEMETICO);
+        }
+        for (Trabajador t : trabajadores) {
+            t.busquedaLocal = crearBusquedaLocal();
+        }
+    }
+
+    /**
+     * Crea el estado de un bloque de hijos con la configuración actual.
+     *
+     * @return trabajador nuevo
+     */
+    private Trabajador crearTrabajador() {
+        Trabajador t = new Trabajador(tipoCruce.crear(numCiudades));
+        t.busquedaLocal = crearBusquedaLocal();
+        return t;
+    }
+
+    /**
+     * Crea la búsqueda local de un trabajador si el modo memético está activo.
+     *
+     * @return búsqueda local o null
+     */
+    private BusquedaLocal crearBusquedaLocal() {
+        if (probabilidadMemetica <= 0) {
+            return null;
+        }
+        BusquedaLocal busquedaLocal = new BusquedaLocal(matriz, candidatos);
+        busquedaLocal.setLimiteIteraciones(limiteIteracionesMemetico);
+        return busquedaLocal;
     }
 
     /**
      * Ejecuta una generación completa del algoritmo genético.
      * Incluye selección de padres, cruce, mutación y selección de sobrevivientes.
+     * Los hijos se escriben en la segunda mitad de la reserva y los sobrevivientes se copian
+     * al búfer auxiliar, que pasa a ser la población actual.
      */
     public void ejecutarGeneracion() {
-        List<List<String>> nuevaGeneracion = new ArrayList<>();
-        Random random = new Random();
-        memoriaConsumidaBits += 128; // Referencias a nuevaGeneracion y random
+        crearPoblacionSiFalta();
+        long bytesInicio = Metricas.bytesAsignados();
+        hiloGeneracion = Thread.currentThread();
+        // Cada bloque recibe su propio flujo aleatorio, derivado en orden desde la raíz
+        for (Trabajador t : trabajadores) {
+            t.random = raizAleatoria.split();
+        }
+        if (tipoSeleccion == TipoSeleccion.SUS) {
+            long marca = Metricas.ACTIVAS ? System.nanoTime() : 0;
+            muestrearPadres(raizAleatoria.split());
+            if (Metricas.ACTIVAS) {
+                trabajadores[0].medir(Metricas.Fase.SELECCION, marca);
+            }
+        }
 
-        while (nuevaGeneracion.size() < tamanioPoblacion) {
-            List<String> padre1 = poblacion.get(random.nextInt(poblacion.size()));
-            List<String> padre2 = poblacion.get(random.nextInt(poblacion.size()));
-            memoriaConsumidaBits += 128; // Referencias a padre1 y padre2
+        int bloques = trabajadores.length;
+        if (pool == null || bloques == 1) {
+            for (int b = 0; b < bloques; b++) {
+                generarBloqueHijos(b);
+            }
+        } else {
+            pool.submit(() -> IntStream.range(0, bloques).parallel().forEach(this::generarBloqueHijos)).join();
+        }
 
-            List<String> hijo1 = cruzar(padre1, padre2);
-            List<String> hijo2 = cruzar(padre2, padre1);
-            memoriaConsumidaBits += 128; // Referencias a hijo1 y hijo2
+        // Truncamiento (μ+λ): pasan los mejores entre padres e hijos, en el orden en que quedan
+        long marca = Metricas.ACTIVAS ? System.nanoTime() : 0;
+        marcarClones(2 * tamanioPoblacion);
+        seleccionarMejores(2 * tamanioPoblacion, tamanioPoblacion);
+        for (int i = 0; i < tamanioPoblacion; i++) {
+            int ranura = ranuraEnOrden(i);
+            System.arraycopy(genes, inicio(ranura), genesAux, inicio(i), numCiudades);
+            fitnessAux[i] = fitness[ranura];
+            huellasAux[i] = huellas[ranura];
+            contadorAsignaciones++;
+        }
+        intercambiarBuferes();
+        generacionesEjecutadas++;
+        if (diversidad < diversidadMinima) {
+            generacionesSinDiversidad++;
+        } else {
+            generacionesSinDiversidad = 0;
+        }
 
-            if (random.nextDouble() < 0.1) {
-                mutar(hijo1);
-                mutar(hijo2);
+        long bytesGeneracion = Metricas.bytesAsignadosDesde(bytesInicio);
+        for (Trabajador t : trabajadores) {
+            bytesGeneracion += t.bytesAsignados;
+            t.bytesAsignados = 0;
+        }
+        bytesAsignados += bytesGeneracion;
+        if (Metricas.ACTIVAS) {
+            nanosGeneracion[Metricas.Fase.SUPERVIVENCIA.ordinal()] = System.nanoTime() - marca;
+            registrarGeneracion(bytesGeneracion);
+        }
+    }
+
+    /**
+     * Suma los tiempos por fase de los trabajadores y guarda la generación en el registro y como
+     * evento JFR.
+     *
+     * @param bytesGeneracion bytes asignados durante la generación
+     */
+    private void registrarGeneracion(long bytesGeneracion) {
+        for (int f = 0; f < Metricas.NUM_FASES; f++) {
+            if (f != Metricas.Fase.SUPERVIVENCIA.ordinal()) {
+                nanosGeneracion[f] = 0;
             }
-            nuevaGeneracion.add(hijo1);
-            nuevaGeneracion.add(hijo2);
-            contarMemoriaLista(hijo1);
-            contarMemoriaLista(hijo2);
         }
+        for (Trabajador t : trabajadores) {
+            for (int f = 0; f < Metricas.NUM_FASES; f++) {
+                nanosGeneracion[f] += t.nanosFase[f];
+                t.nanosFase[f] = 0;
+            }
+        }
+        long mejor = Long.MAX_VALUE;
+        long suma = 0;
+        for (int i = 0; i < tamanioPoblacion; i++) {
+            mejor = Math.min(mejor, fitness[i]);
+            suma += fitness[i];
+        }
+        double promedio = (double) suma / tamanioPoblacion;
+        registro.registrar(generacionesEjecutadas, mejor, promedio, diversidad, nanosGeneracion, bytesGeneracion);
 
-        nuevaGeneracion.addAll(poblacion);
-        nuevaGeneracion.sort(Comparator.comparingInt(this::calcularFitness));
-        poblacion = nuevaGeneracion.subList(0, tamanioPoblacion);
-        contarMemoriaLista(poblacion);
+        EventoGeneracion evento = new EventoGeneracion();
+        if (evento.shouldCommit()) {
+            evento.generacion = generacionesEjecutadas;
+            evento.mejor = mejor;
+            evento.promedio = promedio;
+            evento.diversidad = diversidad;
+            evento.seleccion = nanosGeneracion[Metricas.Fase.SELECCION.ordinal()];
+            evento.cruce = nanosGeneracion[Metricas.Fase.CRUCE.ordinal()];
+            evento.evaluacion = nanosGeneracion[Metricas.Fase.EVALUACION.ordinal()];
+            evento.mutacion = nanosGeneracion[Metricas.Fase.MUTACION.ordinal()];
+            evento.busquedaLocal = nanosGeneracion[Metricas.Fase.BUSQUEDA_LOCAL.ordinal()];
+            evento.supervivencia = nanosGeneracion[Metricas.Fase.SUPERVIVENCIA.ordinal()];
+            evento.bytesAsignados = bytesGeneracion;
+            evento.commit();
+        }
+    }
+
+    /**
+     * Devuelve la diversidad de la última generación: la fracción de hijos cuya huella no estaba ya
+     * en la población ni en otro hijo. Tiende a 0 cuando la población converge y el cruce solo
+     * reproduce recorridos conocidos.
+     *
+     * @return diversidad entre 0 y 1 (1 antes de la primera generación)
+     */
+    public double getDiversidad() {
+        return diversidad;
+    }
+
+    /**
+     * Detiene la ejecución cuando la población converge: la diversidad ({@link #getDiversidad()})
+     * queda por debajo de un mínimo durante varias generaciones seguidas.
+     *
+     * @param diversidadMinima diversidad por debajo de la cual una generación cuenta como convergida
+     *                         (0 desactiva la parada)
+     * @param generaciones     generaciones convergidas seguidas necesarias para detenerse
+     */
+    public void setParadaPorConvergencia(double diversidadMinima, int generaciones) {
+        this.diversidadMinima = diversidadMinima;
+        this.generacionesConvergencia = Math.max(1, generaciones);
+    }
+
+    /**
+     * Devuelve el registro de las últimas generaciones.
+     *
+     * @return registro de métricas, o null si la JVM no arrancó con {@code -Dtsp.metricas=true}
+     */
+    public RegistroGeneraciones getRegistro() {
+        return registro;
+    }
+
+    /**
+     * Genera los hijos de un bloque. El bloque {@code b} produce las parejas de hijos
+     * de su rango y escribe únicamente en sus propias ranuras.
+     *
+     * @param b índice del bloque (y de su trabajador)
+     */
+    private void generarBloqueHijos(int b) {
+        Trabajador t = trabajadores[b];
+        int pares = (tamanioPoblacion + 1) / 2;
+        int desde = (int) ((long) pares * b / trabajadores.length);
+        int hasta = (int) ((long) pares * (b + 1) / trabajadores.length);
+        // Los bytes del hilo de la generación ya se miden en ejecutarGeneracion
+        boolean otroHilo = Thread.currentThread() != hiloGeneracion;
+        long bytesInicio = otroHilo ? Metricas.bytesAsignados() : 0;
+        long marca = Metricas.ACTIVAS ? System.nanoTime() : 0;
+
+        for (int par = desde; par < hasta; par++) {
+            int padre1;
+            int padre2;
+            if (tipoSeleccion == TipoSeleccion.SUS) {
+                padre1 = padres[2 * par];
+                padre2 = padres[2 * par + 1];
+            } else {
+                padre1 = elegirPadre(t);
+                padre2 = elegirPadre(t);
+            }
+            if (Metricas.ACTIVAS) {
+                marca = t.medir(Metricas.Fase.SELECCION, marca);
+            }
+
+            int hijo1 = tamanioPoblacion + 2 * par;
+            int hijo2 = hijo1 + 1 < 2 * tamanioPoblacion ? hijo1 + 1 : -1;
+            cruzar(inicio(padre1), inicio(padre2), inicio(hijo1), t);
+            if (hijo2 >= 0) {
+                cruzar(inicio(padre2), inicio(padre1), inicio(hijo2), t);
+            }
+            if (Metricas.ACTIVAS) {
+                marca = t.medir(Metricas.Fase.CRUCE, marca);
+            }
+            fitness[hijo1] = calcularFitness(genes, inicio(hijo1), t);
+            if (hijo2 >= 0) {
+                fitness[hijo2] = calcularFitness(genes, inicio(hijo2), t);
+            }
+            if (Metricas.ACTIVAS) {
+                marca = t.medir(Metricas.Fase.EVALUACION, marca);
+            }
+
+            if (t.random.nextDouble() < 0.1) {
+                mutar(hijo1, t);
+                if (hijo2 >= 0) {
+                    mutar(hijo2, t);
+                }
+            }
+            if (Metricas.ACTIVAS) {
+                marca = t.medir(Metricas.Fase.MUTACION, marca);
+            }
+            if (t.busquedaLocal != null) {
+                aplicarBusquedaLocal(hijo1, t);
+                if (hijo2 >= 0) {
+                    aplicarBusquedaLocal(hijo2, t);
+                }
+                if (Metricas.ACTIVAS) {
+                    marca = t.medir(Metricas.Fase.BUSQUEDA_LOCAL, marca);
+                }
+            }
+            huellas[hijo1] = calcularHuella(genes, inicio(hijo1));
+            if (hijo2 >= 0) {
+                huellas[hijo2] = calcularHuella(genes, inicio(hijo2));
+            }
+            if (Metricas.ACTIVAS) {
+                marca = t.medir(Metricas.Fase.EVALUACION, marca);
+            }
+        }
+        if (otroHilo) {
+            t.bytesAsignados += Metricas.bytesAsignadosDesde(bytesInicio);
+        }
+    }
+
+    /**
+     * Aplica la búsqueda local del modo memético a un hijo con la probabilidad configurada,
+     * actualizando su fitness en caché con el cambio de longitud.
+     *
+     * @param ranura índice del cromosoma
+     * @param t      trabajador con la búsqueda local y el generador aleatorio
+     */
+    private void aplicarBusquedaLocal(int ranura, Trabajador t) {
+        if (t.random.nextDouble() < probabilidadMemetica) {
+            fitness[ranura] += t.busquedaLocal.mejorar(genes, inicio(ranura));
+            t.asignaciones += t.busquedaLocal.getMovimientos();
+        }
+    }
+
+    /**
+     * Ordena las primeras ranuras por fitness dejando el resultado en {@code orden}.
+     * Cada entrada codifica el fitness en los bits altos y la ranura en los {@link #BITS_RANURA} bajos;
+     * los fitness mayores que {@link #MAX_FITNESS_ORDEN} (más de 5 * 10^11) empatan entre sí.
+     *
+     * @param ranuras cantidad de ranuras a ordenar
+     */
+    private void ordenarPorFitness(int ranuras) {
+        for (int i = 0; i < ranuras; i++) {
+            orden[i] = (Math.min(fitness[i], MAX_FITNESS_ORDEN) << BITS_RANURA) | i;
+        }
+        Arrays.sort(orden, 0, ranuras);
+        contadorComparaciones += ranuras;
+    }
+
+    /**
+     * Llena {@code orden} con las claves de las ranuras dando a los clones el peor fitness posible,
+     * para que solo sobrevivan si no hay suficientes recorridos distintos. Se recorren primero los
+     * padres, así que de un hijo repetido se conserva el padre. Actualiza {@link #diversidad}.
+     *
+     * @param ranuras cantidad de ranuras (población actual seguida de los hijos)
+     */
+    private void marcarClones(int ranuras) {
+        Arrays.fill(tablaHuellas, 0);
+        int clonesHijos = 0;
+        for (int i = 0; i < ranuras; i++) {
+            boolean clon = !agregarHuella(tablaHuellas, huellas[i]);
+            if (clon && i >= tamanioPoblacion) {
+                clonesHijos++;
+            }
+            long clave = clon ? MAX_FITNESS_ORDEN : Math.min(fitness[i], MAX_FITNESS_ORDEN);
+            orden[i] = (clave << BITS_RANURA) | i;
+        }
+        int hijos = ranuras - tamanioPoblacion;
+        diversidad = hijos > 0 ? (double) (hijos - clonesHijos) / hijos : 1;
+        contadorComparaciones += ranuras;
+    }
+
+    /**
+     * Deja en las primeras {@code cantidad} posiciones de {@code orden} las ranuras de menor clave,
+     * sin ordenarlas entre sí (quickselect con mediana de tres, O(ranuras) en promedio). Las claves
+     * de {@code orden} son distintas porque incluyen la ranura, así que los empates no degradan.
+     *
+     * @param ranuras  cantidad de ranuras candidatas, con sus claves ya cargadas en {@code orden}
+     * @param cantidad cantidad de ranuras a conservar
+     */
+    private void seleccionarMejores(int ranuras, int cantidad) {
+        int k = cantidad - 1;
+        int izquierda = 0;
+        int derecha = ranuras - 1;
+        while (izquierda < derecha) {
+            long a = orden[izquierda];
+            long b = orden[(izquierda + derecha) >>> 1];
+            long c = orden[derecha];
+            long pivote = Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+            int i = izquierda;
+            int j = derecha;
+            while (i <= j) {
+                while (orden[i] < pivote) {
+                    i++;
+                }
+                while (orden[j] > pivote) {
+                    j--;
+                }
+                if (i <= j) {
+                    long tmp = orden[i];
+                    orden[i] = orden[j];
+                    orden[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                derecha = j;
+            } else if (k >= i) {
+                izquierda = i;
+            } else {
+                break;
+            }
+        }
+        contadorComparaciones += ranuras;
+    }
+
+    /**
+     * Ranura guardada en una posición de {@code orden}.
+     *
+     * @param posicion posición en el orden
+     * @return ranura del cromosoma
+     */
+    private int ranuraEnOrden(int posicion) {
+        return (int) (orden[posicion] & ((1L << BITS_RANURA) - 1));
+    }
+
+    /**
+     * Intercambia la población actual con el búfer de la siguiente generación.
+     */
+    private void intercambiarBuferes() {
+        int[] tmp = genes;
+        genes = genesAux;
+        genesAux = tmp;
+        long[] tmpFitness = fitness;
+        fitness = fitnessAux;
+        fitnessAux = tmpFitness;
+        long[] tmpHuellas = huellas;
+        huellas = huellasAux;
+        huellasAux = tmpHuellas;
+    }
+
+    /**
+     * Decodifica un cromosoma a nombres de ciudades, rotándolo para que empiece y termine
+     * en la ciudad inicial (identificador 0).
+     *
+     * @param ranura índice del cromosoma
+     * @return ruta cerrada con los nombres de las ciudades
+     */
+    private List<String> decodificar(int ranura) {
+        int base = inicio(ranura);
+        int desplazamiento = 0;
+        while (genes[base + desplazamiento] != 0) {
+            desplazamiento++;
+        }
+        List<String> ruta = new ArrayList<>(numCiudades + 1);
+        for (int i = 0; i <= numCiudades; i++) {
+            ruta.add(matriz.getNombre(genes[base + (desplazamiento + i) % numCiudades]));
+        }
+        return ruta;
+    }
+
+    /**
+     * Recalcula el fitness de una ranura de la población actual (usado por los benchmarks).
+     *
+     * @param ranura índice del cromosoma
+     * @return distancia total del recorrido
+     */
+    long calcularFitness(int ranura) {
+        crearPoblacionSiFalta();
+        return calcularFitness(genes, inicio(ranura), trabajadores[0]);
+    }
+
+    /**
+     * Cruza dos ranuras de la población y escribe el hijo en una ranura de hijos (usado por los benchmarks).
+     *
+     * @param padre1 ranura del primer padre
+     * @param padre2 ranura del segundo padre
+     * @param hijo   ranura de destino, en {@code [tamanioPoblacion, 2 * tamanioPoblacion)}
+     */
+    void cruzar(int padre1, int padre2, int hijo) {
+        crearPoblacionSiFalta();
+        cruzar(inicio(padre1), inicio(padre2), inicio(hijo), trabajadores[0]);
+        fitness[hijo] = calcularFitness(genes, inicio(hijo), trabajadores[0]);
+    }
+
+    /**
+     * Aplica las mutaciones a una ranura de la población (usado por los benchmarks).
+     *
+     * @param ranura índice del cromosoma
+     */
+    void mutar(int ranura) {
+        crearPoblacionSiFalta();
+        mutar(ranura, trabajadores[0]);
+        huellas[ranura] = calcularHuella(genes, inicio(ranura));
+    }
+
+    /**
+     * Devuelve la longitud del mejor recorrido de la población actual.
+     *
+     * @return mejor fitness
+     */
+    public long getMejorFitness() {
+        crearPoblacionSiFalta();
+        long mejor = Long.MAX_VALUE;
+        for (int i = 0; i < tamanioPoblacion; i++) {
+            mejor = Math.min(mejor, fitness[i]);
+        }
+        return mejor;
+    }
+
+    /**
+     * Devuelve la longitud promedio de los recorridos de la población actual.
+     *
+     * @return fitness promedio
+     */
+    public double getFitnessPromedio() {
+        crearPoblacionSiFalta();
+        long suma = 0;
+        for (int i = 0; i < tamanioPoblacion; i++) {
+            suma += fitness[i];
+        }
+        return (double) suma / tamanioPoblacion;
+    }
+
+    /**
+     * Devuelve la mejor ruta de la población actual con los nombres de las ciudades.
+     *
+     * @return ruta cerrada que empieza y termina en la ciudad inicial
+     */
+    public List<String> getMejorRuta() {
+        crearPoblacionSiFalta();
+        ordenarPorFitness(tamanioPoblacion);
+        return decodificar(ranuraEnOrden(0));
+    }
+
+    /**
+     * Copia los mejores cromosomas de la población actual para enviarlos como migrantes.
+     *
+     * @param cantidad cantidad de cromosomas a copiar
+     * @return copias independientes de los mejores cromosomas
+     */
+    public int[][] exportarElite(int cantidad) {
+        crearPoblacionSiFalta();
+        ordenarPorFitness(tamanioPoblacion);
+        int[][] elite = new int[Math.min(cantidad, tamanioPoblacion)][];
+        for (int i = 0; i < elite.length; i++) {
+            int base = inicio(ranuraEnOrden(i));
+            elite[i] = Arrays.copyOfRange(genes, base, base + numCiudades);
+        }
+        return elite;
+    }
+
+    /**
+     * Reemplaza los peores cromosomas de la población actual por los migrantes recibidos.
+     *
+     * @param migrantes cromosomas recibidos de otra población sobre el mismo grafo
+     */
+    public void importarMigrantes(int[][] migrantes) {
+        crearPoblacionSiFalta();
+        ordenarPorFitness(tamanioPoblacion);
+        int cantidad = Math.min(migrantes.length, tamanioPoblacion);
+        for (int i = 0; i < cantidad; i++) {
+            int ranura = ranuraEnOrden(tamanioPoblacion - 1 - i);
+            System.arraycopy(migrantes[i], 0, genes, inicio(ranura), numCiudades);
+            fitness[ranura] = calcularFitness(genes, inicio(ranura), trabajadores[0]);
+            huellas[ranura] = calcularHuella(genes, inicio(ranura));
+        }
+    }
+
+    /**
+     * Siembra la población con rutas conocidas (por ejemplo de {@link CacheSoluciones}) en lugar de
+     * los peores cromosomas. Cada ruta se repara para esta instancia: se descartan las ciudades que
+     * no existen o están repetidas y las que faltan se agregan por inserción más barata.
+     *
+     * @param rutas rutas con nombres de ciudades (cerradas o no)
+     */
+    public void sembrar(List<List<String>> rutas) {
+        int[][] semillas = new int[Math.min(rutas.size(), tamanioPoblacion)][];
+        for (int s = 0; s < semillas.length; s++) {
+            semillas[s] = reparar(rutas.get(s));
+        }
+        importarMigrantes(semillas);
+    }
+
+    /**
+     * Convierte una ruta por nombres en un cromosoma válido para esta instancia, con la ciudad 0
+     * en la posición 0.
+     *
+     * @param ruta ruta con nombres de ciudades
+     * @return cromosoma reparado
+     */
+    private int[] reparar(List<String> ruta) {
+        boolean[] presente = new boolean[numCiudades];
+        int[] recorrido = new int[numCiudades];
+        int largo = 0;
+        for (String nombre : ruta) {
+            int ciudad = matriz.getIndice(nombre);
+            if (ciudad >= 0 && !presente[ciudad]) {
+                presente[ciudad] = true;
+                recorrido[largo++] = ciudad;
+            }
+        }
+        for (int ciudad = 0; ciudad < numCiudades; ciudad++) {
+            if (presente[ciudad]) {
+                continue;
+            }
+            int mejorPosicion = largo - 1;
+            long mejorCosto = Long.MAX_VALUE;
+            for (int p = 0; p < largo; p++) {
+                int a = recorrido[p];
+                int b = recorrido[(p + 1) % largo];
+                long costo = (long) matriz.getDistancia(a, ciudad) + matriz.getDistancia(ciudad, b)
+                        - matriz.getDistancia(a, b);
+                if (costo < mejorCosto) {
+                    mejorCosto = costo;
+                    mejorPosicion = p;
+                }
+            }
+            System.arraycopy(recorrido, mejorPosicion + 1, recorrido, mejorPosicion + 2, largo - mejorPosicion - 1);
+            recorrido[mejorPosicion + 1] = ciudad;
+            largo++;
+        }
+
+        int desplazamiento = 0;
+        while (recorrido[desplazamiento] != 0) {
+            desplazamiento++;
+        }
+        int[] cromosoma = new int[numCiudades];
+        for (int i = 0; i < numCiudades; i++) {
+            cromosoma[i] = recorrido[(desplazamiento + i) % numCiudades];
+        }
+        return cromosoma;
     }
 
     /**
@@ -300,12 +1249,13 @@ public class EstrategiaGenetica {
      * ordenadas por su valor de fitness.
      */
     public void imprimirTopPoblaciones() {
-        poblacion.sort(Comparator.comparingInt(this::calcularFitness));
+        crearPoblacionSiFalta();
+        ordenarPorFitness(tamanioPoblacion);
         System.out.println("Top 5 mejores poblaciones:");
-        for (int i = 0; i < 5 && i < poblacion.size(); i++) {
-            List<String> mejorRuta = poblacion.get(i);
-            int mejorDistancia = calcularFitness(mejorRuta);
-            memoriaConsumidaBits += 96; // Referencias a mejorRuta y variable mejorDistancia
+        for (int i = 0; i < 5 && i < tamanioPoblacion; i++) {
+            int ranura = ranuraEnOrden(i);
+            List<String> mejorRuta = decodificar(ranura);
+            long mejorDistancia = fitness[ranura];
             System.out.printf("Cromosoma #%d: %s, Puntuación: %d\n", i + 1, mejorRuta, mejorDistancia);
         }
     }
@@ -315,18 +1265,15 @@ public class EstrategiaGenetica {
      * incluyendo el detalle de cada segmento del recorrido.
      */
     public void imprimirMejorRuta() {
-        poblacion.sort(Comparator.comparingInt(this::calcularFitness));
-        List<String> mejorRuta = poblacion.get(0);
-        int mejorDistancia = calcularFitness(mejorRuta);
-        memoriaConsumidaBits += 96; // Referencias a mejorRuta y variable mejorDistancia
+        crearPoblacionSiFalta();
+        ordenarPorFitness(tamanioPoblacion);
+        List<String> mejorRuta = decodificar(ranuraEnOrden(0));
 
         System.out.println("Mejor ruta encontrada:");
         for (int i = 0; i < mejorRuta.size() - 1; i++) {
             String origen = mejorRuta.get(i);
             String destino = mejorRuta.get(i + 1);
-            memoriaConsumidaBits += 128; // Referencias a origen y destino
-            int distancia = grafo.getDistancia(origen, destino);
-            memoriaConsumidaBits += 32; // Variable distancia
+            int distancia = matriz.getDistancia(matriz.getIndice(origen), matriz.getIndice(destino));
         }
     }
 
@@ -337,13 +1284,137 @@ public class EstrategiaGenetica {
      * @param numGeneraciones Número de generaciones a ejecutar
      */
     public void ejecutarCicloGeneraciones(int numGeneraciones) {
-        memoriaConsumidaBits += 32; // Variable numGeneraciones
+        resolver(numGeneraciones);
+        imprimirResultadosMedicion();
+    }
+
+    /**
+     * Asigna un oyente para recibir la traza de cada generación.
+     *
+     * @param oyente oyente de traza, o null para no emitir traza
+     */
+    public void setOyente(OyenteTraza oyente) {
+        this.oyente = oyente;
+    }
+
+    @Override
+    public String getNombre() {
+        return "genetico";
+    }
+
+    /**
+     * Fija la cantidad de generaciones que ejecuta {@link #resolver()}.
+     *
+     * @param numGeneraciones Número de generaciones
+     */
+    public void setNumGeneraciones(int numGeneraciones) {
+        this.numGeneraciones = numGeneraciones;
+    }
+
+    /**
+     * Detiene la ejecución en cuanto la mejor ruta queda a una brecha dada de una cota inferior
+     * (por ejemplo {@link CotaInferior#heldKarp()}), para no gastar CPU en instancias que ya convergieron.
+     *
+     * @param cotaInferior cota inferior de la longitud óptima
+     * @param brechaMaxima brecha aceptada en porcentaje (0 = parar solo al alcanzar la cota)
+     */
+    public void setParadaPorBrecha(long cotaInferior, double brechaMaxima) {
+        this.longitudObjetivo = (long) Math.floor(cotaInferior * (1 + brechaMaxima / 100.0));
+    }
+
+    /**
+     * Resolver.
+     * Ejecuta las generaciones configuradas con {@link #setNumGeneraciones(int)} sin imprimir nada.
+     *
+     * @return resultado de la ejecución
+     */
+    @Override
+    public ResultadoSolucion resolver() {
+        return resolver(numGeneraciones);
+    }
+
+    /**
+     * Resolver.
+     * Ejecuta un número de generaciones sin imprimir nada (salvo que haya un oyente asignado) y
+     * devuelve la mejor ruta de la población junto con el tiempo y los contadores de la ejecución.
+     *
+     * @param numGeneraciones Número de generaciones a ejecutar
+     * @return resultado de la ejecución
+     */
+    public ResultadoSolucion resolver(int numGeneraciones) {
+        return ejecutar(numGeneraciones, null, null);
+    }
+
+    /**
+     * Resolver en cualquier momento.
+     * Ejecuta generaciones hasta que se cancele el token (sin tope de generaciones) y publica la
+     * mejor ruta cada vez que mejora. El token se consulta entre generaciones.
+     *
+     * @param cancelacion  token de cancelación o plazo
+     * @param oyenteMejora oyente de mejoras, o null para no publicar
+     * @return mejor ruta encontrada hasta la cancelación
+     */
+    @Override
+    public ResultadoSolucion resolver(Cancelacion cancelacion, OyenteMejora oyenteMejora) {
+        return ejecutar(Integer.MAX_VALUE, cancelacion, oyenteMejora);
+    }
+
+    /**
+     * Bucle de generaciones común a los dos modos de {@code resolver}.
+     *
+     * @param maxGeneraciones tope de generaciones
+     * @param cancelacion     token de cancelación, o null para ejecutar todas las generaciones
+     * @param oyenteMejora    oyente de mejoras, o null para no publicar
+     * @return resultado de la ejecución
+     */
+    private ResultadoSolucion ejecutar(int maxGeneraciones, Cancelacion cancelacion, OyenteMejora oyenteMejora) {
+        crearPoblacionSiFalta();
         iniciarMedicion();
-        for (int i = 0; i < numGeneraciones; i++) {
+        long mejorPublicado = Long.MAX_VALUE;
+        for (int i = 0; ; i++) {
+            if (oyenteMejora != null) {
+                int mejor = mejorRanura();
+                if (fitness[mejor] < mejorPublicado) {
+                    mejorPublicado = fitness[mejor];
+                    oyenteMejora.alMejorar(new ResultadoSolucion(decodificar(mejor), fitness[mejor],
+                            System.nanoTime() - tiempoInicio, 0, 0));
+                }
+            }
+            if (i >= maxGeneraciones || (cancelacion != null && cancelacion.isCancelada())
+                    || fitness[mejorRanura()] <= longitudObjetivo
+                    || (diversidadMinima > 0 && generacionesSinDiversidad >= generacionesConvergencia)) {
+                break;
+            }
             ejecutarGeneracion();
+            if (oyente != null) {
+                oyente.alTerminarGeneracion(i + 1, getMejorFitness(), getFitnessPromedio());
+            }
         }
         finalizarMedicion();
-        imprimirResultadosMedicion();
+        consolidarContadores();
+
+        int mejor = mejorRanura();
+        ResultadoSolucion resultado = new ResultadoSolucion(decodificar(mejor), fitness[mejor],
+                tiempoFin - tiempoInicio, contadorAsignaciones, contadorComparaciones);
+        if (oyente != null) {
+            oyente.alFinalizar(resultado);
+        }
+        return resultado;
+    }
+
+    /**
+     * Busca la ranura del mejor cromosoma de la población actual sin ordenarla.
+     *
+     * @return ranura con el menor fitness
+     */
+    private int mejorRanura() {
+        int mejor = 0;
+        for (int i = 1; i < tamanioPoblacion; i++) {
+            if (fitness[i] < fitness[mejor]) {
+                mejor = i;
+            }
+        }
+        return mejor;
     }
 
     /**
@@ -353,6 +1424,12 @@ public class EstrategiaGenetica {
     private void iniciarMedicion() {
         contadorAsignaciones = 0;
         contadorComparaciones = 0;
+        bytesAsignados = 0;
+        generacionesSinDiversidad = 0;
+        for (Trabajador t : trabajadores) {
+            t.asignaciones = 0;
+            t.comparaciones = 0;
+        }
         tiempoInicio = System.nanoTime();
     }
 
@@ -363,25 +1440,95 @@ public class EstrategiaGenetica {
         tiempoFin = System.nanoTime();
     }
 
+    /**
+     * Suma a los contadores globales los contadores repartidos entre los trabajadores.
+     */
+    private void consolidarContadores() {
+        for (Trabajador t : trabajadores) {
+            contadorAsignaciones += t.asignaciones;
+            contadorComparaciones += t.comparaciones;
+            t.asignaciones = 0;
+            t.comparaciones = 0;
+        }
+    }
+
     /**
      * Imprime los resultados de la medición de recursos incluyendo:
      * - Tiempo de ejecución en segundos
-     * - Memoria utilizada en bits
+     * - Memoria reservada para la población y memoria asignada durante la ejecución, en bytes
      * - Número total de asignaciones
      * - Número total de comparaciones
      */
     public void imprimirResultadosMedicion() {
         double tiempoSegundos = (tiempoFin - tiempoInicio) / 1_000_000_000.0;
-        memoriaConsumidaBits += 64; // Variable tiempoSegundos
+        consolidarContadores();
 
         System.out.println("\n--- Medición de recursos ---");
         System.out.printf("Tiempo de ejecución (s): %.3f\n", tiempoSegundos);
-        System.out.printf("Memoria utilizada (bits): %d\n", memoriaConsumidaBits);
-        //Estos no aplican a lo solicitado
-        //System.out.printf("Memoria utilizada (bytes): %.2f\n", memoriaConsumidaBits / 8.0);
-        //System.out.printf("Memoria utilizada (KB): %.2f\n", memoriaConsumidaBits / (8.0 * 1024));
-        //System.out.printf("Memoria utilizada (MB): %.2f\n", memoriaConsumidaBits / (8.0 * 1024 * 1024));
+        System.out.printf("Memoria reservada para la población (bytes): %d\n", getBytesPoblacion());
+        System.out.printf("Memoria asignada (bytes): %d\n", bytesAsignados);
         System.out.println("Asignaciones totales: " + contadorAsignaciones);
         System.out.println("Comparaciones totales: " + contadorComparaciones);
     }
-}
\ No newline at end of file
+
+    /**
+     * Devuelve los bytes de los arreglos de la población (genes, fitness, orden, padres y huellas, con sus búferes).
+     *
+     * @return bytes reservados
+     */
+    public long getBytesPoblacion() {
+        return 4L * (genes.length + genesAux.length + padres.length)
+                + 8L * (fitness.length + fitnessAux.length + orden.length)
+                + 8L * (huellas.length + huellasAux.length + tablaHuellas.length);
+    }
+
+    /**
+     * Devuelve los bytes asignados en el heap por todos los hilos durante la última ejecución.
+     *
+     * @return bytes asignados, o 0 si la JVM no permite medirlos
+     */
+    public long getBytesAsignados() {
+        return bytesAsignados;
+    }
+
+    /**
+     * Trabajador.
+     * Estado propio de cada bloque de hijos: operador de cruce y búsqueda local con sus arreglos
+     * de trabajo, generador aleatorio y contadores de medición. Al no compartirse entre hilos, los
+     * contadores no necesitan sincronización.
+     */
+    private static final class Trabajador {
+        private OperadorCruce cruce;
+        private BusquedaLocal busquedaLocal; // null si el modo memético está desactivado
+        private ConstructorRecorridos constructor; // solo al sembrar con heurísticas
+        private int[] recorrido;
+        private long[] huellasBloque;              // repetidos del bloque al crear la población
+        private SplittableRandom random;
+        private long asignaciones;
+        private long comparaciones;
+        private long bytesAsignados;
+        private final long[] nanosFase = new long[Metricas.NUM_FASES];
+
+        /**
+         * Constructor Trabajador.
+         *
+         * @param cruce operador de cruce exclusivo del trabajador
+         */
+        private Trabajador(OperadorCruce cruce) {
+            this.cruce = cruce;
+        }
+
+        /**
+         * Suma a una fase el tiempo transcurrido desde una marca.
+         *
+         * @param fase  fase medida
+         * @param desde marca de {@link System#nanoTime()} al empezar la fase
+         * @return marca actual, para la fase siguiente
+         */
+        private long medir(Metricas.Fase fase, long desde) {
+            long ahora = System.nanoTime();
+            nanosFase[fase.ordinal()] += ahora - desde;
+            return ahora;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package Problema_Viajante;
+
+import java.util.*;
+
+/**
+ * Estrategia Lin-Kernighan.
+ * Búsqueda local encadenada al estilo Lin-Kernighan (Chained LK / Or-opt): parte de un recorrido
+ * de vecino más cercano con ciudad inicial aleatoria, lo lleva a un óptimo local con 2-opt y Or-opt
+ * ({@link BusquedaLocal}) y luego repite "patadas" de doble puente seguidas de una reoptimización
+ * que solo revisa las ciudades tocadas. Una patada se acepta si no empeora el recorrido; si lo
+ * empeora se vuelve al mejor recorrido. Con varios reinicios se repite todo desde otro recorrido
+ * inicial y se conserva el mejor.
+ */
+public class EstrategiaLinKernighan implements SolucionadorTSP {
+    private static final int CANDIDATOS_POR_DEFECTO = 8;
+    private static final int VENTANA_PATADA = 50;
+
+    private final MatrizDistancias matriz;
+    private final ListaCandidatos candidatos;
+    private final IndiceEspacial indice;  // null si la instancia no es de coordenadas planas
+    private final SplittableRandom random;
+    private final int numCiudades;
+
+    private int numReinicios = 1;
+    private int numPatadas;            // por reinicio; por defecto numCiudades
+    private long limiteTiempoNanos = Long.MAX_VALUE;
+    private long longitudObjetivo = -1; // parada por brecha; -1 = desactivada
+
+    /**
+     * Constructor Estrategia Lin-Kernighan.
+     *
+     * @param grafo the grafo
+     */
+    public EstrategiaLinKernighan(Grafo grafo) {
+        this(grafo, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Constructor Estrategia Lin-Kernighan sobre una matriz de distancias.
+     *
+     * @param matriz matriz de distancias (por ejemplo un {@link GrafoBinario})
+     */
+    public EstrategiaLinKernighan(MatrizDistancias matriz) {
+        this(matriz, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Constructor Estrategia Lin-Kernighan con semilla fija.
+     *
+     * @param grafo   the grafo
+     * @param semilla semilla del generador aleatorio
+     */
+    public EstrategiaLinKernighan(Grafo grafo, long semilla) {
+        this(grafo.compilar(), semilla);
+    }
+
+    /**
+     * Constructor Estrategia Lin-Kernighan sobre una matriz de distancias.
+     *
+     * @param matriz  matriz de distancias (por ejemplo un {@link GrafoBinario})
+     * @param semilla semilla del generador aleatorio
+     */
+    public EstrategiaLinKernighan(MatrizDistancias matriz, long semilla) {
+        this.matriz = matriz;
+        this.numCiudades = matriz.getNumCiudades();
+        this.candidatos = new ListaCandidatos(matriz, CANDIDATOS_POR_DEFECTO);
+        this.random = new SplittableRandom(semilla);
+        this.numPatadas = numCiudades;
+        this.indice = IndiceEspacial.admite(matriz) ? new IndiceEspacial((GrafoCoordenadas) matriz) : null;
+    }
+
+    /**
+     * Fija la cantidad de reinicios desde recorridos iniciales distintos.
+     *
+     * @param numReinicios cantidad de reinicios (al menos 1)
+     */
+    public void setNumReinicios(int numReinicios) {
+        this.numReinicios = Math.max(1, numReinicios);
+    }
+
+    /**
+     * Fija la cantidad de patadas de doble puente por reinicio.
+     *
+     * @param numPatadas cantidad de patadas
+     */
+    public void setNumPatadas(int numPatadas) {
+        this.numPatadas = numPatadas;
+    }
+
+    /**
+     * Limita el tiempo total de {@link #resolver()}.
+     *
+     * @param limiteTiempoNanos máximo de nanosegundos
+     */
+    public void setLimiteTiempo(long limiteTiempoNanos) {
+        this.limiteTiempoNanos = limiteTiempoNanos;
+    }
+
+    /**
+     * Detiene la ejecución en cuanto la mejor ruta queda a una brecha dada de una cota inferior
+     * (por ejemplo {@link CotaInferior#heldKarp()}), para no gastar CPU en instancias que ya convergieron.
+     *
+     * @param cotaInferior cota inferior de la longitud óptima
+     * @param brechaMaxima brecha aceptada en porcentaje (0 = parar solo al alcanzar la cota)
+     */
+    public void setParadaPorBrecha(long cotaInferior, double brechaMaxima) {
+        this.longitudObjetivo = (long) Math.floor(cotaInferior * (1 + brechaMaxima / 100.0));
+    }
+
+    @Override
+    public String getNombre() {
+        return "lk";
+    }
+
+    @Override
+    public ResultadoSolucion resolver() {
+        return resolver(null, null);
+    }
+
+    /**
+     * Resolver en cualquier momento.
+     * Además del límite de {@link #setLimiteTiempo(long)}, se detiene al cancelarse el token y publica
+     * el mejor recorrido global cada vez que mejora, también a mitad de un reinicio.
+     *
+     * @param cancelacion  token de cancelación o plazo, o null
+     * @param oyenteMejora oyente de mejoras, o null para no publicar
+     * @return mejor ruta encontrada
+     */
+    @Override
+    public ResultadoSolucion resolver(Cancelacion cancelacion, OyenteMejora oyenteMejora) {
+        long inicio = System.nanoTime();
+        long limite = limiteTiempoNanos == Long.MAX_VALUE ? Long.MAX_VALUE : inicio + limiteTiempoNanos;
+        if (numCiudades < 2) {
+            return new ResultadoSolucion(null, -1, System.nanoTime() - inicio, 0, 0);
+        }
+
+        BusquedaLocal busqueda = new BusquedaLocal(matriz, candidatos);
+        int[] actual = new int[numCiudades];
+        int[] mejorReinicio = new int[numCiudades];
+        int[] mejorGlobal = new int[numCiudades];
+        long longitudGlobal = Long.MAX_VALUE;
+        long patadas = 0;
+        long aceptadas = 0;
+
+        for (int r = 0; r < numReinicios && (r == 0 || !detener(limite, cancelacion))
+                && longitudGlobal > longitudObjetivo; r++) { // Al menos un recorrido
+            vecinoMasCercano(random.nextInt(numCiudades), actual);
+            busqueda.mejorar(actual, 0);
+            long longitud = busqueda.longitud();
+            busqueda.copiarRecorrido(mejorReinicio, 0);
+            if (longitud < longitudGlobal) {
+                longitudGlobal = longitud;
+                System.arraycopy(mejorReinicio, 0, mejorGlobal, 0, numCiudades);
+                publicar(oyenteMejora, mejorGlobal, longitudGlobal, inicio);
+            }
+
+            for (int k = 0; k < numPatadas; k++) {
+                if (((k & 0xF) == 0 && detener(limite, cancelacion)) || longitudGlobal <= longitudObjetivo) {
+                    break;
+                }
+                long delta = busqueda.doblePuente(random, VENTANA_PATADA);
+                delta += busqueda.optimizar();
+                patadas++;
+                if (delta < 0) {
+                    longitud += delta;
+                    busqueda.copiarRecorrido(mejorReinicio, 0);
+                    aceptadas++;
+                    if (longitud < longitudGlobal) {
+                        longitudGlobal = longitud;
+                        System.arraycopy(mejorReinicio, 0, mejorGlobal, 0, numCiudades);
+                        publicar(oyenteMejora, mejorGlobal, longitudGlobal, inicio);
+                    }
+                } else if (delta > 0) {
+                    busqueda.cargar(mejorReinicio, 0); // Deshacer la patada
+                }
+            }
+        }
+
+        // Contadores: patadas aceptadas como asignaciones y patadas evaluadas como comparaciones
+        return new ResultadoSolucion(decodificar(mejorGlobal), longitudGlobal,
+                System.nanoTime() - inicio, aceptadas, patadas);
+    }
+
+    /**
+     * Indica si hay que terminar por límite de tiempo o por cancelación.
+     *
+     * @param limite      instante límite de System.nanoTime()
+     * @param cancelacion token de cancelación, o null
+     * @return true si hay que terminar
+     */
+    private static boolean detener(long limite, Cancelacion cancelacion) {
+        return System.nanoTime() > limite || (cancelacion != null && cancelacion.isCancelada());
+    }
+
+    /**
+     * Publica una nueva mejor ruta global.
+     *
+     * @param oyenteMejora oyente de mejoras, o null
+     * @param recorrido    mejor recorrido global
+     * @param longitud     longitud del recorrido
+     * @param inicio       instante de inicio de la ejecución
+     */
+    private void publicar(OyenteMejora oyenteMejora, int[] recorrido, long longitud, long inicio) {
+        if (oyenteMejora != null) {
+            oyenteMejora.alMejorar(new ResultadoSolucion(decodificar(recorrido), longitud,
+                    System.nanoTime() - inicio, 0, 0));
+        }
+    }
+
+    /**
+     * Construye un recorrido de vecino más cercano usando primero la lista de candidatos y, cuando
+     * están todos visitados, el índice espacial o la fila completa de la matriz.
+     *
+     * @param ciudadInicial ciudad desde la que se empieza
+     * @param recorrido     arreglo donde se escribe el recorrido
+     */
+    private void vecinoMasCercano(int ciudadInicial, int[] recorrido) {
+        boolean[] visitado = new boolean[numCiudades];
+        int actual = ciudadInicial;
+        visitado[actual] = true;
+        recorrido[0] = actual;
+        if (indice != null) {
+            indice.restaurar();
+            indice.eliminar(actual);
+        }
+        for (int paso = 1; paso < numCiudades; paso++) {
+            int siguiente = -1;
+            for (int c = 0; c < candidatos.getCantidad(actual) && siguiente < 0; c++) {
+                int vecino = candidatos.getVecino(actual, c);
+                if (!visitado[vecino]) {
+                    siguiente = vecino;
+                }
+            }
+            if (siguiente < 0 && indice != null) {
+                siguiente = indice.masCercanaNoEliminada(actual);
+            } else if (siguiente < 0) {
+                int distanciaMinima = Integer.MAX_VALUE;
+                for (int j = 0; j < numCiudades; j++) {
+                    if (!visitado[j] && (siguiente < 0 || matriz.getDistancia(actual, j) < distanciaMinima)) {
+                        distanciaMinima = matriz.getDistancia(actual, j);
+                        siguiente = j;
+                    }
+                }
+            }
+            visitado[siguiente] = true;
+            if (indice != null) {
+                indice.eliminar(siguiente);
+            }
+            recorrido[paso] = siguiente;
+            actual = siguiente;
+        }
+    }
+
+    /**
+     * Convierte el recorrido en la ruta cerrada con nombres, empezando en la ciudad 0.
+     *
+     * @param recorrido identificadores en orden de visita
+     * @return ruta cerrada
+     */
+    private List<String> decodificar(int[] recorrido) {
+        int desplazamiento = 0;
+        while (recorrido[desplazamiento] != 0) {
+            desplazamiento++;
+        }
+        List<String> ruta = new ArrayList<>(numCiudades + 1);
+        for (int i = 0; i <= numCiudades; i++) {
+            ruta.add(matriz.getNombre(recorrido[(desplazamiento + i) % numCiudades]));
+        }
+        return ruta;
+    }
+}
@@ -1,19 +1,52 @@
 package Problema_Viajante;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 /**
  * Estrategia voraz.
+ * Vecino más cercano sobre identificadores enteros: en cada paso recorre primero la lista de
+ * candidatos (k vecinos más cercanos precalculados) de la ciudad actual y solo si todos ya fueron
+ * visitados revisa la fila completa de la matriz. Las ciudades visitadas se marcan en un bitset.
+ * En instancias de coordenadas planas esa revisión se reemplaza por una consulta a un
+ * {@link IndiceEspacial} del que se van eliminando las ciudades visitadas, y en un
+ * {@link CierreMetrico} por un Dijkstra que se corta en la primera ciudad no visitada.
+ * <p>
+ * Con {@link #setMultiarranque(int, long)} el recorrido se construye desde varias ciudades iniciales
+ * (todas o una muestra), repartidas en el pool de {@link #setPool(ForkJoinPool)}, y se devuelve el
+ * más corto.
  */
-class EstrategiaVoraz {
-    private Grafo grafo;
+class EstrategiaVoraz implements SolucionadorTSP {
+    private static final int CANDIDATOS_POR_DEFECTO = 10;
+    private static final int BLOQUES_POR_HILO = 4; // bloques de ciudades iniciales para el robo de trabajo
+    private static final long SIN_CIUDADES = -1;
+    private static final long SIN_CIERRE = -2;
+    private static final long PODADO = -3;
+
+    private MatrizDistancias matriz;
+    private ListaCandidatos candidatos;
+    private IndiceEspacial indice; // Solo para coordenadas planas; null = revisar la fila completa
+    private BusquedaLocal busquedaLocal; // Post-proceso opcional del recorrido
+    private OyenteTraza oyente; // Traza opcional; null = sin E/S
+    private int ciudadInicial; // Inicio del recorrido y de la ruta devuelta
+    private int numInicios = 1; // 1 = un solo arranque; 0 = multiarranque desde todas las ciudades
+    private long semillaInicios;
+    private ForkJoinPool pool; // null = multiarranque en el hilo actual
+
+    // Mejor recorrido del multiarranque (protegido por el monitor de la estrategia)
+    private int[] mejorRecorrido;
+    private long mejorLongitud;
+    private int mejorInicio;
 
     // Variables de medición
     private long tiempoInicio, tiempoFin;
-    private int contadorAsignaciones, contadorComparaciones;
+    private long contadorAsignaciones, contadorComparaciones;
     private long memoriaUsadaInicial, memoriaUsadaFinal;
-
-    // Contador de memoria
-    private int memoriaConsumida;
+    private long bytesInicio, bytesAsignados; // Bytes reales asignados por el hilo (Metricas)
+    private long bytesOtrosHilos;              // asignados por los hilos del pool en el multiarranque
+    private Thread hiloMedicion;               // hilo que llamó a resolver; sus bytes se miden aparte
 
     /**
      * Constructor.
@@ -21,7 +54,43 @@ class EstrategiaVoraz {
      * @param grafo the grafo
      */
     public EstrategiaVoraz(Grafo grafo) {
-        this.grafo = grafo;
+        this(grafo, CANDIDATOS_POR_DEFECTO);
+    }
+
+    /**
+     * Constructor sobre una matriz de distancias.
+     *
+     * @param matriz matriz de distancias (por ejemplo un {@link GrafoBinario})
+     */
+    public EstrategiaVoraz(MatrizDistancias matriz) {
+        this(matriz, CANDIDATOS_POR_DEFECTO);
+    }
+
+    /**
+     * Constructor con tamaño de lista de candidatos.
+     *
+     * @param grafo         the grafo
+     * @param numCandidatos vecinos más cercanos precalculados por ciudad
+     */
+    public EstrategiaVoraz(Grafo grafo, int numCandidatos) {
+        this(grafo.compilar(), numCandidatos);
+        if (grafo.getCiudadInicial() != null) {
+            setCiudadInicial(Math.max(0, matriz.getIndice(grafo.getCiudadInicial())));
+        }
+    }
+
+    /**
+     * Constructor sobre una matriz de distancias.
+     *
+     * @param matriz        matriz de distancias (por ejemplo un {@link GrafoBinario})
+     * @param numCandidatos vecinos más cercanos precalculados por ciudad
+     */
+    public EstrategiaVoraz(MatrizDistancias matriz, int numCandidatos) {
+        this.matriz = matriz;
+        this.candidatos = new ListaCandidatos(matriz, numCandidatos);
+        if (IndiceEspacial.admite(matriz)) {
+            this.indice = new IndiceEspacial((GrafoCoordenadas) matriz);
+        }
     }
 
     /**
@@ -31,8 +100,10 @@ class EstrategiaVoraz {
         contadorAsignaciones = 0;
         contadorComparaciones = 0;
         memoriaUsadaInicial = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+        bytesInicio = Metricas.bytesAsignados();
+        bytesOtrosHilos = 0;
+        hiloMedicion = Thread.currentThread();
         tiempoInicio = System.nanoTime();
-        memoriaConsumida = 0;
     }
 
     /**
@@ -41,18 +112,7 @@ class EstrategiaVoraz {
     private void finalizarMedicion() {
         tiempoFin = System.nanoTime();
         memoriaUsadaFinal = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-    }
-
-    /**
-     * Calcular la memoria consumida en bits.
-     */
-    private void calcularMemoriaConsumida() {
-        memoriaConsumida += 64; // tiempoInicio (long)
-        memoriaConsumida += 64; // tiempoFin (long)
-        memoriaConsumida += 32; // contadorAsignaciones (int)
-        memoriaConsumida += 32; // contadorComparaciones (int)
-        memoriaConsumida += 64; // memoriaUsadaInicial (long)
-        memoriaConsumida += 64; // memoriaUsadaFinal (long)
+        bytesAsignados = Metricas.bytesAsignadosDesde(bytesInicio) + bytesOtrosHilos;
     }
 
     /**
@@ -67,126 +127,485 @@ class EstrategiaVoraz {
         System.out.printf("Memoria utilizada (MB): %.3f\n", memoriaMB);
         System.out.println("Asignaciones totales: " + contadorAsignaciones);
         System.out.println("Comparaciones totales: " + contadorComparaciones);
-        System.out.printf("Memoria consumida en bits (contando variables): %d bits\n", memoriaConsumida);
+        System.out.printf("Memoria asignada (bytes): %d\n", bytesAsignados);
+    }
+
+    /**
+     * Asigna un oyente para recibir la traza detallada del recorrido.
+     *
+     * @param oyente oyente de traza, o null para no emitir traza
+     */
+    public void setOyente(OyenteTraza oyente) {
+        this.oyente = oyente;
+    }
+
+    /**
+     * Activa una etapa de búsqueda local (2-opt / Or-opt) que mejora el recorrido voraz antes
+     * de devolverlo.
+     *
+     * @param busquedaLocal búsqueda local sobre el mismo grafo, o null para desactivarla
+     */
+    public void setBusquedaLocal(BusquedaLocal busquedaLocal) {
+        this.busquedaLocal = busquedaLocal;
+    }
+
+    /**
+     * Fija la ciudad desde la que se construye el recorrido (0 por defecto). La ruta devuelta
+     * empieza y termina en ella también en el multiarranque.
+     *
+     * @param ciudadInicial identificador de la ciudad en la matriz
+     */
+    public void setCiudadInicial(int ciudadInicial) {
+        this.ciudadInicial = ciudadInicial;
+    }
+
+    /**
+     * Activa el multiarranque: el recorrido voraz se construye desde varias ciudades iniciales y
+     * se devuelve el más corto.
+     *
+     * @param numInicios cantidad de ciudades iniciales; 0 (o más que las ciudades) para usar todas
+     *                   y 1 para volver al arranque único desde {@link #setCiudadInicial(int)}
+     * @param semilla    semilla para elegir la muestra de ciudades iniciales
+     */
+    public void setMultiarranque(int numInicios, long semilla) {
+        this.numInicios = Math.max(0, numInicios);
+        this.semillaInicios = semilla;
+    }
+
+    /**
+     * Asigna el pool que reparte las ciudades iniciales del multiarranque entre sus hilos. Sobre un
+     * {@link CierreMetrico} los arranques siempre se ejecutan en el hilo actual.
+     *
+     * @param pool pool de hilos, o null para ejecutar los arranques en el hilo actual
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Devuelve la lista de candidatos (k vecinos más cercanos) usada por la estrategia.
+     *
+     * @return lista de candidatos
+     */
+    public ListaCandidatos getCandidatos() {
+        return candidatos;
     }
 
     /**
      * Encontrar ruta voraz.
+     * Versión detallada: imprime cada paso del recorrido y la medición de recursos.
      *
      * @return la mejor ruta
      */
     public List<String> encontrarRutaVoraz() {
-        iniciarMedicion();
-        String ciudadInicial = grafo.getCiudades().get(0);
+        OyenteTraza anterior = oyente;
+        if (oyente == null) {
+            oyente = new OyenteConsola(matriz);
+        }
+        try {
+            ResultadoSolucion resultado = resolver();
+            imprimirResultadosMedicion();
+            return resultado.getRuta(); //Devolución de la mejor ruta encontrada.
+        } finally {
+            oyente = anterior;
+        }
+    }
 
-        memoriaConsumida += 64; // ciudadInicial (String - referencia)
+    @Override
+    public String getNombre() {
+        return numInicios == 1 ? "voraz" : "voraz-multi";
+    }
 
-        Set<String> visitado = new HashSet<>();
-        List<String> ruta = new ArrayList<>();
-        String ciudadActual = ciudadInicial;
-        int distanciaTotal = 0;
+    /**
+     * Resolver.
+     * Construye la ruta voraz sin imprimir nada (salvo que haya un oyente asignado) y devuelve
+     * un resultado estructurado con la ruta, su longitud, el tiempo y los contadores.
+     *
+     * @return resultado de la ejecución; sin ruta si no se pudo completar el ciclo
+     */
+    @Override
+    public ResultadoSolucion resolver() {
+        if (numInicios != 1) {
+            return resolverMultiarranque(null, null);
+        }
+        iniciarMedicion();
+        Arranque arranque = new Arranque(matriz.getNumCiudades(), indice);
+        long distanciaTotal = construir(ciudadInicial, arranque, null, oyente);
+        contadorAsignaciones += arranque.asignaciones;
+        contadorComparaciones += arranque.comparaciones;
+        if (distanciaTotal == SIN_CIUDADES) {
+            return fallar("No se puede completar la ruta - no hay ciudades disponibles.");
+        }
+        if (distanciaTotal == SIN_CIERRE) {
+            return fallar("No se puede cerrar el ciclo con la ciudad inicial.");
+        }
+        return terminar(arranque.recorrido, distanciaTotal);
+    }
 
-        memoriaConsumida += 64; // visitado (Set - referencia)
-        memoriaConsumida += 64; // ruta (List - referencia)
-        memoriaConsumida += 64; // ciudadActual (String - referencia)
-        memoriaConsumida += 32; // distanciaTotal (int)
+    /**
+     * Resolver en cualquier momento.
+     * En el multiarranque el token se consulta entre una ciudad inicial y la siguiente y cada mejora
+     * se publica en cuanto aparece; con un solo arranque se comporta como {@link #resolver()}.
+     *
+     * @param cancelacion  token de cancelación o plazo
+     * @param oyenteMejora oyente de mejoras, o null para no publicar
+     * @return mejor ruta encontrada hasta la cancelación
+     */
+    @Override
+    public ResultadoSolucion resolver(Cancelacion cancelacion, OyenteMejora oyenteMejora) {
+        if (numInicios == 1) {
+            return SolucionadorTSP.super.resolver(cancelacion, oyenteMejora);
+        }
+        return resolverMultiarranque(cancelacion, oyenteMejora);
+    }
 
-        visitado.add(ciudadInicial);
-        ruta.add(ciudadInicial);
-        contadorAsignaciones++; //asignacion de ciudadInicial
+    /**
+     * Multiarranque: construye el recorrido voraz desde cada ciudad inicial elegida y se queda con el
+     * más corto. Las ciudades iniciales se reparten en bloques que los hilos del pool se roban entre
+     * sí; cada bloque tiene su bitset, su recorrido y su índice espacial, y la matriz y la lista de
+     * candidatos se comparten de solo lectura. La longitud del mejor recorrido es una cota atómica
+     * común: una construcción se abandona en cuanto su camino parcial la supera.
+     *
+     * @param cancelacion  token de cancelación, o null para probar todas las ciudades iniciales
+     * @param oyenteMejora oyente de mejoras, o null para no publicar
+     * @return resultado con el mejor recorrido; sin ruta si ningún arranque cerró el ciclo
+     */
+    private ResultadoSolucion resolverMultiarranque(Cancelacion cancelacion, OyenteMejora oyenteMejora) {
+        iniciarMedicion();
+        int numCiudades = matriz.getNumCiudades();
+        int[] inicios = elegirInicios(numCiudades);
+        AtomicLong cota = new AtomicLong(Long.MAX_VALUE);
+        mejorRecorrido = null;
+        mejorLongitud = Long.MAX_VALUE;
+        mejorInicio = Integer.MAX_VALUE;
+
+        // El cierre métrico protege sus filas con un único candado: los hilos se serializarían en él
+        int bloques = pool == null || matriz instanceof CierreMetrico ? 1
+                : Math.min(inicios.length, pool.getParallelism() * BLOQUES_POR_HILO);
+        IntConsumer bloque = b -> {
+            boolean otroHilo = Thread.currentThread() != hiloMedicion;
+            long bytesBloque = otroHilo ? Metricas.bytesAsignados() : 0;
+            IndiceEspacial indiceBloque = bloques == 1 || indice == null ? indice
+                    : new IndiceEspacial((GrafoCoordenadas) matriz);
+            Arranque arranque = new Arranque(numCiudades, indiceBloque);
+            int desde = (int) ((long) inicios.length * b / bloques);
+            int hasta = (int) ((long) inicios.length * (b + 1) / bloques);
+            for (int i = desde; i < hasta && (cancelacion == null || !cancelacion.isCancelada()); i++) {
+                long longitud = construir(inicios[i], arranque, cota, null);
+                if (longitud >= 0) {
+                    proponer(arranque.recorrido, longitud, inicios[i], cota, oyenteMejora);
+                }
+            }
+            sumarContadores(arranque, otroHilo ? Metricas.bytesAsignadosDesde(bytesBloque) : 0);
+        };
+        if (bloques == 1) {
+            bloque.accept(0);
+        } else {
+            pool.submit(() -> IntStream.range(0, bloques).parallel().forEach(bloque)).join();
+        }
 
-        System.out.println("\nIniciando recorrido desde: " + ciudadInicial);
+        if (mejorRecorrido == null) {
+            return fallar("No se puede cerrar el ciclo desde ninguna ciudad inicial.");
+        }
+        return terminar(mejorRecorrido, mejorLongitud);
+    }
 
-        while (visitado.size() < grafo.getCiudades().size()) {
-            String ciudadMasCercana = null;
-            int distanciaMinima = Integer.MAX_VALUE;
+    /**
+     * Elige las ciudades iniciales del multiarranque: todas, o una muestra sin repetidos tomada con
+     * la semilla de {@link #setMultiarranque(int, long)}.
+     *
+     * @param numCiudades cantidad de ciudades
+     * @return ciudades iniciales
+     */
+    private int[] elegirInicios(int numCiudades) {
+        int[] inicios = new int[numCiudades];
+        for (int i = 0; i < numCiudades; i++) {
+            inicios[i] = i;
+        }
+        if (numInicios <= 0 || numInicios >= numCiudades) {
+            return inicios;
+        }
+        SplittableRandom random = new SplittableRandom(semillaInicios);
+        for (int i = 0; i < numInicios; i++) {
+            int j = i + random.nextInt(numCiudades - i);
+            int tmp = inicios[i];
+            inicios[i] = inicios[j];
+            inicios[j] = tmp;
+        }
+        return Arrays.copyOf(inicios, numInicios);
+    }
 
-            memoriaConsumida += 64; // ciudadMasCercana (String - referencia)
-            memoriaConsumida += 32; // distanciaMinima (int)
+    /**
+     * Guarda un recorrido si es el mejor hasta ahora y baja la cota común. Los empates se resuelven
+     * por la ciudad inicial menor, así el resultado no depende del orden de los hilos.
+     *
+     * @param recorrido    recorrido completo
+     * @param longitud     longitud del recorrido
+     * @param inicio       ciudad inicial con la que se construyó
+     * @param cota         cota común del multiarranque
+     * @param oyenteMejora oyente de mejoras, o null
+     */
+    private synchronized void proponer(int[] recorrido, long longitud, int inicio, AtomicLong cota,
+                                       OyenteMejora oyenteMejora) {
+        if (longitud < mejorLongitud || (longitud == mejorLongitud && inicio < mejorInicio)) {
+            mejorRecorrido = recorrido.clone();
+            mejorLongitud = longitud;
+            mejorInicio = inicio;
+            cota.set(longitud);
+            if (oyenteMejora != null) {
+                oyenteMejora.alMejorar(new ResultadoSolucion(decodificar(recorrido, ciudadInicial), longitud,
+                        System.nanoTime() - tiempoInicio, 0, 0));
+            }
+        }
+    }
 
-            System.out.println("\nDesde " + ciudadActual + ", alternativas disponibles:");
+    /**
+     * Suma los contadores de un bloque del multiarranque a los de la ejecución.
+     *
+     * @param arranque arreglos de trabajo y contadores del bloque
+     * @param bytes    bytes que asignó el bloque en un hilo del pool (0 si corrió en el hilo que mide)
+     */
+    private synchronized void sumarContadores(Arranque arranque, long bytes) {
+        contadorAsignaciones += arranque.asignaciones;
+        contadorComparaciones += arranque.comparaciones;
+        bytesOtrosHilos += bytes;
+    }
 
-            // Lista para almacenar todas las alternativas y ordenarlas
-            List<Map.Entry<String, Integer>> alternativas = new ArrayList<>();
+    /**
+     * Aplica la búsqueda local opcional, termina la medición y construye el resultado.
+     *
+     * @param recorrido      recorrido completo
+     * @param distanciaTotal longitud del recorrido
+     * @return resultado con la ruta cerrada en la ciudad inicial
+     */
+    private ResultadoSolucion terminar(int[] recorrido, long distanciaTotal) {
+        if (busquedaLocal != null) {
+            distanciaTotal += busquedaLocal.mejorar(recorrido, 0);
+        }
 
-            for (Map.Entry<String, Integer> adyacente : grafo.getAdyacentes(ciudadActual)) {
-                String ciudadDestino = adyacente.getKey();
-                int distancia = adyacente.getValue();
+        finalizarMedicion();
 
-                if (!visitado.contains(ciudadDestino)) {
-                    alternativas.add(adyacente);
-                }
+        ResultadoSolucion resultado = new ResultadoSolucion(decodificar(recorrido, ciudadInicial), distanciaTotal,
+                tiempoFin - tiempoInicio, contadorAsignaciones, contadorComparaciones);
+        if (oyente != null) {
+            oyente.alFinalizar(resultado);
+        }
+        return resultado;
+    }
 
-                contadorComparaciones++;
-                memoriaConsumida += 64; // ciudadDestino (String - referencia)
-                memoriaConsumida += 32; // distancia (int)
-            }
+    /**
+     * Construye el recorrido de vecino más cercano desde una ciudad.
+     *
+     * @param inicio   ciudad inicial
+     * @param arranque arreglos de trabajo y contadores del hilo
+     * @param cota     cota común del multiarranque, o null para no podar
+     * @param traza    oyente de traza, o null
+     * @return longitud del recorrido, o {@link #SIN_CIUDADES}, {@link #SIN_CIERRE} o {@link #PODADO}
+     */
+    private long construir(int inicio, Arranque arranque, AtomicLong cota, OyenteTraza traza) {
+        int numCiudades = matriz.getNumCiudades();
+        long[] visitado = arranque.visitado;
+        int[] recorrido = arranque.recorrido;
+        Arrays.fill(visitado, 0);
+        int ciudadActual = inicio;
+        long distanciaTotal = 0;
+
+        if (arranque.indice != null) {
+            arranque.indice.restaurar();
+            arranque.indice.eliminar(inicio);
+        }
+        marcar(visitado, inicio);
+        recorrido[0] = inicio;
+        arranque.asignaciones++; //asignacion de ciudadInicial
 
-            // Ordenar alternativas por distancia
-            alternativas.sort(Map.Entry.comparingByValue());
+        if (traza != null) {
+            traza.alIniciarRecorrido(matriz.getNombre(inicio));
+        }
 
-            // Mostrar todas las alternativas ordenadas
-            for (Map.Entry<String, Integer> alt : alternativas) {
-                String estado = visitado.contains(alt.getKey()) ? "(ya visitada)" : "";
-                System.out.printf("  → %s: %d km %s\n", alt.getKey(), alt.getValue(), estado);
+        for (int paso = 1; paso < numCiudades; paso++) {
+            int ciudadMasCercana = -1;
 
-                if (!visitado.contains(alt.getKey()) && alt.getValue() < distanciaMinima) {
-                    distanciaMinima = alt.getValue();
-                    ciudadMasCercana = alt.getKey();
-                    contadorAsignaciones++;
+            // Los candidatos están ordenados: el primero no visitado es el más cercano
+            for (int c = 0; c < candidatos.getCantidad(ciudadActual); c++) {
+                int vecino = candidatos.getVecino(ciudadActual, c);
+                arranque.comparaciones++;
+                if (!visitada(visitado, vecino)) {
+                    ciudadMasCercana = vecino;
+                    break;
+                }
+            }
+            if (ciudadMasCercana < 0) {
+                if (arranque.indice != null) {
+                    ciudadMasCercana = arranque.indice.masCercanaNoEliminada(ciudadActual);
+                } else if (matriz instanceof CierreMetrico) {
+                    ciudadMasCercana = ((CierreMetrico) matriz).masCercanaNoVisitada(ciudadActual, visitado);
+                } else {
+                    ciudadMasCercana = masCercanaNoVisitada(ciudadActual, visitado, arranque);
                 }
             }
 
-            if (ciudadMasCercana == null) {
-                System.out.println("\nNo se puede completar la ruta - no hay ciudades disponibles.");
-                return null;
+            if (traza != null) {
+                traza.alEvaluarAlternativas(matriz.getNombre(ciudadActual), alternativasOrdenadas(ciudadActual, visitado));
             }
 
-            System.out.println("Seleccionada: " + ciudadMasCercana + " (distancia: " + distanciaMinima + " km)");
+            if (ciudadMasCercana < 0) {
+                return SIN_CIUDADES;
+            }
+
+            int distanciaMinima = matriz.getDistancia(ciudadActual, ciudadMasCercana);
+            if (traza != null) {
+                traza.alSeleccionarCiudad(matriz.getNombre(ciudadMasCercana), distanciaMinima);
+            }
 
-            ruta.add(ciudadMasCercana);
-            visitado.add(ciudadMasCercana);
+            recorrido[paso] = ciudadMasCercana;
+            marcar(visitado, ciudadMasCercana);
+            if (arranque.indice != null) {
+                arranque.indice.eliminar(ciudadMasCercana);
+            }
             distanciaTotal += distanciaMinima;
+            if (cota != null && distanciaTotal > cota.get()) {
+                return PODADO;
+            }
 
             ciudadActual = ciudadMasCercana;
-            contadorAsignaciones++;
+            arranque.asignaciones++;
         }
 
-        System.out.println("\nBuscando retorno a " + ciudadInicial + ":");
-        boolean puedeCerrarCiclo = false;
-
-        for (Map.Entry<String, Integer> adyacente : grafo.getAdyacentes(ciudadActual)) {
-            String ciudadDestino = adyacente.getKey();
-            int distancia = adyacente.getValue();
+        int distanciaCierre = matriz.getDistancia(ciudadActual, inicio);
+        arranque.comparaciones++;
+        if (distanciaCierre == Integer.MAX_VALUE) {
+            return SIN_CIERRE;
+        }
+        distanciaTotal += distanciaCierre;
+        if (traza != null) {
+            traza.alCerrarCiclo(matriz.getNombre(ciudadActual), matriz.getNombre(inicio), distanciaCierre);
+        }
+        return distanciaTotal;
+    }
 
-            if (ciudadDestino.equals(ciudadInicial)) {
-                System.out.printf("  → %s: %d km\n", ciudadDestino, distancia);
-                distanciaTotal += distancia;
-                ruta.add(ciudadInicial);
-                System.out.println("Cerrando ciclo: " + ciudadActual + " → " + ciudadInicial + " (distancia: " + distancia + " km)");
-                puedeCerrarCiclo = true;
-                break;
+    /**
+     * Busca en toda la fila de la matriz la ciudad no visitada más cercana.
+     * Solo se usa cuando todos los candidatos de la ciudad actual ya fueron visitados.
+     *
+     * @param ciudadActual ciudad actual
+     * @param visitado     bitset de ciudades visitadas
+     * @param arranque     contadores del hilo
+     * @return ciudad más cercana o -1 si no queda ninguna alcanzable
+     */
+    private int masCercanaNoVisitada(int ciudadActual, long[] visitado, Arranque arranque) {
+        int masCercana = -1;
+        int distanciaMinima = Integer.MAX_VALUE;
+        for (int j = 0; j < matriz.getNumCiudades(); j++) {
+            arranque.comparaciones++;
+            if (visitada(visitado, j)) {
+                continue;
+            }
+            int distancia = matriz.getDistancia(ciudadActual, j);
+            if (distancia < distanciaMinima) {
+                distanciaMinima = distancia;
+                masCercana = j;
+                arranque.asignaciones++;
             }
         }
+        return masCercana;
+    }
+
+    /**
+     * Consulta si una ciudad está marcada en el bitset de visitadas.
+     *
+     * @param visitado bitset de ciudades visitadas
+     * @param ciudad   identificador de la ciudad
+     * @return true si ya fue visitada
+     */
+    private static boolean visitada(long[] visitado, int ciudad) {
+        return (visitado[ciudad >>> 6] & (1L << ciudad)) != 0;
+    }
+
+    /**
+     * Marca una ciudad como visitada.
+     *
+     * @param visitado bitset de ciudades visitadas
+     * @param ciudad   identificador de la ciudad
+     */
+    private static void marcar(long[] visitado, int ciudad) {
+        visitado[ciudad >>> 6] |= 1L << ciudad;
+    }
 
-        if (!puedeCerrarCiclo) {
-            System.out.println("No se puede cerrar el ciclo con la ciudad inicial.");
-            return null;
+    /**
+     * Convierte un recorrido de identificadores en la ruta cerrada con los nombres de las ciudades.
+     *
+     * @param recorrido     identificadores en orden de visita
+     * @param ciudadInicial ciudad con la que empieza y termina la ruta
+     * @return ruta que empieza y termina en la ciudad inicial
+     */
+    private List<String> decodificar(int[] recorrido, int ciudadInicial) {
+        int desplazamiento = 0;
+        while (recorrido[desplazamiento] != ciudadInicial) {
+            desplazamiento++;
+        }
+        List<String> ruta = new ArrayList<>(recorrido.length + 1);
+        for (int i = 0; i <= recorrido.length; i++) {
+            ruta.add(matriz.getNombre(recorrido[(desplazamiento + i) % recorrido.length]));
         }
+        return ruta;
+    }
 
-        System.out.println("\nRuta completa encontrada:");
-        for (int i = 0; i < ruta.size() - 1; i++) {
-            String origen = ruta.get(i);
-            String destino = ruta.get(i + 1);
-            int distancia = grafo.getDistancia(origen, destino);
-            System.out.printf("%s → %s: %d km\n", origen, destino, distancia);
+    /**
+     * Lista las alternativas no visitadas desde una ciudad ordenadas por distancia.
+     * Solo se construye cuando hay un oyente de traza.
+     *
+     * @param ciudadActual ciudad actual
+     * @param visitado     bitset de ciudades visitadas
+     * @return alternativas ordenadas de menor a mayor distancia
+     */
+    private List<Map.Entry<String, Integer>> alternativasOrdenadas(int ciudadActual, long[] visitado) {
+        List<Map.Entry<String, Integer>> alternativas = new ArrayList<>();
+        for (int j = 0; j < matriz.getNumCiudades(); j++) {
+            int distancia = matriz.getDistancia(ciudadActual, j);
+            if (!visitada(visitado, j) && distancia != Integer.MAX_VALUE) {
+                alternativas.add(new AbstractMap.SimpleEntry<>(matriz.getNombre(j), distancia));
+            }
         }
-        System.out.println("Distancia total recorrida: " + distanciaTotal + " km");
+        alternativas.sort(Map.Entry.comparingByValue());
+        return alternativas;
+    }
 
+    /**
+     * Termina la medición y construye un resultado sin ruta.
+     *
+     * @param motivo descripción del problema, para el oyente de traza
+     * @return resultado sin ruta
+     */
+    private ResultadoSolucion fallar(String motivo) {
         finalizarMedicion();
-        calcularMemoriaConsumida();
-        imprimirResultadosMedicion();
+        if (oyente != null) {
+            oyente.alFallar(motivo);
+        }
+        return new ResultadoSolucion(null, -1, tiempoFin - tiempoInicio, contadorAsignaciones, contadorComparaciones);
+    }
 
-        return ruta; //Devolución de la mejor ruta encontrada.
+    /**
+     * Arranque.
+     * Arreglos de trabajo y contadores de una construcción. En el multiarranque cada bloque de
+     * ciudades iniciales tiene el suyo, así que no se comparten entre hilos.
+     */
+    private static final class Arranque {
+        private final long[] visitado;
+        private final int[] recorrido;
+        private final IndiceEspacial indice; // null = revisar la fila completa
+        private long asignaciones;
+        private long comparaciones;
+
+        /**
+         * Constructor Arranque.
+         *
+         * @param numCiudades cantidad de ciudades
+         * @param indice      índice espacial exclusivo del arranque, o null
+         */
+        private Arranque(int numCiudades, IndiceEspacial indice) {
+            this.visitado = new long[(numCiudades + 63) >>> 6];
+            this.recorrido = new int[numCiudades];
+            this.indice = indice;
+        }
     }
-}
\ No newline at end of file
+}
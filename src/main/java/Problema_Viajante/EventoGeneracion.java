@@ -0,0 +1,59 @@
+package Problema_Viajante;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento generacion.
+ * Evento de JDK Flight Recorder que emite {@link EstrategiaGenetica} al terminar cada generación
+ * cuando {@link Metricas#ACTIVAS} es true. Se graba con
+ * {@code -XX:StartFlightRecording} y se ve junto a los eventos de GC y de hilos de la JVM.
+ */
+@Name("Problema_Viajante.Generacion")
+@Label("Generación")
+@Category({"Problema Viajante", "Genético"})
+@Description("Estadísticas y tiempos por fase de una generación del algoritmo genético")
+final class EventoGeneracion extends Event {
+    @Label("Generación")
+    int generacion;
+
+    @Label("Mejor fitness")
+    long mejor;
+
+    @Label("Fitness promedio")
+    double promedio;
+
+    @Label("Diversidad")
+    double diversidad;
+
+    @Label("Selección")
+    @Timespan(Timespan.NANOSECONDS)
+    long seleccion;
+
+    @Label("Cruce")
+    @Timespan(Timespan.NANOSECONDS)
+    long cruce;
+
+    @Label("Evaluación")
+    @Timespan(Timespan.NANOSECONDS)
+    long evaluacion;
+
+    @Label("Mutación")
+    @Timespan(Timespan.NANOSECONDS)
+    long mutacion;
+
+    @Label("Búsqueda local")
+    @Timespan(Timespan.NANOSECONDS)
+    long busquedaLocal;
+
+    @Label("Supervivencia")
+    @Timespan(Timespan.NANOSECONDS)
+    long supervivencia;
+
+    @Label("Bytes asignados")
+    long bytesAsignados;
+}
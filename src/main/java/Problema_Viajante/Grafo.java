@@ -5,6 +5,8 @@ import java.util.*;
 public class Grafo {
     private Map<String, List<Map.Entry<String, Integer>>> adjList;
     private String ciudadInicial; // Añadir atributo para la ciudad inicial
+    private volatile GrafoCompilado compilado; // Forma compilada, se invalida al modificar el grafo
+    private volatile GrafoAdyacencia adyacencia; // Forma CSR, se invalida al modificar el grafo
 
     // Constructor
     public Grafo() {
@@ -25,6 +27,8 @@ public class Grafo {
      * @param ciudad nombre de la ciudad
      */
     public void agregarCiudad(String ciudad) {
+        compilado = null;
+        adyacencia = null;
         adjList.putIfAbsent(ciudad, new LinkedList<>());
     }
 
@@ -37,6 +41,8 @@ public class Grafo {
      * @param distancia distancia entre origen y destino
      */
     public void agregarArco(String origen, String destino, int distancia) {
+        compilado = null;
+        adyacencia = null;
         adjList.putIfAbsent(origen, new LinkedList<>());
         adjList.putIfAbsent(destino, new LinkedList<>());
         adjList.get(origen).add(new AbstractMap.SimpleEntry<>(destino, distancia));
@@ -60,47 +66,77 @@ public class Grafo {
      * @return distancia entre las ciudades o Integer.MAX_VALUE si no hay conexión directa
      */
     public int getDistancia(String origen, String destino) {
-        List<Map.Entry<String, Integer>> adyacentes = adjList.get(origen);
-        if (adyacentes != null) {
-            for (Map.Entry<String, Integer> arco : adyacentes) {
-                if (arco.getKey().equals(destino)) {
-                    return arco.getValue();
+        GrafoCompilado matriz = compilar();
+        int i = matriz.getIndice(origen);
+        int j = matriz.getIndice(destino);
+        if (i < 0 || j < 0) {
+            return Integer.MAX_VALUE; // Retorna un valor alto si no hay conexión directa
+        }
+        return matriz.getDistancia(i, j);
+    }
+
+    /**
+     * Compilar.
+     * Devuelve la forma compilada e inmutable del grafo (identificadores enteros densos y
+     * matriz de distancias plana). Se construye una sola vez y se reutiliza hasta que el
+     * grafo vuelva a modificarse. Varios hilos pueden pedirla a la vez: solo uno la construye.
+     *
+     * @return grafo compilado
+     */
+    public GrafoCompilado compilar() {
+        GrafoCompilado matriz = compilado;
+        if (matriz == null) {
+            synchronized (this) {
+                matriz = compilado;
+                if (matriz == null) {
+                    matriz = new GrafoCompilado(this);
+                    compilado = matriz;
                 }
             }
         }
-        return Integer.MAX_VALUE; // Retorna un valor alto si no hay conexión directa
+        return matriz;
     }
 
     /**
-     * Es conexo boolean.
-     * Determina si el grafo es conexo.
+     * Adyacencia.
+     * Devuelve las listas de adyacencia en formato CSR con identificadores enteros, O(n + m).
+     * Se construye una sola vez y se reutiliza hasta que el grafo vuelva a modificarse. Varios hilos
+     * pueden pedirla a la vez: solo uno la construye.
      *
-     * @return true si el grafo es conexo, false en caso contrario
+     * @return grafo en formato CSR
      */
-    public boolean esConexo() {
-        if (adjList.isEmpty()) return true;
-
-        Set<String> visitado = new HashSet<>();
-        String ciudadInicial = adjList.keySet().iterator().next();
-        dfs(ciudadInicial, visitado);
+    public GrafoAdyacencia adyacencia() {
+        GrafoAdyacencia csr = adyacencia;
+        if (csr == null) {
+            synchronized (this) {
+                csr = adyacencia;
+                if (csr == null) {
+                    csr = new GrafoAdyacencia(this);
+                    adyacencia = csr;
+                }
+            }
+        }
+        return csr;
+    }
 
-        return visitado.size() == adjList.size();
+    /**
+     * Analizar.
+     * Devuelve un análisis estructural del grafo (componentes, grados, desigualdad triangular).
+     *
+     * @return análisis sobre la forma CSR actual
+     */
+    public AnalisisGrafo analizar() {
+        return new AnalisisGrafo(adyacencia());
     }
 
     /**
-     * dfs.
-     * Método de búsqueda en profundidad para encontrar nodos adyacentes.
+     * Es conexo boolean.
+     * Determina si el grafo es conexo con un BFS iterativo sobre la forma CSR.
      *
-     * @param ciudad   ciudad de origen
-     * @param visitado ciudades ya visitadas
+     * @return true si el grafo es conexo, false en caso contrario
      */
-    private void dfs(String ciudad, Set<String> visitado) {
-        visitado.add(ciudad);
-        for (Map.Entry<String, Integer> adyacente : adjList.get(ciudad)) {
-            if (!visitado.contains(adyacente.getKey())) {
-                dfs(adyacente.getKey(), visitado);
-            }
-        }
+    public boolean esConexo() {
+        return analizar().esConexo();
     }
 
     public void seleccionarCiudadInicialAleatoria() {
@@ -110,9 +146,9 @@ public class Grafo {
     }
 
     // Método para obtener la ciudad inicial
-    //public String getCiudadInicial() {
-    //    return ciudadInicial;
-    // }
+    public String getCiudadInicial() {
+        return ciudadInicial;
+    }
 
 
     public void setCiudadInicial(String ciudadInicial) {
@@ -0,0 +1,128 @@
+package Problema_Viajante;
+
+import java.util.*;
+
+/**
+ * Grafo adyacencia.
+ * Listas de adyacencia de un {@link Grafo} en formato CSR (compressed sparse row): los vecinos de
+ * la ciudad i son {@code destinos[inicio[i]..inicio[i+1])} con sus pesos en el mismo rango de
+ * {@code pesos}. Ocupa O(n + m) aunque el grafo sea grande y disperso, a diferencia de la matriz
+ * n * n de {@link GrafoCompilado}, y usa los mismos identificadores (orden de {@link Grafo#getCiudades()}).
+ */
+public final class GrafoAdyacencia {
+    private final String[] nombres;
+    private final int numCiudades;
+    private final int[] inicio;    // numCiudades + 1
+    private final int[] destinos;  // arcos en ambos sentidos, agrupados por origen
+    private final int[] pesos;
+
+    /**
+     * Constructor Grafo adyacencia. Si hay arcos repetidos entre dos ciudades se conserva el
+     * primero, igual que en {@link GrafoCompilado}.
+     *
+     * @param grafo grafo constructor con las listas de adyacencia
+     */
+    GrafoAdyacencia(Grafo grafo) {
+        List<String> ciudades = grafo.getCiudades();
+        this.numCiudades = ciudades.size();
+        this.nombres = ciudades.toArray(new String[0]);
+        Map<String, Integer> indices = new HashMap<>(numCiudades * 2);
+        for (int i = 0; i < numCiudades; i++) {
+            indices.put(nombres[i], i);
+        }
+
+        int total = 0;
+        for (int i = 0; i < numCiudades; i++) {
+            total += grafo.getAdyacentes(nombres[i]).size();
+        }
+        this.inicio = new int[numCiudades + 1];
+        int[] destinosTmp = new int[total];
+        int[] pesosTmp = new int[total];
+        int[] marca = new int[numCiudades]; // marca[j] == i + 1 si j ya es vecino de i
+        int k = 0;
+        for (int i = 0; i < numCiudades; i++) {
+            inicio[i] = k;
+            marca[i] = i + 1; // Sin lazos
+            for (Map.Entry<String, Integer> arco : grafo.getAdyacentes(nombres[i])) {
+                int j = indices.get(arco.getKey());
+                if (marca[j] != i + 1) {
+                    marca[j] = i + 1;
+                    destinosTmp[k] = j;
+                    pesosTmp[k] = arco.getValue();
+                    k++;
+                }
+            }
+        }
+        inicio[numCiudades] = k;
+        this.destinos = k == total ? destinosTmp : Arrays.copyOf(destinosTmp, k);
+        this.pesos = k == total ? pesosTmp : Arrays.copyOf(pesosTmp, k);
+    }
+
+    /**
+     * Devuelve la cantidad de ciudades.
+     *
+     * @return número de ciudades
+     */
+    public int getNumCiudades() {
+        return numCiudades;
+    }
+
+    /**
+     * Devuelve la cantidad de arcos (cada arco no dirigido se cuenta una vez).
+     *
+     * @return número de arcos
+     */
+    public int getNumArcos() {
+        return destinos.length / 2;
+    }
+
+    /**
+     * Devuelve el grado de una ciudad.
+     *
+     * @param ciudad identificador de la ciudad
+     * @return cantidad de vecinos distintos
+     */
+    public int getGrado(int ciudad) {
+        return inicio[ciudad + 1] - inicio[ciudad];
+    }
+
+    /**
+     * Posición del primer vecino de una ciudad en {@link #getDestino(int)} / {@link #getPeso(int)}.
+     *
+     * @param ciudad identificador de la ciudad
+     * @return posición inicial; los vecinos terminan en {@code getInicio(ciudad + 1)}
+     */
+    public int getInicio(int ciudad) {
+        return inicio[ciudad];
+    }
+
+    /**
+     * Devuelve el destino del arco en una posición.
+     *
+     * @param posicion posición del arco
+     * @return identificador de la ciudad vecina
+     */
+    public int getDestino(int posicion) {
+        return destinos[posicion];
+    }
+
+    /**
+     * Devuelve el peso del arco en una posición.
+     *
+     * @param posicion posición del arco
+     * @return distancia del arco
+     */
+    public int getPeso(int posicion) {
+        return pesos[posicion];
+    }
+
+    /**
+     * Obtiene el nombre de una ciudad a partir de su identificador.
+     *
+     * @param indice identificador de la ciudad
+     * @return nombre de la ciudad
+     */
+    public String getNombre(int indice) {
+        return nombres[indice];
+    }
+}
@@ -0,0 +1,202 @@
+package Problema_Viajante;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Grafo binario.
+ * Instancia abierta desde un archivo binario con {@link FileChannel#map}: las distancias se leen
+ * directamente de la página mapeada, sin copiarlas al heap ni construir listas de adyacencia, así
+ * que abrir un grafo de decenas de miles de ciudades es casi instantáneo. Solo la tabla de nombres
+ * se decodifica al abrir. Los archivos se crean con {@link EscritorGrafoBinario}.
+ * <p>
+ * Formato (little-endian):
+ * <pre>
+ *  0  int   MAGIA ("TSPB")
+ *  4  int   VERSION
+ *  8  int   formato ({@link Formato#ordinal()})
+ * 12  int   numCiudades
+ * 16  long  desplazamiento de los datos (múltiplo de 8)
+ * 24  nombres: por ciudad un short sin signo con la longitud y los bytes UTF-8
+ *     datos: matriz n * n por filas de char (0xFFFF = sin arista) o de int (Integer.MAX_VALUE = sin
+ *            arista), o bien n pares de double (x, y) con distancia euclídea redondeada
+ * </pre>
+ * Las matrices mayores a 1 GiB se mapean en varios segmentos de filas completas.
+ */
+public final class GrafoBinario implements MatrizDistancias {
+    static final int MAGIA = 0x42505354;      // "TSPB" en little-endian
+    static final int VERSION = 1;
+    static final int TAMANIO_CABECERA = 24;
+    static final char SIN_ARISTA_CORTA = 0xFFFF;
+    static final long MAX_SEGMENTO = 1L << 30;
+
+    /**
+     * Contenido de la sección de datos.
+     */
+    public enum Formato {
+        MATRIZ_CORTA,   // 2 bytes por celda, distancias de 0 a 65534
+        MATRIZ_ENTERA,  // 4 bytes por celda
+        COORDENADAS     // 16 bytes por ciudad
+    }
+
+    private final Formato formato;
+    private final int numCiudades;
+    private final String[] nombres;
+    private final Map<String, Integer> indices;
+    private final MappedByteBuffer[] segmentos;
+    private final int filasPorSegmento;
+
+    private GrafoBinario(Formato formato, String[] nombres, MappedByteBuffer[] segmentos, int filasPorSegmento) {
+        this.formato = formato;
+        this.numCiudades = nombres.length;
+        this.nombres = nombres;
+        this.indices = new HashMap<>(numCiudades * 2);
+        for (int i = 0; i < numCiudades; i++) {
+            indices.put(nombres[i], i);
+        }
+        this.segmentos = segmentos;
+        this.filasPorSegmento = filasPorSegmento;
+    }
+
+    /**
+     * Abre un archivo binario de grafo mapeándolo en memoria.
+     * El canal se cierra al terminar; el mapeo sigue siendo válido mientras el objeto exista.
+     *
+     * @param archivo ruta del archivo
+     * @return grafo de solo lectura respaldado por el archivo
+     * @throws IOException si no se puede leer, el formato no es válido o el archivo está truncado
+     */
+    public static GrafoBinario abrir(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamanioArchivo = canal.size();
+            if (tamanioArchivo < TAMANIO_CABECERA) {
+                throw new IOException("No es un archivo de grafo binario válido: " + archivo);
+            }
+            MappedByteBuffer cabecera = canal.map(FileChannel.MapMode.READ_ONLY, 0, TAMANIO_CABECERA);
+            cabecera.order(ByteOrder.LITTLE_ENDIAN);
+            if (cabecera.getInt(0) != MAGIA || cabecera.getInt(4) != VERSION) {
+                throw new IOException("No es un archivo de grafo binario válido: " + archivo);
+            }
+            int ordinal = cabecera.getInt(8);
+            if (ordinal < 0 || ordinal >= Formato.values().length) {
+                throw new IOException("Formato de datos desconocido (" + ordinal + "): " + archivo);
+            }
+            Formato formato = Formato.values()[ordinal];
+            int numCiudades = cabecera.getInt(12);
+            long desplazamientoDatos = cabecera.getLong(16);
+
+            // La cabecera tiene que describir un archivo que realmente contenga la tabla y los datos
+            long bytesPorFila = formato == Formato.COORDENADAS ? 16L : (long) numCiudades * bytesPorCelda(formato);
+            long filas = numCiudades; // Una fila de la matriz o un par de coordenadas por ciudad
+            long tamanioDatos;
+            try {
+                tamanioDatos = Math.multiplyExact(filas, bytesPorFila);
+            } catch (ArithmeticException e) {
+                tamanioDatos = Long.MAX_VALUE;
+            }
+            if (numCiudades < 0 || desplazamientoDatos < TAMANIO_CABECERA + 2L * numCiudades
+                    || desplazamientoDatos > tamanioArchivo || tamanioDatos > tamanioArchivo - desplazamientoDatos) {
+                throw new IOException("Archivo de grafo binario truncado o dañado (" + numCiudades + " ciudades, "
+                        + tamanioArchivo + " bytes): " + archivo);
+            }
+
+            MappedByteBuffer tabla = canal.map(FileChannel.MapMode.READ_ONLY, TAMANIO_CABECERA,
+                    desplazamientoDatos - TAMANIO_CABECERA);
+            tabla.order(ByteOrder.LITTLE_ENDIAN);
+            String[] nombres = new String[numCiudades];
+            byte[] bytes = new byte[256];
+            for (int i = 0; i < numCiudades; i++) {
+                int longitud = tabla.remaining() >= 2 ? Short.toUnsignedInt(tabla.getShort()) : -1;
+                if (longitud < 0 || longitud > tabla.remaining()) {
+                    throw new IOException("Tabla de nombres truncada en la ciudad " + i + ": " + archivo);
+                }
+                if (longitud > bytes.length) {
+                    bytes = new byte[longitud];
+                }
+                tabla.get(bytes, 0, longitud);
+                nombres[i] = new String(bytes, 0, longitud, StandardCharsets.UTF_8);
+            }
+
+            int filasPorSegmento = (int) Math.max(1, Math.min(filas, MAX_SEGMENTO / Math.max(1, bytesPorFila)));
+            int numSegmentos = filas == 0 ? 0 : (int) ((filas + filasPorSegmento - 1) / filasPorSegmento);
+            MappedByteBuffer[] segmentos = new MappedByteBuffer[numSegmentos];
+            for (int s = 0; s < numSegmentos; s++) {
+                long primera = (long) s * filasPorSegmento;
+                long cantidad = Math.min(filasPorSegmento, filas - primera);
+                segmentos[s] = canal.map(FileChannel.MapMode.READ_ONLY,
+                        desplazamientoDatos + primera * bytesPorFila, cantidad * bytesPorFila);
+                segmentos[s].order(ByteOrder.LITTLE_ENDIAN);
+            }
+            return new GrafoBinario(formato, nombres, segmentos, filasPorSegmento);
+        }
+    }
+
+    /**
+     * Bytes de cada celda de la matriz.
+     *
+     * @param formato formato de matriz
+     * @return 2 o 4
+     */
+    static int bytesPorCelda(Formato formato) {
+        return formato == Formato.MATRIZ_CORTA ? 2 : 4;
+    }
+
+    public Formato getFormato() {
+        return formato;
+    }
+
+    @Override
+    public int getNumCiudades() {
+        return numCiudades;
+    }
+
+    @Override
+    public int getDistancia(int origen, int destino) {
+        switch (formato) {
+            case MATRIZ_CORTA: {
+                char valor = segmentos[origen / filasPorSegmento]
+                        .getChar(((origen % filasPorSegmento) * numCiudades + destino) * 2);
+                return valor == SIN_ARISTA_CORTA ? Integer.MAX_VALUE : valor;
+            }
+            case MATRIZ_ENTERA:
+                return segmentos[origen / filasPorSegmento]
+                        .getInt(((origen % filasPorSegmento) * numCiudades + destino) * 4);
+            default: {
+                if (origen == destino) {
+                    return 0;
+                }
+                double dx = coordenada(origen, 0) - coordenada(destino, 0);
+                double dy = coordenada(origen, 8) - coordenada(destino, 8);
+                return (int) (Math.sqrt(dx * dx + dy * dy) + 0.5);
+            }
+        }
+    }
+
+    /**
+     * Lee una coordenada de una ciudad.
+     *
+     * @param ciudad identificador de la ciudad
+     * @param campo  0 para x, 8 para y
+     * @return valor de la coordenada
+     */
+    private double coordenada(int ciudad, int campo) {
+        return segmentos[ciudad / filasPorSegmento].getDouble((ciudad % filasPorSegmento) * 16 + campo);
+    }
+
+    @Override
+    public int getIndice(String ciudad) {
+        Integer indice = indices.get(ciudad);
+        return indice != null ? indice : -1;
+    }
+
+    @Override
+    public String getNombre(int indice) {
+        return nombres[indice];
+    }
+}
@@ -0,0 +1,133 @@
+package Problema_Viajante;
+
+import java.util.*;
+
+/**
+ * Grafo compilado.
+ * Forma inmutable de un {@link Grafo}: cada ciudad recibe un identificador entero denso
+ * (0..n-1) y las distancias se guardan en una matriz plana {@code int[]} por filas y simétrica,
+ * de modo que consultar una distancia cuesta O(1).
+ */
+public final class GrafoCompilado implements MatrizDistancias {
+    /**
+     * Máximo de ciudades cuya matriz n * n cabe en un arreglo {@code int[]}. Con este límite
+     * {@code origen * numCiudades + destino} tampoco desborda.
+     */
+    public static final int MAX_CIUDADES = 46340;
+
+    private final String[] nombres;
+    private final Map<String, Integer> indices;
+    private final int[] distancias; // n * n, por filas
+    private final int numCiudades;
+
+    /**
+     * Constructor Grafo compilado.
+     *
+     * @param grafo grafo constructor con las listas de adyacencia
+     */
+    GrafoCompilado(Grafo grafo) {
+        List<String> ciudades = grafo.getCiudades();
+        this.numCiudades = ciudades.size();
+        this.nombres = ciudades.toArray(new String[0]);
+        this.indices = new HashMap<>(numCiudades * 2);
+        for (int i = 0; i < numCiudades; i++) {
+            indices.put(nombres[i], i);
+        }
+
+        this.distancias = new int[tamanioMatriz(numCiudades)];
+        Arrays.fill(distancias, Integer.MAX_VALUE); // Sin conexión directa
+        for (int i = 0; i < numCiudades; i++) {
+            distancias[i * numCiudades + i] = 0;
+            for (Map.Entry<String, Integer> arco : grafo.getAdyacentes(nombres[i])) {
+                int j = indices.get(arco.getKey());
+                int distancia = arco.getValue();
+                // Si hay arcos repetidos se conserva el primero, igual que la búsqueda lineal original
+                if (distancias[i * numCiudades + j] == Integer.MAX_VALUE) {
+                    distancias[i * numCiudades + j] = distancia;
+                    distancias[j * numCiudades + i] = distancia;
+                }
+            }
+        }
+    }
+
+    /**
+     * Constructor Grafo compilado a partir de una matriz ya armada (por ejemplo una matriz
+     * explícita de TSPLIB).
+     *
+     * @param nombres    nombre de cada ciudad
+     * @param distancias matriz n * n por filas (Integer.MAX_VALUE = sin conexión directa)
+     */
+    GrafoCompilado(String[] nombres, int[] distancias) {
+        this.numCiudades = nombres.length;
+        if (distancias.length != tamanioMatriz(numCiudades)) {
+            throw new IllegalArgumentException("La matriz debe tener " + numCiudades + " * " + numCiudades + " celdas");
+        }
+        this.nombres = nombres;
+        this.indices = new HashMap<>(numCiudades * 2);
+        for (int i = 0; i < numCiudades; i++) {
+            indices.put(nombres[i], i);
+        }
+        this.distancias = distancias;
+    }
+
+    /**
+     * Calcula el tamaño de la matriz n * n comprobando que quepa en un arreglo.
+     *
+     * @param numCiudades número de ciudades
+     * @return cantidad de celdas de la matriz
+     * @throws IllegalArgumentException si hay más de {@link #MAX_CIUDADES} ciudades
+     */
+    static int tamanioMatriz(int numCiudades) {
+        long celdas = (long) numCiudades * numCiudades;
+        if (numCiudades > MAX_CIUDADES) {
+            throw new IllegalArgumentException("Una matriz en memoria admite como máximo " + MAX_CIUDADES
+                    + " ciudades (" + numCiudades + " requieren " + celdas + " celdas); use GrafoBinario");
+        }
+        return (int) celdas;
+    }
+
+    /**
+     * Devuelve la cantidad de ciudades del grafo.
+     *
+     * @return número de ciudades
+     */
+    @Override
+    public int getNumCiudades() {
+        return numCiudades;
+    }
+
+    /**
+     * Obtiene la distancia entre dos ciudades a partir de sus identificadores.
+     *
+     * @param origen  identificador de la ciudad de origen
+     * @param destino identificador de la ciudad de destino
+     * @return distancia entre las ciudades o Integer.MAX_VALUE si no hay conexión directa
+     */
+    @Override
+    public int getDistancia(int origen, int destino) {
+        return distancias[origen * numCiudades + destino];
+    }
+
+    /**
+     * Obtiene el identificador denso de una ciudad.
+     *
+     * @param ciudad nombre de la ciudad
+     * @return identificador de la ciudad o -1 si no pertenece al grafo
+     */
+    @Override
+    public int getIndice(String ciudad) {
+        Integer indice = indices.get(ciudad);
+        return indice != null ? indice : -1;
+    }
+
+    /**
+     * Obtiene el nombre de una ciudad a partir de su identificador.
+     *
+     * @param indice identificador de la ciudad
+     * @return nombre de la ciudad
+     */
+    @Override
+    public String getNombre(int indice) {
+        return nombres[indice];
+    }
+}
@@ -0,0 +1,132 @@
+package Problema_Viajante;
+
+/**
+ * Grafo coordenadas.
+ * Instancia definida solo por las coordenadas de sus ciudades: las distancias se calculan al
+ * consultarlas con la función de TSPLIB indicada, así que la memoria es O(n) aunque el grafo sea
+ * completo (por ejemplo pla85900). Las ciudades se llaman como sus números de nodo en TSPLIB
+ * ("1".."n"), por lo que tampoco hace falta guardar los nombres.
+ */
+public final class GrafoCoordenadas implements MatrizDistancias {
+    private static final double PI_TSPLIB = 3.141592;   // Valor que fija TSPLIB para GEO
+    private static final double RADIO_TIERRA = 6378.388;
+
+    /**
+     * Funciones de distancia de TSPLIB para coordenadas.
+     */
+    public enum Metrica {
+        EUC_2D,   // euclídea redondeada al entero más cercano
+        CEIL_2D,  // euclídea redondeada hacia arriba
+        ATT,      // pseudo-euclídea de los problemas att48/att532
+        GEO       // geográfica: coordenadas en grados.minutos, distancia en km
+    }
+
+    private final Metrica metrica;
+    private final double[] x;
+    private final double[] y;
+    private final int numCiudades;
+
+    /**
+     * Constructor Grafo coordenadas.
+     * Con {@link Metrica#GEO} las coordenadas (latitud, longitud en formato DDD.MM) se convierten
+     * una sola vez a radianes.
+     *
+     * @param metrica función de distancia
+     * @param x       primera coordenada de cada ciudad (latitud en GEO)
+     * @param y       segunda coordenada de cada ciudad (longitud en GEO)
+     */
+    public GrafoCoordenadas(Metrica metrica, double[] x, double[] y) {
+        this.metrica = metrica;
+        this.numCiudades = x.length;
+        if (metrica == Metrica.GEO) {
+            this.x = new double[numCiudades];
+            this.y = new double[numCiudades];
+            for (int i = 0; i < numCiudades; i++) {
+                this.x[i] = radianes(x[i]);
+                this.y[i] = radianes(y[i]);
+            }
+        } else {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    /**
+     * Convierte una coordenada GEO (grados.minutos) a radianes como lo define TSPLIB.
+     */
+    private static double radianes(double coordenada) {
+        double grados = (long) coordenada;
+        double minutos = coordenada - grados;
+        return PI_TSPLIB * (grados + 5.0 * minutos / 3.0) / 180.0;
+    }
+
+    public Metrica getMetrica() {
+        return metrica;
+    }
+
+    public double getX(int ciudad) {
+        return x[ciudad];
+    }
+
+    public double getY(int ciudad) {
+        return y[ciudad];
+    }
+
+    @Override
+    public int getNumCiudades() {
+        return numCiudades;
+    }
+
+    @Override
+    public int getDistancia(int origen, int destino) {
+        if (origen == destino) {
+            return 0;
+        }
+        switch (metrica) {
+            case EUC_2D: {
+                double dx = x[origen] - x[destino];
+                double dy = y[origen] - y[destino];
+                return (int) (Math.sqrt(dx * dx + dy * dy) + 0.5);
+            }
+            case CEIL_2D: {
+                double dx = x[origen] - x[destino];
+                double dy = y[origen] - y[destino];
+                return (int) Math.ceil(Math.sqrt(dx * dx + dy * dy));
+            }
+            case ATT: {
+                double dx = x[origen] - x[destino];
+                double dy = y[origen] - y[destino];
+                double r = Math.sqrt((dx * dx + dy * dy) / 10.0);
+                int t = (int) (r + 0.5);
+                return t < r ? t + 1 : t;
+            }
+            default: {
+                double q1 = Math.cos(y[origen] - y[destino]);
+                double q2 = Math.cos(x[origen] - x[destino]);
+                double q3 = Math.cos(x[origen] + x[destino]);
+                return (int) (RADIO_TIERRA * Math.acos(0.5 * ((1.0 + q1) * q2 - (1.0 - q1) * q3)) + 1.0);
+            }
+        }
+    }
+
+    /**
+     * Obtiene el identificador de una ciudad a partir de su número de nodo TSPLIB.
+     *
+     * @param ciudad número de nodo ("1".."n")
+     * @return identificador de la ciudad o -1 si no existe
+     */
+    @Override
+    public int getIndice(String ciudad) {
+        try {
+            int indice = Integer.parseInt(ciudad) - 1;
+            return indice >= 0 && indice < numCiudades ? indice : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public String getNombre(int indice) {
+        return Integer.toString(indice + 1);
+    }
+}
@@ -0,0 +1,346 @@
+package Problema_Viajante;
+
+import java.util.*;
+
+/**
+ * Indice espacial.
+ * Árbol k-d implícito sobre las coordenadas de un {@link GrafoCoordenadas}: los identificadores se
+ * reordenan en un arreglo plano de modo que cada rango {@code [desde, hasta)} es un subárbol cuya raíz
+ * es la posición central, partida por el eje de mayor extensión. No crea un objeto por nodo.
+ * <p>
+ * Admite eliminar puntos (por ejemplo las ciudades ya visitadas): cada nodo guarda cuántos puntos
+ * vivos quedan en su subárbol y las búsquedas descartan los subárboles vacíos, así que la consulta
+ * del vecino no visitado más cercano sigue siendo O(log n) en promedio aunque queden pocas ciudades.
+ * Las búsquedas usan la distancia euclídea real; como EUC_2D, CEIL_2D y ATT son funciones no
+ * decrecientes de ella, el orden coincide con el de {@link MatrizDistancias#getDistancia(int, int)}
+ * (salvo empates por redondeo). GEO no es plana y no se indexa: ver {@link #admite(MatrizDistancias)}.
+ */
+public final class IndiceEspacial {
+    private final double[] x;
+    private final double[] y;
+    private final int numCiudades;
+    private final int[] puntos;        // identificadores en orden de árbol k-d
+    private final int[] posicion;      // posición de cada ciudad en puntos
+    private final boolean[] ejeY;      // eje de corte del nodo de cada posición
+    private final int[] vivos;         // puntos no eliminados en el subárbol de cada posición
+    private final boolean[] eliminada;
+
+    // Estado de la búsqueda en curso (el índice no es seguro para usar desde varios hilos)
+    private int mejor;
+    private double mejorDistancia;
+    private int[] heapCiudades;        // montículo de máximos con los k mejores
+    private double[] heapDistancias;
+    private int heapTamanio;
+
+    /**
+     * Indica si una matriz de distancias se puede indexar espacialmente.
+     *
+     * @param matriz matriz de distancias
+     * @return true si es un {@link GrafoCoordenadas} con métrica plana (no GEO)
+     */
+    public static boolean admite(MatrizDistancias matriz) {
+        return matriz instanceof GrafoCoordenadas
+                && ((GrafoCoordenadas) matriz).getMetrica() != GrafoCoordenadas.Metrica.GEO;
+    }
+
+    /**
+     * Constructor Indice espacial. Construye el árbol en O(n log n).
+     *
+     * @param grafo grafo de coordenadas con métrica plana
+     * @throws IllegalArgumentException si la métrica es GEO
+     */
+    public IndiceEspacial(GrafoCoordenadas grafo) {
+        if (!admite(grafo)) {
+            throw new IllegalArgumentException("La métrica " + grafo.getMetrica() + " no admite índice espacial");
+        }
+        this.numCiudades = grafo.getNumCiudades();
+        this.x = new double[numCiudades];
+        this.y = new double[numCiudades];
+        this.puntos = new int[numCiudades];
+        this.posicion = new int[numCiudades];
+        this.ejeY = new boolean[numCiudades];
+        this.vivos = new int[numCiudades];
+        this.eliminada = new boolean[numCiudades];
+        for (int i = 0; i < numCiudades; i++) {
+            x[i] = grafo.getX(i);
+            y[i] = grafo.getY(i);
+            puntos[i] = i;
+        }
+        construir(0, numCiudades);
+        for (int p = 0; p < numCiudades; p++) {
+            posicion[puntos[p]] = p;
+        }
+    }
+
+    /**
+     * Ordena recursivamente el rango como subárbol k-d: la mediana del eje más extendido queda en
+     * el centro, los menores a la izquierda y los mayores a la derecha.
+     */
+    private void construir(int desde, int hasta) {
+        if (desde >= hasta) {
+            return;
+        }
+        int medio = (desde + hasta) >>> 1;
+        vivos[medio] = hasta - desde;
+        if (hasta - desde == 1) {
+            return;
+        }
+        double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int p = desde; p < hasta; p++) {
+            int c = puntos[p];
+            minX = Math.min(minX, x[c]);
+            maxX = Math.max(maxX, x[c]);
+            minY = Math.min(minY, y[c]);
+            maxY = Math.max(maxY, y[c]);
+        }
+        boolean porY = maxY - minY > maxX - minX;
+        ejeY[medio] = porY;
+        seleccionar(desde, hasta - 1, medio, porY ? y : x);
+        construir(desde, medio);
+        construir(medio + 1, hasta);
+    }
+
+    /**
+     * Selección rápida (Hoare) que deja en {@code k} el elemento que le corresponde en orden.
+     */
+    private void seleccionar(int izquierda, int derecha, int k, double[] coordenada) {
+        while (izquierda < derecha) {
+            double pivote = coordenada[puntos[(izquierda + derecha) >>> 1]];
+            int i = izquierda;
+            int j = derecha;
+            while (i <= j) {
+                while (coordenada[puntos[i]] < pivote) {
+                    i++;
+                }
+                while (coordenada[puntos[j]] > pivote) {
+                    j--;
+                }
+                if (i <= j) {
+                    int tmp = puntos[i];
+                    puntos[i] = puntos[j];
+                    puntos[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                derecha = j;
+            } else if (k >= i) {
+                izquierda = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Elimina una ciudad del índice; deja de aparecer en las búsquedas.
+     *
+     * @param ciudad identificador de la ciudad
+     */
+    public void eliminar(int ciudad) {
+        if (eliminada[ciudad]) {
+            return;
+        }
+        eliminada[ciudad] = true;
+        int objetivo = posicion[ciudad];
+        int desde = 0;
+        int hasta = numCiudades;
+        while (true) {
+            int medio = (desde + hasta) >>> 1;
+            vivos[medio]--;
+            if (objetivo == medio) {
+                return;
+            } else if (objetivo < medio) {
+                hasta = medio;
+            } else {
+                desde = medio + 1;
+            }
+        }
+    }
+
+    /**
+     * Vuelve a incluir todas las ciudades eliminadas, para reutilizar el índice en otro recorrido.
+     */
+    public void restaurar() {
+        Arrays.fill(eliminada, false);
+        recontar(0, numCiudades);
+    }
+
+    private int recontar(int desde, int hasta) {
+        if (desde >= hasta) {
+            return 0;
+        }
+        int medio = (desde + hasta) >>> 1;
+        vivos[medio] = 1 + recontar(desde, medio) + recontar(medio + 1, hasta);
+        return vivos[medio];
+    }
+
+    /**
+     * Consulta si una ciudad fue eliminada.
+     *
+     * @param ciudad identificador de la ciudad
+     * @return true si ya no participa en las búsquedas
+     */
+    public boolean isEliminada(int ciudad) {
+        return eliminada[ciudad];
+    }
+
+    /**
+     * Devuelve la cantidad de ciudades que quedan en el índice.
+     *
+     * @return ciudades no eliminadas
+     */
+    public int getVivas() {
+        return numCiudades == 0 ? 0 : vivos[numCiudades >>> 1];
+    }
+
+    /**
+     * Busca la ciudad no eliminada más cercana a otra (sin contarse a sí misma).
+     *
+     * @param ciudad identificador de la ciudad de referencia
+     * @return ciudad más cercana o -1 si no queda ninguna
+     */
+    public int masCercanaNoEliminada(int ciudad) {
+        mejor = -1;
+        mejorDistancia = Double.MAX_VALUE;
+        buscarMasCercana(0, numCiudades, ciudad);
+        return mejor;
+    }
+
+    private void buscarMasCercana(int desde, int hasta, int ciudad) {
+        if (desde >= hasta) {
+            return;
+        }
+        int medio = (desde + hasta) >>> 1;
+        if (vivos[medio] == 0) {
+            return;
+        }
+        int punto = puntos[medio];
+        if (!eliminada[punto] && punto != ciudad) {
+            double distancia = distancia2(ciudad, punto);
+            if (distancia < mejorDistancia) {
+                mejorDistancia = distancia;
+                mejor = punto;
+            }
+        }
+        double diferencia = ejeY[medio] ? y[ciudad] - y[punto] : x[ciudad] - x[punto];
+        if (diferencia < 0) {
+            buscarMasCercana(desde, medio, ciudad);
+            if (diferencia * diferencia < mejorDistancia) {
+                buscarMasCercana(medio + 1, hasta, ciudad);
+            }
+        } else {
+            buscarMasCercana(medio + 1, hasta, ciudad);
+            if (diferencia * diferencia < mejorDistancia) {
+                buscarMasCercana(desde, medio, ciudad);
+            }
+        }
+    }
+
+    /**
+     * Busca las k ciudades no eliminadas más cercanas a otra (sin contarse a sí misma).
+     *
+     * @param ciudad  identificador de la ciudad de referencia
+     * @param k       cantidad de vecinos buscados
+     * @param destino arreglo donde se escriben los vecinos, del más cercano al más lejano
+     * @return cantidad de vecinos escritos (menos de k si no quedan suficientes ciudades)
+     */
+    public int kMasCercanas(int ciudad, int k, int[] destino) {
+        if (heapCiudades == null || heapCiudades.length < k) {
+            heapCiudades = new int[k];
+            heapDistancias = new double[k];
+        }
+        heapTamanio = 0;
+        buscarKMasCercanas(0, numCiudades, ciudad, k);
+        int cantidad = heapTamanio;
+        // Extraer del montículo de máximos deja los vecinos de atrás hacia adelante
+        for (int i = cantidad - 1; i >= 0; i--) {
+            destino[i] = heapCiudades[0];
+            quitarMaximo();
+        }
+        return cantidad;
+    }
+
+    private void buscarKMasCercanas(int desde, int hasta, int ciudad, int k) {
+        if (desde >= hasta) {
+            return;
+        }
+        int medio = (desde + hasta) >>> 1;
+        if (vivos[medio] == 0) {
+            return;
+        }
+        int punto = puntos[medio];
+        if (!eliminada[punto] && punto != ciudad) {
+            double distancia = distancia2(ciudad, punto);
+            if (heapTamanio < k) {
+                agregar(punto, distancia);
+            } else if (distancia < heapDistancias[0]) {
+                quitarMaximo();
+                agregar(punto, distancia);
+            }
+        }
+        double diferencia = ejeY[medio] ? y[ciudad] - y[punto] : x[ciudad] - x[punto];
+        int primeroDesde = diferencia < 0 ? desde : medio + 1;
+        int primeroHasta = diferencia < 0 ? medio : hasta;
+        buscarKMasCercanas(primeroDesde, primeroHasta, ciudad, k);
+        if (heapTamanio < k || diferencia * diferencia < heapDistancias[0]) {
+            if (diferencia < 0) {
+                buscarKMasCercanas(medio + 1, hasta, ciudad, k);
+            } else {
+                buscarKMasCercanas(desde, medio, ciudad, k);
+            }
+        }
+    }
+
+    private void agregar(int punto, double distancia) {
+        int i = heapTamanio++;
+        while (i > 0) {
+            int padre = (i - 1) >>> 1;
+            if (heapDistancias[padre] >= distancia) {
+                break;
+            }
+            heapCiudades[i] = heapCiudades[padre];
+            heapDistancias[i] = heapDistancias[padre];
+            i = padre;
+        }
+        heapCiudades[i] = punto;
+        heapDistancias[i] = distancia;
+    }
+
+    private void quitarMaximo() {
+        int ultimo = --heapTamanio;
+        int punto = heapCiudades[ultimo];
+        double distancia = heapDistancias[ultimo];
+        int i = 0;
+        while (true) {
+            int hijo = 2 * i + 1;
+            if (hijo >= heapTamanio) {
+                break;
+            }
+            if (hijo + 1 < heapTamanio && heapDistancias[hijo + 1] > heapDistancias[hijo]) {
+                hijo++;
+            }
+            if (heapDistancias[hijo] <= distancia) {
+                break;
+            }
+            heapCiudades[i] = heapCiudades[hijo];
+            heapDistancias[i] = heapDistancias[hijo];
+            i = hijo;
+        }
+        if (heapTamanio > 0) {
+            heapCiudades[i] = punto;
+            heapDistancias[i] = distancia;
+        }
+    }
+
+    /**
+     * Cuadrado de la distancia euclídea entre dos ciudades.
+     */
+    private double distancia2(int a, int b) {
+        double dx = x[a] - x[b];
+        double dy = y[a] - y[b];
+        return dx * dx + dy * dy;
+    }
+}
@@ -0,0 +1,285 @@
+package Problema_Viajante;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Lector TSPLIB.
+ * Lee instancias simétricas (.tsp) y recorridos (.tour) del formato TSPLIB en una sola pasada,
+ * línea por línea y sin expresiones regulares, sin construir nunca un {@link Grafo}:
+ * <ul>
+ * <li>EUC_2D, CEIL_2D, ATT y GEO producen un {@link GrafoCoordenadas} (memoria O(n)).</li>
+ * <li>EXPLICIT (FULL_MATRIX y las variantes triangulares por filas o columnas) produce un
+ * {@link GrafoCompilado} con la matriz completa.</li>
+ * </ul>
+ */
+public final class LectorTSPLIB {
+
+    private LectorTSPLIB() {
+    }
+
+    /**
+     * Lee una instancia .tsp.
+     *
+     * @param archivo ruta del archivo
+     * @return matriz de distancias de la instancia
+     * @throws IOException si no se puede leer o la instancia no está soportada
+     */
+    public static MatrizDistancias leerInstancia(Path archivo) throws IOException {
+        try (BufferedReader br = Files.newBufferedReader(archivo, StandardCharsets.ISO_8859_1)) {
+            Tokenizador entrada = new Tokenizador(br, archivo);
+            int dimension = -1;
+            String tipoPeso = "EUC_2D";
+            String formatoPeso = "FULL_MATRIX";
+            String linea;
+            while ((linea = entrada.siguienteLinea()) != null) {
+                String clave = clave(linea);
+                String valor = valor(linea);
+                switch (clave) {
+                    case "TYPE":
+                        if (!valor.equals("TSP")) {
+                            throw new IOException("Tipo de instancia no soportado (" + valor + "): " + archivo);
+                        }
+                        break;
+                    case "DIMENSION":
+                        dimension = entero(valor, archivo);
+                        break;
+                    case "EDGE_WEIGHT_TYPE":
+                        tipoPeso = valor;
+                        break;
+                    case "EDGE_WEIGHT_FORMAT":
+                        formatoPeso = valor;
+                        break;
+                    case "NODE_COORD_SECTION":
+                        return leerCoordenadas(entrada, dimension, tipoPeso);
+                    case "EDGE_WEIGHT_SECTION":
+                        return leerMatriz(entrada, dimension, tipoPeso, formatoPeso);
+                    case "EOF":
+                        throw new IOException("Instancia sin datos: " + archivo);
+                    default:
+                        break; // NAME, COMMENT, DISPLAY_DATA_TYPE, ...
+                }
+            }
+            throw new IOException("Instancia sin datos: " + archivo);
+        }
+    }
+
+    /**
+     * Lee un recorrido .tour.
+     *
+     * @param archivo ruta del archivo
+     * @param matriz  instancia a la que pertenece el recorrido
+     * @return identificadores de ciudad (0..n-1) en orden de visita
+     * @throws IOException si no se puede leer o el recorrido no corresponde a la instancia
+     */
+    public static int[] leerRecorrido(Path archivo, MatrizDistancias matriz) throws IOException {
+        int n = matriz.getNumCiudades();
+        try (BufferedReader br = Files.newBufferedReader(archivo, StandardCharsets.ISO_8859_1)) {
+            Tokenizador entrada = new Tokenizador(br, archivo);
+            String linea;
+            while ((linea = entrada.siguienteLinea()) != null) {
+                String clave = clave(linea);
+                if (clave.equals("DIMENSION") && entero(valor(linea), archivo) != n) {
+                    throw new IOException("El recorrido tiene otra dimensión que la instancia: " + archivo);
+                }
+                if (clave.equals("TOUR_SECTION")) {
+                    int[] recorrido = new int[n];
+                    boolean[] visto = new boolean[n];
+                    for (int i = 0; i < n; i++) {
+                        int ciudad = entrada.siguienteEntero() - 1;
+                        if (ciudad < 0 || ciudad >= n || visto[ciudad]) {
+                            throw new IOException("Recorrido inválido en la posición " + (i + 1) + ": " + archivo);
+                        }
+                        visto[ciudad] = true;
+                        recorrido[i] = ciudad;
+                    }
+                    return recorrido;
+                }
+            }
+            throw new IOException("Recorrido sin TOUR_SECTION: " + archivo);
+        }
+    }
+
+    private static MatrizDistancias leerCoordenadas(Tokenizador entrada, int dimension, String tipoPeso)
+            throws IOException {
+        GrafoCoordenadas.Metrica metrica;
+        try {
+            metrica = GrafoCoordenadas.Metrica.valueOf(tipoPeso);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("EDGE_WEIGHT_TYPE no soportado: " + tipoPeso);
+        }
+        exigirDimension(dimension, entrada);
+        double[] x = new double[dimension];
+        double[] y = new double[dimension];
+        for (int i = 0; i < dimension; i++) {
+            int nodo = entrada.siguienteEntero() - 1;
+            if (nodo < 0 || nodo >= dimension) {
+                throw new IOException("Nodo fuera de rango: " + (nodo + 1));
+            }
+            x[nodo] = entrada.siguienteReal();
+            y[nodo] = entrada.siguienteReal();
+        }
+        return new GrafoCoordenadas(metrica, x, y);
+    }
+
+    private static MatrizDistancias leerMatriz(Tokenizador entrada, int dimension, String tipoPeso, String formato)
+            throws IOException {
+        if (!tipoPeso.equals("EXPLICIT")) {
+            throw new IOException("EDGE_WEIGHT_SECTION requiere EDGE_WEIGHT_TYPE EXPLICIT: " + tipoPeso);
+        }
+        exigirDimension(dimension, entrada);
+        int n = dimension;
+        int[] distancias;
+        try {
+            distancias = new int[GrafoCompilado.tamanioMatriz(n)];
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage());
+        }
+        // Las variantes por columnas de un triángulo equivalen al triángulo opuesto por filas
+        switch (formato) {
+            case "FULL_MATRIX":
+                for (int i = 0; i < distancias.length; i++) {
+                    distancias[i] = entrada.siguienteEntero();
+                }
+                break;
+            case "UPPER_ROW":
+            case "LOWER_COL":
+                leerTriangulo(entrada, distancias, n, true, false);
+                break;
+            case "UPPER_DIAG_ROW":
+            case "LOWER_DIAG_COL":
+                leerTriangulo(entrada, distancias, n, true, true);
+                break;
+            case "LOWER_ROW":
+            case "UPPER_COL":
+                leerTriangulo(entrada, distancias, n, false, false);
+                break;
+            case "LOWER_DIAG_ROW":
+            case "UPPER_DIAG_COL":
+                leerTriangulo(entrada, distancias, n, false, true);
+                break;
+            default:
+                throw new IOException("EDGE_WEIGHT_FORMAT no soportado: " + formato);
+        }
+        String[] nombres = new String[n];
+        for (int i = 0; i < n; i++) {
+            nombres[i] = Integer.toString(i + 1);
+        }
+        return new GrafoCompilado(nombres, distancias);
+    }
+
+    /**
+     * Lee un triángulo por filas y lo copia a las dos mitades de la matriz.
+     *
+     * @param superior true para el triángulo superior (j > i), false para el inferior (j < i)
+     * @param diagonal true si el triángulo incluye la diagonal
+     */
+    private static void leerTriangulo(Tokenizador entrada, int[] distancias, int n, boolean superior,
+                                      boolean diagonal) throws IOException {
+        for (int i = 0; i < n; i++) {
+            int desde = superior ? (diagonal ? i : i + 1) : 0;
+            int hasta = superior ? n : (diagonal ? i + 1 : i);
+            for (int j = desde; j < hasta; j++) {
+                int distancia = entrada.siguienteEntero();
+                distancias[i * n + j] = distancia;
+                distancias[j * n + i] = distancia;
+            }
+        }
+    }
+
+    private static int entero(String texto, Path archivo) throws IOException {
+        try {
+            return Integer.parseInt(texto);
+        } catch (NumberFormatException e) {
+            throw new IOException("Se esperaba un entero y se leyó '" + texto + "': " + archivo);
+        }
+    }
+
+    private static void exigirDimension(int dimension, Tokenizador entrada) throws IOException {
+        if (dimension < 0) {
+            throw new IOException("Falta DIMENSION antes de los datos: " + entrada.archivo);
+        }
+    }
+
+    /**
+     * Clave de una línea de cabecera ("CLAVE : valor", "CLAVE: valor" o una sección sola).
+     */
+    private static String clave(String linea) {
+        int dosPuntos = linea.indexOf(':');
+        return (dosPuntos >= 0 ? linea.substring(0, dosPuntos) : linea).trim();
+    }
+
+    private static String valor(String linea) {
+        int dosPuntos = linea.indexOf(':');
+        return dosPuntos >= 0 ? linea.substring(dosPuntos + 1).trim() : "";
+    }
+
+    /**
+     * Lectura por líneas (cabecera) o por palabras separadas por espacios (secciones de datos),
+     * sin cargar el archivo entero.
+     */
+    private static final class Tokenizador {
+        private final BufferedReader br;
+        private final Path archivo;
+        private String linea = "";
+        private int posicion;
+
+        Tokenizador(BufferedReader br, Path archivo) {
+            this.br = br;
+            this.archivo = archivo;
+        }
+
+        /**
+         * Siguiente línea no vacía, sin espacios en los extremos.
+         */
+        String siguienteLinea() throws IOException {
+            String leida;
+            while ((leida = br.readLine()) != null) {
+                leida = leida.trim();
+                if (!leida.isEmpty()) {
+                    return leida;
+                }
+            }
+            return null;
+        }
+
+        int siguienteEntero() throws IOException {
+            return entero(siguiente(), archivo);
+        }
+
+        double siguienteReal() throws IOException {
+            String palabra = siguiente();
+            try {
+                return Double.parseDouble(palabra);
+            } catch (NumberFormatException e) {
+                throw new IOException("Se esperaba un número y se leyó '" + palabra + "': " + archivo);
+            }
+        }
+
+        /**
+         * Siguiente palabra, avanzando de línea cuando hace falta.
+         */
+        String siguiente() throws IOException {
+            while (true) {
+                while (posicion < linea.length() && Character.isWhitespace(linea.charAt(posicion))) {
+                    posicion++;
+                }
+                if (posicion < linea.length()) {
+                    int inicio = posicion;
+                    while (posicion < linea.length() && !Character.isWhitespace(linea.charAt(posicion))) {
+                        posicion++;
+                    }
+                    return linea.substring(inicio, posicion);
+                }
+                linea = br.readLine();
+                posicion = 0;
+                if (linea == null) {
+                    throw new IOException("Fin de archivo inesperado: " + archivo);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package Problema_Viajante;
+
+/**
+ * Lista candidatos.
+ * Para cada ciudad guarda sus k vecinos más cercanos ordenados por distancia, en un arreglo
+ * plano {@code int[numCiudades * k]}. Se calcula una sola vez y la usan las heurísticas que
+ * solo necesitan mirar a los vecinos cercanos (vecino más cercano, búsqueda local).
+ * En instancias de coordenadas planas los vecinos salen de un {@link IndiceEspacial} en
+ * O(n k log n) en vez de revisar la matriz completa en O(n^2), y en un {@link CierreMetrico} con
+ * Dijkstra cortado en los k primeros, sin calcular filas completas de caminos más cortos.
+ */
+public final class ListaCandidatos {
+    private final int numCiudades;
+    private final int k;
+    private final int[] vecinos;    // numCiudades * k, por filas
+    private final int[] cantidad;   // vecinos válidos por ciudad (menos de k si faltan arcos)
+
+    /**
+     * Constructor Lista candidatos.
+     *
+     * @param matriz matriz de distancias
+     * @param k      cantidad de vecinos por ciudad
+     */
+    public ListaCandidatos(MatrizDistancias matriz, int k) {
+        this.numCiudades = matriz.getNumCiudades();
+        this.k = Math.max(1, Math.min(k, numCiudades - 1));
+        this.vecinos = new int[numCiudades * this.k];
+        this.cantidad = new int[numCiudades];
+
+        if (IndiceEspacial.admite(matriz)) {
+            IndiceEspacial indice = new IndiceEspacial((GrafoCoordenadas) matriz);
+            int[] encontrados = new int[this.k];
+            for (int i = 0; i < numCiudades; i++) {
+                cantidad[i] = indice.kMasCercanas(i, this.k, encontrados);
+                System.arraycopy(encontrados, 0, vecinos, i * this.k, cantidad[i]);
+            }
+            return;
+        }
+        if (matriz instanceof CierreMetrico) {
+            CierreMetrico cierre = (CierreMetrico) matriz;
+            int[] encontrados = new int[this.k];
+            for (int i = 0; i < numCiudades; i++) {
+                cantidad[i] = cierre.kMasCercanas(i, this.k, encontrados);
+                System.arraycopy(encontrados, 0, vecinos, i * this.k, cantidad[i]);
+            }
+            return;
+        }
+
+        int[] distancias = new int[this.k];
+        for (int i = 0; i < numCiudades; i++) {
+            int desde = i * this.k;
+            int llenos = 0;
+            for (int j = 0; j < numCiudades; j++) {
+                int distancia = matriz.getDistancia(i, j);
+                if (j == i || distancia == Integer.MAX_VALUE) {
+                    continue;
+                }
+                if (llenos == this.k && distancia >= distancias[llenos - 1]) {
+                    continue;
+                }
+                // Inserción ordenada dentro de los k mejores
+                int pos = llenos < this.k ? llenos++ : llenos - 1;
+                while (pos > 0 && distancias[pos - 1] > distancia) {
+                    distancias[pos] = distancias[pos - 1];
+                    vecinos[desde + pos] = vecinos[desde + pos - 1];
+                    pos--;
+                }
+                distancias[pos] = distancia;
+                vecinos[desde + pos] = j;
+            }
+            cantidad[i] = llenos;
+        }
+    }
+
+    /**
+     * Devuelve la cantidad de vecinos guardados por ciudad.
+     *
+     * @return k
+     */
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Devuelve la cantidad de vecinos válidos de una ciudad.
+     *
+     * @param ciudad identificador de la ciudad
+     * @return vecinos guardados para la ciudad
+     */
+    public int getCantidad(int ciudad) {
+        return cantidad[ciudad];
+    }
+
+    /**
+     * Devuelve el i-ésimo vecino más cercano de una ciudad.
+     *
+     * @param ciudad identificador de la ciudad
+     * @param i      posición en la lista (0 = el más cercano)
+     * @return identificador del vecino
+     */
+    public int getVecino(int ciudad, int i) {
+        return vecinos[ciudad * k + i];
+    }
+}
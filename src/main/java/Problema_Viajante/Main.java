@@ -3,9 +3,15 @@ package Problema_Viajante;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 public class Main {
+    private static final long LIMITE_EXACTO_NANOS = 10_000_000_000L;
+    private static final int MAX_SOLUCIONES_CACHE = 256;
+    private static final int SEMILLAS_CACHE = 4;
+    private static final double FRACCION_ALEATORIA_GENETICO = 0.25; // resto de la población inicial por heurísticas
     public static void main(String[] args) {
         /*
         Algunos puntos importantes a tomar en cuenta para entender el proyecto
@@ -15,7 +21,43 @@ public class Main {
 
         2-En la terminal se imprimen todos los datos necesarios para realizar las mediciones
         incluyendo otros datos como el grafo y sus conexiones, mejor ruta, entre otros.
+        El grafo completo y la traza paso a paso de la estrategia voraz solo se imprimen al ejecutar
+        con el argumento "--detallado", para que esa salida no quede dentro de las mediciones.
 
+        3-Con "--solucionador=voraz,genetico,lk" se ejecutan además los solucionadores indicados
+        sobre el mismo grafo y se comparan la longitud de la ruta y el tiempo de cada uno.
+        Con "--plazo=200" cada solucionador dispone de 200 ms y devuelve la mejor ruta que tenga
+        al vencer el plazo; se informa además cuándo encontró esa ruta.
+        "voraz-multi" construye el recorrido voraz desde todas las ciudades en paralelo y se queda
+        con el más corto, abandonando cada construcción que ya supera al mejor encontrado.
+
+        4-Para cada grafo se informa la brecha de las rutas voraz y genética respecto del óptimo
+        exacto (Held-Karp) en los grafos pequeños, o respecto de la cota inferior de Held-Karp
+        (1-árbol con subgradiente) en los grandes. Con "--brecha=2" el genético deja de ejecutar
+        generaciones en cuanto su mejor ruta queda a un 2% o menos de esa referencia.
+        La población inicial del genético sale en sus tres cuartas partes de heurísticas de
+        construcción aleatorizadas (vecino más cercano, aristas voraces, curva de Hilbert) y el
+        resto al azar.
+
+        5-Con "--convertir=aristas.txt,grafo.bin" se convierte una lista de aristas en texto
+        (origen;destino;distancia) al formato binario, y con "--grafo=grafo.bin" se abre ese archivo
+        mapeado en memoria y se ejecutan sobre él los solucionadores indicados (voraz y lk por defecto).
+        "--grafo=" también acepta instancias TSPLIB (.tsp); con "--recorrido=archivo.tour" se informa
+        la brecha de cada solucionador respecto de ese recorrido (por ejemplo el óptimo publicado).
+        Con "--cache=soluciones.bin" las rutas encontradas se guardan en ese archivo: si la misma
+        instancia se vuelve a resolver con el mismo solucionador y plazo se devuelve la ruta guardada,
+        y el genético siembra su población con las rutas de instancias parecidas.
+
+        6-Con "--disperso=3" los grafos generados son redes dispersas (un camino que une todas las
+        ciudades más unas 3 carreteras al azar por ciudad) en lugar de grafos completos. Los
+        solucionadores trabajan sobre su cierre métrico: la distancia entre dos ciudades es la del
+        camino más corto, calculada a pedido con Dijkstra.
+
+        7-Al ejecutar la JVM con "-Dtsp.metricas=true" el genético mide el tiempo de cada fase
+        (selección, cruce, evaluación, mutación, búsqueda local y supervivencia) y guarda por
+        generación el mejor fitness, el promedio, la diversidad y los bytes asignados; también emite
+        eventos JFR si se graba con "-XX:StartFlightRecording". Con "--metricas=metricas.csv" (o .jsonl)
+        ese registro se exporta por grafo a metricas-10.csv, metricas-20.csv, etc.
 
          */
 
@@ -27,26 +69,73 @@ public class Main {
         final String amarillo = "\u001B[33m";
         final String azul = "\u001B[34m";
 
+        boolean detallado = Arrays.asList(args).contains("--detallado");
+        List<String> solucionadores = leerSolucionadores(args);
+        long plazoMilis = leerPlazo(args);
+        double brechaParada = leerBrecha(args);
+        int carreterasPorCiudad = leerDisperso(args);
+        String archivoMetricas = leerOpcion(args, "--metricas=");
+
+        String convertir = leerOpcion(args, "--convertir=");
+        if (convertir != null) {
+            String[] archivos = convertir.split(",");
+            try {
+                EscritorGrafoBinario.convertirTexto(archivos[0], Path.of(archivos[1]));
+                System.out.println("Grafo convertido: " + archivos[1]);
+            } catch (IOException e) {
+                System.out.println("Error al convertir el grafo: " + e.getMessage());
+            }
+            return;
+        }
+        String archivoGrafo = leerOpcion(args, "--grafo=");
+        if (archivoGrafo != null) {
+            resolverArchivo(archivoGrafo, leerOpcion(args, "--recorrido="),
+                    solucionadores.isEmpty() ? List.of("voraz", "lk") : solucionadores, plazoMilis,
+                    leerOpcion(args, "--cache="));
+            return;
+        }
+
         int[] numCiudades = {10, 20, 40, 80, 100}; // Cantidad de ciudades para cada grafo (red)
         String archivoCiudades = "Recursos/Ciudades.txt"; // Nombre del archivo que contiene las ciudades
 
         for (int n : numCiudades) {
             System.out.println(rojo + "\nGrafo generado con " + n + " ciudades:");
-            Grafo grafo = generarGrafoConCiudades(archivoCiudades, n);
-            grafo.imprimirGrafo();
+            Grafo grafo = carreterasPorCiudad > 0
+                    ? generarGrafoDisperso(archivoCiudades, n, carreterasPorCiudad)
+                    : generarGrafoConCiudades(archivoCiudades, n);
+            if (detallado) {
+                grafo.imprimirGrafo();
+            }
 
-            if (grafo.esConexo()) {
+            AnalisisGrafo analisis = grafo.analizar();
+            if (analisis.esConexo()) {
                 System.out.println("El grafo es conexo.");
             } else {
-                System.out.println("El grafo no es conexo.");
+                System.out.println("El grafo no es conexo (" + analisis.getNumComponentes() + " componentes).");
             }
+            System.out.printf("Grado mínimo/promedio/máximo: %d/%.1f/%d, métrico: %s%n", analisis.getGradoMinimo(),
+                    analisis.getGradoPromedio(), analisis.getGradoMaximo(), analisis.esMetrico() ? "sí" : "no");
+            // En una red dispersa los solucionadores usan el cierre métrico (caminos más cortos)
+            MatrizDistancias matriz = carreterasPorCiudad > 0 && analisis.esConexo()
+                    ? new CierreMetrico(grafo.adyacencia())
+                    : grafo.compilar();
 
             System.out.print(RESET);
             // Ejcución de la estrategia voraz
-            EstrategiaVoraz voraz = new EstrategiaVoraz(grafo);
+            EstrategiaVoraz voraz = new EstrategiaVoraz(matriz);
             String ciudadInicial = grafo.getCiudades().get(0); // Selecciona la primera ciudad como inicial
             System.out.println("\nEjecutando Estrategia Voraz desde " + ciudadInicial + ":");
-            List<String> rutaVoraz = voraz.encontrarRutaVoraz();
+            List<String> rutaVoraz;
+            if (detallado) {
+                rutaVoraz = voraz.encontrarRutaVoraz();
+            } else {
+                ResultadoSolucion resultadoVoraz = voraz.resolver();
+                voraz.imprimirResultadosMedicion();
+                rutaVoraz = resultadoVoraz.getRuta();
+                if (rutaVoraz != null) {
+                    System.out.println("Distancia total recorrida: " + resultadoVoraz.getLongitud() + " km");
+                }
+            }
 
             if (rutaVoraz != null) {
                 System.out.println(verde + "Ruta Voraz: " + rutaVoraz + RESET);
@@ -55,9 +144,24 @@ public class Main {
             }
 
 
+            // Referencia para la brecha: óptimo exacto en grafos pequeños, cota inferior en los grandes
+            long referencia;
+            String etiquetaReferencia;
+            if (n <= EstrategiaExacta.MAX_CIUDADES_HELD_KARP) {
+                referencia = new EstrategiaExacta(matriz).resolver().getLongitud();
+                etiquetaReferencia = "Óptimo (Held-Karp)";
+            } else {
+                referencia = new CotaInferior(matriz).heldKarp();
+                etiquetaReferencia = "Cota inferior (Held-Karp)";
+            }
+
             // Inicialización y ejecución de la estrategia genetica
             int tamanioPoblacion = obtenerTamanioPoblacion(n);
-            EstrategiaGenetica genetico = new EstrategiaGenetica(grafo, n, tamanioPoblacion);
+            EstrategiaGenetica genetico = new EstrategiaGenetica(matriz, tamanioPoblacion, new SplittableRandom().nextLong());
+            genetico.sembrarHeuristicas(FRACCION_ALEATORIA_GENETICO);
+            if (brechaParada >= 0) {
+                genetico.setParadaPorBrecha(referencia, brechaParada);
+            }
 
             System.out.println("\n--- Resultados después de 1 generación ---");
             genetico.ejecutarCicloGeneraciones(1);
@@ -77,6 +181,327 @@ public class Main {
             genetico.imprimirMejorRuta();
             System.out.print(RESET);
             genetico.imprimirTopPoblaciones();
+            if (archivoMetricas != null) {
+                exportarMetricas(genetico.getRegistro(), archivoMetricas, n);
+            }
+
+            // Brecha de las heurísticas respecto del óptimo (o de la cota de Held-Karp si el grafo es grande)
+            System.out.println("\n--- Brecha de optimalidad ---");
+            System.out.println(etiquetaReferencia + ": " + referencia + " km");
+            if (rutaVoraz != null) {
+                System.out.printf("Brecha voraz: %.2f%%\n", brecha(longitudRuta(matriz, rutaVoraz), referencia));
+            }
+            System.out.printf("Brecha genético: %.2f%%\n", brecha(genetico.getMejorFitness(), referencia));
+
+            if (!solucionadores.isEmpty()) {
+                System.out.println("\n--- Comparación de solucionadores ---");
+                for (String nombre : solucionadores) {
+                    SolucionadorTSP solucionador = crearSolucionador(nombre, matriz, n);
+                    if (plazoMilis <= 0) {
+                        ResultadoSolucion resultado = solucionador.resolver();
+                        System.out.printf("%s: Longitud: %d, Tiempo (s): %.3f\n", solucionador.getNombre(),
+                                resultado.getLongitud(), resultado.getTiempoNanos() / 1_000_000_000.0);
+                        imprimirCotaExacta(solucionador, resultado);
+                    } else {
+                        ResultadoSolucion[] ultimaMejora = new ResultadoSolucion[1];
+                        ResultadoSolucion resultado = solucionador.resolver(
+                                Cancelacion.conPlazo(plazoMilis * 1_000_000L), parcial -> ultimaMejora[0] = parcial);
+                        System.out.printf("%s: Longitud: %d, Tiempo (s): %.3f, Encontrada en (s): %.3f\n",
+                                solucionador.getNombre(), resultado.getLongitud(),
+                                resultado.getTiempoNanos() / 1_000_000_000.0,
+                                ultimaMejora[0] != null ? ultimaMejora[0].getTiempoNanos() / 1_000_000_000.0 : 0.0);
+                        imprimirCotaExacta(solucionador, resultado);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Abre un grafo binario o una instancia TSPLIB (.tsp) y ejecuta sobre él los solucionadores indicados.
+     *
+     * @param archivo        ruta del archivo binario o .tsp
+     * @param archivoTour    ruta de un recorrido .tour de referencia, o null
+     * @param solucionadores nombres de los solucionadores
+     * @param plazoMilis     plazo por solucionador en milisegundos, o 0 para ejecutarlos completos
+     * @param archivoCache   archivo de la caché de soluciones, o null para no usarla
+     */
+    public static void resolverArchivo(String archivo, String archivoTour, List<String> solucionadores, long plazoMilis,
+                                       String archivoCache) {
+        MatrizDistancias grafo;
+        CacheSoluciones cache = null;
+        long referencia = -1;
+        long inicio = System.nanoTime();
+        try {
+            grafo = archivo.endsWith(".tsp") ? LectorTSPLIB.leerInstancia(Path.of(archivo)) : GrafoBinario.abrir(Path.of(archivo));
+            if (archivoTour != null) {
+                referencia = longitudRecorrido(grafo, LectorTSPLIB.leerRecorrido(Path.of(archivoTour), grafo));
+            }
+            if (archivoCache != null) {
+                cache = CacheSoluciones.cargar(Path.of(archivoCache), MAX_SOLUCIONES_CACHE);
+            }
+        } catch (IOException e) {
+            System.out.println("Error al abrir el grafo: " + e.getMessage());
+            return;
+        }
+        System.out.printf("Grafo %s: %d ciudades, abierto en %.3f s\n", archivo, grafo.getNumCiudades(),
+                (System.nanoTime() - inicio) / 1_000_000_000.0);
+        if (referencia >= 0) {
+            System.out.println("Recorrido de referencia: " + referencia);
+        }
+        long huella = cache != null ? CacheSoluciones.huella(grafo) : 0;
+        for (String nombre : solucionadores) {
+            String parametros = nombre + ":" + plazoMilis;
+            ResultadoSolucion guardado = cache != null ? cache.buscar(huella, parametros) : null;
+            if (guardado != null) {
+                System.out.printf("%s: Longitud: %d (caché)\n", nombre, guardado.getLongitud());
+                continue;
+            }
+            SolucionadorTSP solucionador = crearSolucionador(nombre, grafo);
+            if (cache != null && solucionador instanceof EstrategiaGenetica) {
+                ((EstrategiaGenetica) solucionador).sembrar(cache.semillasPara(grafo, SEMILLAS_CACHE));
+            }
+            ResultadoSolucion resultado = plazoMilis <= 0
+                    ? solucionador.resolver()
+                    : solucionador.resolver(Cancelacion.conPlazo(plazoMilis * 1_000_000L), null);
+            System.out.printf("%s: Longitud: %d, Tiempo (s): %.3f\n", solucionador.getNombre(),
+                    resultado.getLongitud(), resultado.getTiempoNanos() / 1_000_000_000.0);
+            imprimirCotaExacta(solucionador, resultado);
+            if (cache != null) {
+                cache.guardar(huella, parametros, resultado);
+            }
+            if (referencia > 0 && resultado.isCompleta()) {
+                System.out.printf("  Brecha: %.2f%%\n", brecha(resultado.getLongitud(), referencia));
+            }
+        }
+        if (cache != null) {
+            try {
+                cache.guardarEnDisco(Path.of(archivoCache));
+            } catch (IOException e) {
+                System.out.println("Error al guardar la caché: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Si el solucionador exacto se detuvo antes de demostrar el óptimo, informa la cota inferior
+     * y la brecha de la ruta que devolvió.
+     *
+     * @param solucionador solucionador ejecutado
+     * @param resultado    resultado que devolvió
+     */
+    public static void imprimirCotaExacta(SolucionadorTSP solucionador, ResultadoSolucion resultado) {
+        if (!(solucionador instanceof EstrategiaExacta) || !resultado.isCompleta()) {
+            return;
+        }
+        EstrategiaExacta exacta = (EstrategiaExacta) solucionador;
+        if (!exacta.isOptimoDemostrado() && exacta.getCotaInferior() > 0) {
+            System.out.printf("  Sin demostrar el óptimo: cota inferior %d, brecha %.2f%%\n", exacta.getCotaInferior(),
+                    brecha(resultado.getLongitud(), exacta.getCotaInferior()));
+        }
+    }
+
+    /**
+     * Calcula la longitud de un recorrido cíclico de identificadores.
+     *
+     * @param matriz    matriz de distancias
+     * @param recorrido identificadores en orden de visita (el regreso al inicio es implícito)
+     * @return longitud total
+     */
+    public static long longitudRecorrido(MatrizDistancias matriz, int[] recorrido) {
+        long longitud = 0;
+        for (int i = 0; i < recorrido.length; i++) {
+            longitud += matriz.getDistancia(recorrido[i], recorrido[(i + 1) % recorrido.length]);
+        }
+        return longitud;
+    }
+
+    /**
+     * Lee la lista de solucionadores del argumento "--solucionador=nombre1,nombre2".
+     *
+     * @param args argumentos de la línea de comandos
+     * @return nombres de los solucionadores a comparar (vacía si no se indicó ninguno)
+     */
+    public static List<String> leerSolucionadores(String[] args) {
+        List<String> nombres = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--solucionador=")) {
+                for (String nombre : arg.substring("--solucionador=".length()).split(",")) {
+                    if (!nombre.isBlank()) {
+                        nombres.add(nombre.trim());
+                    }
+                }
+            }
+        }
+        return nombres;
+    }
+
+    /**
+     * Calcula la longitud de una ruta cerrada.
+     *
+     * @param matriz matriz de distancias de la ruta
+     * @param ruta   ruta que empieza y termina en la misma ciudad
+     * @return longitud total
+     */
+    public static long longitudRuta(MatrizDistancias matriz, List<String> ruta) {
+        long longitud = 0;
+        for (int i = 0; i + 1 < ruta.size(); i++) {
+            longitud += matriz.getDistancia(matriz.getIndice(ruta.get(i)), matriz.getIndice(ruta.get(i + 1)));
+        }
+        return longitud;
+    }
+
+    /**
+     * Brecha porcentual de una longitud respecto de una referencia (óptimo o cota inferior).
+     *
+     * @param longitud   longitud de la ruta heurística
+     * @param referencia longitud de referencia
+     * @return porcentaje por encima de la referencia
+     */
+    public static double brecha(long longitud, long referencia) {
+        return referencia > 0 ? 100.0 * (longitud - referencia) / referencia : 0.0;
+    }
+
+    /**
+     * Lee la brecha de parada en porcentaje del argumento "--brecha=porcentaje".
+     *
+     * @param args argumentos de la línea de comandos
+     * @return brecha en porcentaje, o -1 si no se indicó
+     */
+    public static double leerBrecha(String[] args) {
+        String brecha = leerOpcion(args, "--brecha=");
+        return brecha != null ? Double.parseDouble(brecha) : -1;
+    }
+
+    /**
+     * Lee la cantidad de carreteras al azar por ciudad del argumento "--disperso=k".
+     *
+     * @param args argumentos de la línea de comandos
+     * @return carreteras por ciudad, o 0 para generar grafos completos
+     */
+    public static int leerDisperso(String[] args) {
+        String disperso = leerOpcion(args, "--disperso=");
+        return disperso != null ? Integer.parseInt(disperso) : 0;
+    }
+
+    /**
+     * Lee el plazo en milisegundos del argumento "--plazo=ms".
+     *
+     * @param args argumentos de la línea de comandos
+     * @return plazo en milisegundos, o 0 si no se indicó
+     */
+    public static long leerPlazo(String[] args) {
+        String plazo = leerOpcion(args, "--plazo=");
+        return plazo != null ? Long.parseLong(plazo) : 0;
+    }
+
+    /**
+     * Exporta el registro de generaciones del genético a CSV o, si el archivo termina en ".jsonl",
+     * a JSON Lines. Al nombre se le agrega la cantidad de ciudades antes de la extensión.
+     *
+     * @param registro registro del genético, null si las métricas están desactivadas
+     * @param archivo  nombre base del archivo
+     * @param n        cantidad de ciudades del grafo
+     */
+    public static void exportarMetricas(RegistroGeneraciones registro, String archivo, int n) {
+        if (registro == null) {
+            System.out.println("Las métricas están desactivadas; ejecute con -Dtsp.metricas=true para exportarlas.");
+            return;
+        }
+        int punto = archivo.lastIndexOf('.');
+        String base = punto > 0 ? archivo.substring(0, punto) : archivo;
+        String extension = punto > 0 ? archivo.substring(punto) : ".csv";
+        Path destino = Path.of(base + "-" + n + extension);
+        try {
+            if (extension.equalsIgnoreCase(".jsonl")) {
+                registro.exportarJsonl(destino);
+            } else {
+                registro.exportarCsv(destino);
+            }
+            System.out.println("Métricas exportadas: " + destino);
+        } catch (IOException e) {
+            System.out.println("Error al exportar las métricas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lee el valor de un argumento de la forma "prefijo=valor".
+     *
+     * @param args    argumentos de la línea de comandos
+     * @param prefijo prefijo del argumento, incluyendo el '='
+     * @return valor del argumento, o null si no se indicó
+     */
+    public static String leerOpcion(String[] args, String prefijo) {
+        for (String arg : args) {
+            if (arg.startsWith(prefijo)) {
+                return arg.substring(prefijo.length());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Crea un solucionador a partir de su nombre.
+     *
+     * @param nombre      nombre del solucionador (voraz, voraz-multi, genetico, lk o exacto)
+     * @param grafo       grafo a resolver
+     * @param numCiudades cantidad de ciudades del grafo
+     * @return solucionador listo para ejecutar
+     */
+    public static SolucionadorTSP crearSolucionador(String nombre, Grafo grafo, int numCiudades) {
+        return crearSolucionador(nombre, grafo.compilar(), numCiudades);
+    }
+
+    /**
+     * Crea un solucionador a partir de su nombre con la población del genético de
+     * {@link #obtenerTamanioPoblacion(int)}.
+     *
+     * @param nombre      nombre del solucionador (voraz, voraz-multi, genetico, lk o exacto)
+     * @param matriz      matriz de distancias (compilada o cierre métrico)
+     * @param numCiudades cantidad de ciudades del grafo
+     * @return solucionador listo para ejecutar
+     */
+    public static SolucionadorTSP crearSolucionador(String nombre, MatrizDistancias matriz, int numCiudades) {
+        if (nombre.equals("genetico")) {
+            EstrategiaGenetica genetico = new EstrategiaGenetica(matriz, obtenerTamanioPoblacion(numCiudades),
+                    new SplittableRandom().nextLong());
+            genetico.sembrarHeuristicas(FRACCION_ALEATORIA_GENETICO);
+            return genetico;
+        }
+        return crearSolucionador(nombre, matriz);
+    }
+
+    /**
+     * Crea un solucionador a partir de su nombre sobre una matriz de distancias (por ejemplo un
+     * grafo binario). El genético usa una población de la mitad de las ciudades, como en
+     * {@link #obtenerTamanioPoblacion(int)}, con un máximo de 500.
+     *
+     * @param nombre nombre del solucionador (voraz, voraz-multi, genetico, lk o exacto)
+     * @param matriz matriz de distancias
+     * @return solucionador listo para ejecutar
+     */
+    public static SolucionadorTSP crearSolucionador(String nombre, MatrizDistancias matriz) {
+        switch (nombre) {
+            case "voraz":
+                return new EstrategiaVoraz(matriz);
+            case "voraz-multi":
+                EstrategiaVoraz multiarranque = new EstrategiaVoraz(matriz);
+                multiarranque.setMultiarranque(0, new SplittableRandom().nextLong());
+                multiarranque.setPool(ForkJoinPool.commonPool());
+                return multiarranque;
+            case "genetico":
+                int tamanioPoblacion = Math.max(2, Math.min(500, matriz.getNumCiudades() / 2));
+                EstrategiaGenetica genetico = new EstrategiaGenetica(matriz, tamanioPoblacion, new SplittableRandom().nextLong());
+                genetico.sembrarHeuristicas(FRACCION_ALEATORIA_GENETICO);
+                return genetico;
+            case "lk":
+                return new EstrategiaLinKernighan(matriz);
+            case "exacto":
+                EstrategiaExacta exacta = new EstrategiaExacta(matriz);
+                exacta.setLimiteTiempo(LIMITE_EXACTO_NANOS); // Ramificación y poda no termina en grafos grandes
+                return exacta;
+            default:
+                throw new IllegalArgumentException("Solucionador no soportado: " + nombre);
         }
     }
 
@@ -113,6 +538,39 @@ public class Main {
         return grafo;
     }
 
+    /**
+     * Genera una red dispersa y conexa: un camino que pasa por todas las ciudades en orden aleatorio
+     * más algunas carreteras al azar desde cada ciudad, con distancias entre 1 y 50.
+     *
+     * @param archivoCiudades     archivo con los nombres de las ciudades
+     * @param numCiudades         cantidad de ciudades (vértices) para el grafo (red)
+     * @param carreterasPorCiudad carreteras adicionales al azar que salen de cada ciudad
+     * @return grafo disperso
+     */
+    public static Grafo generarGrafoDisperso(String archivoCiudades, int numCiudades, int carreterasPorCiudad) {
+        List<String> nombresCiudades = leerCiudadesDesdeArchivo(archivoCiudades);
+        Collections.shuffle(nombresCiudades);
+        List<String> listaCiudades = nombresCiudades.subList(0, numCiudades);
+
+        Grafo grafo = new Grafo();
+        Random random = new Random();
+        for (int i = 0; i < numCiudades; i++) {
+            grafo.agregarCiudad(listaCiudades.get(i));
+            if (i > 0) {
+                grafo.agregarArco(listaCiudades.get(i - 1), listaCiudades.get(i), random.nextInt(50) + 1);
+            }
+        }
+        for (int i = 0; i < numCiudades; i++) {
+            for (int k = 0; k < carreterasPorCiudad; k++) {
+                int j = random.nextInt(numCiudades);
+                if (j != i) {
+                    grafo.agregarArco(listaCiudades.get(i), listaCiudades.get(j), random.nextInt(50) + 1);
+                }
+            }
+        }
+        return grafo;
+    }
+
     /**
      * Lee los nombres de las ciudades desde un archivo.
      *
@@ -0,0 +1,42 @@
+package Problema_Viajante;
+
+/**
+ * Matriz distancias.
+ * Vista de solo lectura de una instancia con ciudades numeradas 0..n-1, que es todo lo que
+ * necesitan los solucionadores. La implementan el {@link GrafoCompilado} construido en memoria
+ * y el {@link GrafoBinario} abierto desde un archivo mapeado, sin pasar por {@link Grafo}.
+ */
+public interface MatrizDistancias {
+
+    /**
+     * Devuelve la cantidad de ciudades.
+     *
+     * @return número de ciudades
+     */
+    int getNumCiudades();
+
+    /**
+     * Obtiene la distancia entre dos ciudades a partir de sus identificadores.
+     *
+     * @param origen  identificador de la ciudad de origen
+     * @param destino identificador de la ciudad de destino
+     * @return distancia entre las ciudades o Integer.MAX_VALUE si no hay conexión directa
+     */
+    int getDistancia(int origen, int destino);
+
+    /**
+     * Obtiene el identificador denso de una ciudad.
+     *
+     * @param ciudad nombre de la ciudad
+     * @return identificador de la ciudad o -1 si no existe
+     */
+    int getIndice(String ciudad);
+
+    /**
+     * Obtiene el nombre de una ciudad a partir de su identificador.
+     *
+     * @param indice identificador de la ciudad
+     * @return nombre de la ciudad
+     */
+    String getNombre(int indice);
+}
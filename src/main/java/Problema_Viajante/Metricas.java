@@ -0,0 +1,79 @@
+package Problema_Viajante;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Metricas.
+ * Punto de entrada de la instrumentación de los solucionadores. Los tiempos por fase, el registro
+ * por generación ({@link RegistroGeneraciones}) y los eventos JFR ({@link EventoGeneracion}) solo se
+ * recogen si la JVM arranca con {@code -Dtsp.metricas=true}: como {@link #ACTIVAS} es una constante
+ * {@code static final}, el compilador JIT elimina los bloques {@code if (Metricas.ACTIVAS)} cuando
+ * vale false y el costo en los bucles calientes es prácticamente nulo.
+ * <p>
+ * La memoria se mide en bytes reales asignados por hilo con {@code com.sun.management.ThreadMXBean}
+ * (dos lecturas por ejecución o por bloque de trabajo, nunca dentro de los bucles).
+ */
+public final class Metricas {
+    /**
+     * Activa la instrumentación detallada ({@code -Dtsp.metricas=true}).
+     */
+    public static final boolean ACTIVAS = Boolean.getBoolean("tsp.metricas");
+
+    private static final com.sun.management.ThreadMXBean HILOS = crearBeanHilos();
+
+    /**
+     * Fases de una generación del algoritmo genético.
+     */
+    public enum Fase {
+        SELECCION,
+        CRUCE,
+        EVALUACION,
+        MUTACION,
+        BUSQUEDA_LOCAL,
+        SUPERVIVENCIA
+    }
+
+    /**
+     * Cantidad de fases, para dimensionar arreglos indexados por {@link Fase#ordinal()}.
+     */
+    public static final int NUM_FASES = Fase.values().length;
+
+    private Metricas() {
+    }
+
+    private static com.sun.management.ThreadMXBean crearBeanHilos() {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) bean;
+                if (hilos.isThreadAllocatedMemorySupported()) {
+                    hilos.setThreadAllocatedMemoryEnabled(true);
+                    return hilos;
+                }
+            }
+        } catch (UnsupportedOperationException | SecurityException e) {
+            // JVM sin soporte: la memoria asignada se informa como -1
+        }
+        return null;
+    }
+
+    /**
+     * Devuelve los bytes asignados en el heap por el hilo actual desde que empezó.
+     * Se usa por diferencia entre dos lecturas.
+     *
+     * @return bytes asignados, o -1 si la JVM no lo permite
+     */
+    public static long bytesAsignados() {
+        return HILOS != null ? HILOS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    /**
+     * Diferencia entre dos lecturas de {@link #bytesAsignados()}.
+     *
+     * @param desde lectura inicial
+     * @return bytes asignados desde la lectura inicial, o 0 si no hay soporte
+     */
+    public static long bytesAsignadosDesde(long desde) {
+        return desde < 0 ? 0 : bytesAsignados() - desde;
+    }
+}
@@ -0,0 +1,203 @@
+package Problema_Viajante;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Modelo de islas.
+ * Ejecuta varias poblaciones de {@link EstrategiaGenetica} en paralelo, cada una en su propio hilo.
+ * Cada cierto número de generaciones una isla envía copias de sus mejores recorridos a la isla
+ * siguiente de un anillo. El intercambio usa un buzón por isla en un {@link AtomicReferenceArray},
+ * sin bloqueos: el emisor reemplaza el contenido del buzón y el receptor lo vacía al leerlo.
+ */
+public class ModeloIslas {
+    private final EstrategiaGenetica[] islas;
+    private final int intervaloMigracion;
+    private final int numMigrantes;
+    private final AtomicReferenceArray<int[][]> buzones;
+    private final EstadisticasIsla[] estadisticas;
+    private long tiempoEjecucion; // nanosegundos de la última ejecución
+
+    /**
+     * Constructor Modelo islas.
+     *
+     * @param grafo              grafo con las ciudades
+     * @param numCiudades        numero de ciudades
+     * @param tamanioPoblacion   tamaño de la población de cada isla
+     * @param numIslas           cantidad de islas (hilos)
+     * @param intervaloMigracion generaciones entre migraciones
+     * @param numMigrantes       cantidad de recorridos enviados en cada migración
+     * @param semilla            semilla de la que se derivan las semillas de cada isla
+     */
+    public ModeloIslas(Grafo grafo, int numCiudades, int tamanioPoblacion, int numIslas,
+                       int intervaloMigracion, int numMigrantes, long semilla) {
+        if (numIslas < 1 || intervaloMigracion < 1 || numMigrantes < 0) {
+            throw new IllegalArgumentException("Parámetros del modelo de islas no válidos");
+        }
+        this.intervaloMigracion = intervaloMigracion;
+        this.numMigrantes = numMigrantes;
+        this.islas = new EstrategiaGenetica[numIslas];
+        this.buzones = new AtomicReferenceArray<>(numIslas);
+        this.estadisticas = new EstadisticasIsla[numIslas];
+
+        SplittableRandom semillas = new SplittableRandom(semilla);
+        for (int i = 0; i < numIslas; i++) {
+            islas[i] = new EstrategiaGenetica(grafo, numCiudades, tamanioPoblacion, semillas.nextLong());
+            estadisticas[i] = new EstadisticasIsla(i);
+        }
+    }
+
+    /**
+     * Ejecuta el número de generaciones indicado en todas las islas a la vez.
+     *
+     * @param numGeneraciones generaciones a ejecutar en cada isla
+     * @return estadísticas finales de cada isla
+     */
+    public List<EstadisticasIsla> ejecutar(int numGeneraciones) {
+        ExecutorService ejecutor = Executors.newFixedThreadPool(islas.length);
+        long inicio = System.nanoTime();
+        try {
+            List<Future<?>> tareas = new ArrayList<>(islas.length);
+            for (int i = 0; i < islas.length; i++) {
+                final int isla = i;
+                tareas.add(ejecutor.submit(() -> evolucionarIsla(isla, numGeneraciones)));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ejecución del modelo de islas interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error en una isla: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            ejecutor.shutdown();
+        }
+        tiempoEjecucion = System.nanoTime() - inicio;
+        return Collections.unmodifiableList(Arrays.asList(estadisticas));
+    }
+
+    /**
+     * Ciclo de una isla: evoluciona su población y migra cada {@code intervaloMigracion} generaciones.
+     *
+     * @param isla            índice de la isla
+     * @param numGeneraciones generaciones a ejecutar
+     */
+    private void evolucionarIsla(int isla, int numGeneraciones) {
+        EstrategiaGenetica poblacion = islas[isla];
+        int siguiente = (isla + 1) % islas.length;
+        long inicio = System.nanoTime();
+
+        for (int g = 1; g <= numGeneraciones; g++) {
+            poblacion.ejecutarGeneracion();
+            if (g % intervaloMigracion == 0 && islas.length > 1 && numMigrantes > 0) {
+                buzones.set(siguiente, poblacion.exportarElite(numMigrantes));
+                int[][] recibidos = buzones.getAndSet(isla, null);
+                if (recibidos != null) {
+                    poblacion.importarMigrantes(recibidos);
+                    estadisticas[isla].migracionesRecibidas++;
+                }
+            }
+        }
+
+        EstadisticasIsla datos = estadisticas[isla];
+        datos.generaciones += numGeneraciones;
+        datos.mejorFitness = poblacion.getMejorFitness();
+        datos.fitnessPromedio = poblacion.getFitnessPromedio();
+        datos.tiempoNanos += System.nanoTime() - inicio;
+    }
+
+    /**
+     * Devuelve la mejor ruta entre todas las islas.
+     *
+     * @return ruta cerrada con los nombres de las ciudades
+     */
+    public List<String> getMejorRuta() {
+        return islas[indiceMejorIsla()].getMejorRuta();
+    }
+
+    /**
+     * Devuelve la longitud de la mejor ruta entre todas las islas.
+     *
+     * @return mejor fitness global
+     */
+    public long getMejorFitness() {
+        return islas[indiceMejorIsla()].getMejorFitness();
+    }
+
+    /**
+     * Busca la isla con el mejor recorrido.
+     *
+     * @return índice de la isla
+     */
+    private int indiceMejorIsla() {
+        int mejor = 0;
+        for (int i = 1; i < islas.length; i++) {
+            if (islas[i].getMejorFitness() < islas[mejor].getMejorFitness()) {
+                mejor = i;
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * Imprime las estadísticas de cada isla y el mejor resultado global de la última ejecución.
+     */
+    public void imprimirEstadisticas() {
+        System.out.println("\n--- Modelo de islas ---");
+        for (EstadisticasIsla datos : estadisticas) {
+            System.out.println(datos);
+        }
+        System.out.printf("Mejor global: %d, Tiempo de pared (s): %.3f\n",
+                getMejorFitness(), tiempoEjecucion / 1_000_000_000.0);
+    }
+
+    /**
+     * Estadísticas isla.
+     * Resumen de una isla: mejor y promedio de fitness, generaciones, migraciones y tiempo.
+     */
+    public static final class EstadisticasIsla {
+        private final int isla;
+        private int generaciones;
+        private int migracionesRecibidas;
+        private long mejorFitness;
+        private double fitnessPromedio;
+        private long tiempoNanos;
+
+        private EstadisticasIsla(int isla) {
+            this.isla = isla;
+        }
+
+        public int getIsla() {
+            return isla;
+        }
+
+        public int getGeneraciones() {
+            return generaciones;
+        }
+
+        public int getMigracionesRecibidas() {
+            return migracionesRecibidas;
+        }
+
+        public long getMejorFitness() {
+            return mejorFitness;
+        }
+
+        public double getFitnessPromedio() {
+            return fitnessPromedio;
+        }
+
+        public long getTiempoNanos() {
+            return tiempoNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Isla #%d: Mejor: %d, Promedio: %.1f, Generaciones: %d, Migraciones: %d, Tiempo (s): %.3f",
+                    isla + 1, mejorFitness, fitnessPromedio, generaciones, migracionesRecibidas,
+                    tiempoNanos / 1_000_000_000.0);
+        }
+    }
+}
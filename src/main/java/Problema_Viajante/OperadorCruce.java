@@ -0,0 +1,25 @@
+package Problema_Viajante;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Operador de cruce.
+ * Combina dos cromosomas padres (permutaciones {@code int[]} de identificadores de ciudad dentro
+ * de un arreglo plano) para escribir un hijo. Cada implementación conserva sus propios arreglos
+ * de trabajo, por lo que una instancia no debe compartirse entre hilos.
+ */
+public interface OperadorCruce {
+
+    /**
+     * Cruza dos padres y escribe el hijo resultante.
+     *
+     * @param padre1   arreglo que contiene el primer padre
+     * @param base1    posición del primer gen del primer padre
+     * @param padre2   arreglo que contiene el segundo padre
+     * @param base2    posición del primer gen del segundo padre
+     * @param hijo     arreglo donde se escribe el hijo
+     * @param baseHijo posición del primer gen del hijo
+     * @param random   generador de números aleatorios
+     */
+    void cruzar(int[] padre1, int base1, int[] padre2, int base2, int[] hijo, int baseHijo, RandomGenerator random);
+}
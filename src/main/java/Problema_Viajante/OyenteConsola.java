@@ -0,0 +1,80 @@
+package Problema_Viajante;
+
+import java.util.*;
+
+/**
+ * Oyente consola.
+ * Imprime en la terminal la traza detallada de los solucionadores, con el mismo formato que
+ * antes imprimía directamente la estrategia voraz.
+ */
+public class OyenteConsola implements OyenteTraza {
+    private final MatrizDistancias matriz;
+
+    /**
+     * Constructor Oyente consola.
+     *
+     * @param grafo grafo usado para mostrar la distancia de cada tramo de la ruta final
+     */
+    public OyenteConsola(Grafo grafo) {
+        this(grafo.compilar());
+    }
+
+    /**
+     * Constructor Oyente consola sobre una matriz de distancias.
+     *
+     * @param matriz matriz usada para mostrar la distancia de cada tramo de la ruta final
+     */
+    public OyenteConsola(MatrizDistancias matriz) {
+        this.matriz = matriz;
+    }
+
+    @Override
+    public void alIniciarRecorrido(String ciudadInicial) {
+        System.out.println("\nIniciando recorrido desde: " + ciudadInicial);
+    }
+
+    @Override
+    public void alEvaluarAlternativas(String ciudadActual, List<Map.Entry<String, Integer>> alternativas) {
+        System.out.println("\nDesde " + ciudadActual + ", alternativas disponibles:");
+        for (Map.Entry<String, Integer> alt : alternativas) {
+            System.out.printf("  → %s: %d km\n", alt.getKey(), alt.getValue());
+        }
+    }
+
+    @Override
+    public void alSeleccionarCiudad(String ciudad, int distancia) {
+        System.out.println("Seleccionada: " + ciudad + " (distancia: " + distancia + " km)");
+    }
+
+    @Override
+    public void alCerrarCiclo(String ciudadActual, String ciudadInicial, int distancia) {
+        System.out.println("\nBuscando retorno a " + ciudadInicial + ":");
+        System.out.printf("  → %s: %d km\n", ciudadInicial, distancia);
+        System.out.println("Cerrando ciclo: " + ciudadActual + " → " + ciudadInicial + " (distancia: " + distancia + " km)");
+    }
+
+    @Override
+    public void alFallar(String motivo) {
+        System.out.println("\n" + motivo);
+    }
+
+    @Override
+    public void alTerminarGeneracion(int generacion, long mejorFitness, double fitnessPromedio) {
+        System.out.printf("Generación %d: Mejor: %d, Promedio: %.1f\n", generacion, mejorFitness, fitnessPromedio);
+    }
+
+    @Override
+    public void alFinalizar(ResultadoSolucion resultado) {
+        if (!resultado.isCompleta()) {
+            return;
+        }
+        List<String> ruta = resultado.getRuta();
+        System.out.println("\nRuta completa encontrada:");
+        for (int i = 0; i < ruta.size() - 1; i++) {
+            String origen = ruta.get(i);
+            String destino = ruta.get(i + 1);
+            System.out.printf("%s → %s: %d km\n", origen, destino, matriz.getDistancia(matriz.getIndice(origen), matriz.getIndice(destino)));
+        }
+        System.out.println("Distancia total recorrida: " + resultado.getLongitud() + " km");
+    }
+}
@@ -0,0 +1,18 @@
+package Problema_Viajante;
+
+/**
+ * Oyente mejora.
+ * Recibe cada vez que un solucionador encuentra una ruta mejor que todas las anteriores, para
+ * poder usar la mejor ruta parcial sin esperar al final. Se llama desde el hilo del solucionador,
+ * así que debe ser rápido.
+ */
+@FunctionalInterface
+public interface OyenteMejora {
+
+    /**
+     * Nueva mejor ruta.
+     *
+     * @param parcial mejor ruta hasta ahora, con su longitud y el tiempo transcurrido desde el inicio
+     */
+    void alMejorar(ResultadoSolucion parcial);
+}
@@ -0,0 +1,74 @@
+package Problema_Viajante;
+
+import java.util.*;
+
+/**
+ * Oyente traza.
+ * Recibe los eventos detallados de un solucionador (pasos de la estrategia voraz, fin de cada
+ * generación del genético). Es opcional: sin oyente los solucionadores no hacen ninguna E/S.
+ * Todos los métodos tienen una implementación vacía para que cada oyente atienda solo lo que necesita.
+ */
+public interface OyenteTraza {
+
+    /**
+     * Inicio del recorrido voraz.
+     *
+     * @param ciudadInicial ciudad desde la que se empieza
+     */
+    default void alIniciarRecorrido(String ciudadInicial) {
+    }
+
+    /**
+     * Alternativas no visitadas desde la ciudad actual, ordenadas por distancia.
+     *
+     * @param ciudadActual ciudad actual
+     * @param alternativas pares (ciudad, distancia) ordenados de menor a mayor
+     */
+    default void alEvaluarAlternativas(String ciudadActual, List<Map.Entry<String, Integer>> alternativas) {
+    }
+
+    /**
+     * Ciudad elegida en un paso del recorrido voraz.
+     *
+     * @param ciudad    ciudad seleccionada
+     * @param distancia distancia desde la ciudad anterior
+     */
+    default void alSeleccionarCiudad(String ciudad, int distancia) {
+    }
+
+    /**
+     * Cierre del ciclo de regreso a la ciudad inicial.
+     *
+     * @param ciudadActual  última ciudad del recorrido
+     * @param ciudadInicial ciudad inicial
+     * @param distancia     distancia del arco de cierre
+     */
+    default void alCerrarCiclo(String ciudadActual, String ciudadInicial, int distancia) {
+    }
+
+    /**
+     * El solucionador no pudo completar una ruta.
+     *
+     * @param motivo descripción del problema
+     */
+    default void alFallar(String motivo) {
+    }
+
+    /**
+     * Fin de una generación del algoritmo genético.
+     *
+     * @param generacion      número de generación (desde 1)
+     * @param mejorFitness    longitud del mejor recorrido
+     * @param fitnessPromedio longitud promedio de la población
+     */
+    default void alTerminarGeneracion(int generacion, long mejorFitness, double fitnessPromedio) {
+    }
+
+    /**
+     * Fin de la ejecución con su resultado.
+     *
+     * @param resultado resultado de la ejecución
+     */
+    default void alFinalizar(ResultadoSolucion resultado) {
+    }
+}
@@ -0,0 +1,157 @@
+package Problema_Viajante;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Registro generaciones.
+ * Búfer circular preasignado con las estadísticas de las últimas generaciones (mejor y promedio,
+ * diversidad, nanosegundos por {@link Metricas.Fase} y bytes asignados). Registrar no crea objetos:
+ * cuando se llena se sobrescriben las generaciones más antiguas. Se exporta a CSV o JSON Lines.
+ */
+public final class RegistroGeneraciones {
+    private final int capacidad;
+    private final int[] generacion;
+    private final long[] mejor;
+    private final double[] promedio;
+    private final double[] diversidad;
+    private final long[] nanosFase;       // capacidad * NUM_FASES, por filas
+    private final long[] bytesAsignados;
+    private long registradas;             // total histórico; la siguiente posición es registradas % capacidad
+
+    /**
+     * Constructor Registro generaciones.
+     *
+     * @param capacidad cantidad de generaciones que se conservan
+     */
+    public RegistroGeneraciones(int capacidad) {
+        this.capacidad = Math.max(1, capacidad);
+        this.generacion = new int[this.capacidad];
+        this.mejor = new long[this.capacidad];
+        this.promedio = new double[this.capacidad];
+        this.diversidad = new double[this.capacidad];
+        this.nanosFase = new long[this.capacidad * Metricas.NUM_FASES];
+        this.bytesAsignados = new long[this.capacidad];
+    }
+
+    /**
+     * Registra una generación.
+     *
+     * @param numGeneracion número de generación
+     * @param mejorFitness  mejor fitness de la población
+     * @param fitnessMedio  fitness promedio de la población
+     * @param diversidadPob fracción de hijos que no son clones (0..1)
+     * @param nanos         nanosegundos de cada fase, indexados por {@link Metricas.Fase#ordinal()}
+     * @param bytes         bytes asignados durante la generación
+     */
+    public synchronized void registrar(int numGeneracion, long mejorFitness, double fitnessMedio,
+                                       double diversidadPob, long[] nanos, long bytes) {
+        int i = (int) (registradas % capacidad);
+        generacion[i] = numGeneracion;
+        mejor[i] = mejorFitness;
+        promedio[i] = fitnessMedio;
+        diversidad[i] = diversidadPob;
+        System.arraycopy(nanos, 0, nanosFase, i * Metricas.NUM_FASES, Metricas.NUM_FASES);
+        bytesAsignados[i] = bytes;
+        registradas++;
+    }
+
+    /**
+     * Devuelve la cantidad de generaciones conservadas.
+     *
+     * @return generaciones en el búfer
+     */
+    public synchronized int getCantidad() {
+        return (int) Math.min(registradas, capacidad);
+    }
+
+    /**
+     * Convierte una posición cronológica (0 = la más antigua conservada) en posición del búfer.
+     */
+    private int posicion(int i) {
+        long primera = registradas - getCantidad();
+        return (int) ((primera + i) % capacidad);
+    }
+
+    public synchronized int getGeneracion(int i) {
+        return generacion[posicion(i)];
+    }
+
+    public synchronized long getMejor(int i) {
+        return mejor[posicion(i)];
+    }
+
+    public synchronized double getPromedio(int i) {
+        return promedio[posicion(i)];
+    }
+
+    public synchronized double getDiversidad(int i) {
+        return diversidad[posicion(i)];
+    }
+
+    public synchronized long getNanos(int i, Metricas.Fase fase) {
+        return nanosFase[posicion(i) * Metricas.NUM_FASES + fase.ordinal()];
+    }
+
+    public synchronized long getBytesAsignados(int i) {
+        return bytesAsignados[posicion(i)];
+    }
+
+    /**
+     * Exporta las generaciones conservadas a CSV con cabecera.
+     *
+     * @param archivo ruta del archivo a crear o reemplazar
+     * @throws IOException si no se puede escribir
+     */
+    public synchronized void exportarCsv(Path archivo) throws IOException {
+        try (BufferedWriter salida = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8)) {
+            salida.write("generacion,mejor,promedio,diversidad");
+            for (Metricas.Fase fase : Metricas.Fase.values()) {
+                salida.write(",nanos_" + fase.name().toLowerCase(Locale.ROOT));
+            }
+            salida.write(",bytes_asignados");
+            salida.newLine();
+            for (int i = 0; i < getCantidad(); i++) {
+                int p = posicion(i);
+                salida.write(String.format(Locale.ROOT, "%d,%d,%.3f,%.4f", generacion[p], mejor[p], promedio[p], diversidad[p]));
+                for (int f = 0; f < Metricas.NUM_FASES; f++) {
+                    salida.write("," + nanosFase[p * Metricas.NUM_FASES + f]);
+                }
+                salida.write("," + bytesAsignados[p]);
+                salida.newLine();
+            }
+        }
+    }
+
+    /**
+     * Exporta las generaciones conservadas a JSON Lines (un objeto por línea).
+     *
+     * @param archivo ruta del archivo a crear o reemplazar
+     * @throws IOException si no se puede escribir
+     */
+    public synchronized void exportarJsonl(Path archivo) throws IOException {
+        try (BufferedWriter salida = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < getCantidad(); i++) {
+                int p = posicion(i);
+                StringBuilder linea = new StringBuilder(256);
+                linea.append(String.format(Locale.ROOT, "{\"generacion\":%d,\"mejor\":%d,\"promedio\":%.3f,\"diversidad\":%.4f",
+                        generacion[p], mejor[p], promedio[p], diversidad[p]));
+                linea.append(",\"nanos\":{");
+                for (Metricas.Fase fase : Metricas.Fase.values()) {
+                    if (fase.ordinal() > 0) {
+                        linea.append(',');
+                    }
+                    linea.append('"').append(fase.name().toLowerCase(Locale.ROOT)).append("\":")
+                            .append(nanosFase[p * Metricas.NUM_FASES + fase.ordinal()]);
+                }
+                linea.append("},\"bytes_asignados\":").append(bytesAsignados[p]).append('}');
+                salida.write(linea.toString());
+                salida.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package Problema_Viajante;
+
+import java.util.*;
+
+/**
+ * Resultado solucion.
+ * Resultado estructurado de un solucionador: la ruta encontrada, su longitud, el tiempo de
+ * ejecución y los contadores de operaciones. No imprime nada; mostrarlo queda a cargo de quien lo pide.
+ */
+public final class ResultadoSolucion {
+    private final List<String> ruta;        // ruta cerrada o null si no se encontró
+    private final long longitud;
+    private final long tiempoNanos;
+    private final long asignaciones;
+    private final long comparaciones;
+
+    /**
+     * Constructor Resultado solucion.
+     *
+     * @param ruta          ruta cerrada (empieza y termina en la misma ciudad) o null si no hay ruta
+     * @param longitud      longitud total de la ruta
+     * @param tiempoNanos   tiempo de ejecución en nanosegundos
+     * @param asignaciones  asignaciones contadas durante la ejecución
+     * @param comparaciones comparaciones contadas durante la ejecución
+     */
+    public ResultadoSolucion(List<String> ruta, long longitud, long tiempoNanos, long asignaciones, long comparaciones) {
+        this.ruta = ruta != null ? Collections.unmodifiableList(ruta) : null;
+        this.longitud = longitud;
+        this.tiempoNanos = tiempoNanos;
+        this.asignaciones = asignaciones;
+        this.comparaciones = comparaciones;
+    }
+
+    /**
+     * Indica si el solucionador encontró una ruta completa.
+     *
+     * @return true si hay ruta
+     */
+    public boolean isCompleta() {
+        return ruta != null;
+    }
+
+    public List<String> getRuta() {
+        return ruta;
+    }
+
+    public long getLongitud() {
+        return longitud;
+    }
+
+    public long getTiempoNanos() {
+        return tiempoNanos;
+    }
+
+    public long getAsignaciones() {
+        return asignaciones;
+    }
+
+    public long getComparaciones() {
+        return comparaciones;
+    }
+
+    @Override
+    public String toString() {
+        if (!isCompleta()) {
+            return String.format("Sin ruta completa, Tiempo (s): %.3f", tiempoNanos / 1_000_000_000.0);
+        }
+        return String.format("Longitud: %d, Tiempo (s): %.3f, Ruta: %s", longitud, tiempoNanos / 1_000_000_000.0, ruta);
+    }
+}
@@ -0,0 +1,44 @@
+package Problema_Viajante;
+
+/**
+ * Solucionador TSP.
+ * Interfaz común de las estrategias que resuelven el problema del viajante sobre un {@link Grafo},
+ * para poder elegirlas por nombre y compararlas con el mismo resultado estructurado.
+ * <p>
+ * Con {@link #resolver(Cancelacion, OyenteMejora)} los solucionadores iterativos funcionan "en
+ * cualquier momento": publican cada mejora a medida que aparece y terminan al cancelarse el token,
+ * devolviendo la mejor ruta encontrada hasta entonces.
+ */
+public interface SolucionadorTSP {
+
+    /**
+     * Nombre corto del solucionador, usado para elegirlo desde Main.
+     *
+     * @return nombre del solucionador
+     */
+    String getNombre();
+
+    /**
+     * Resuelve la instancia sin imprimir nada.
+     *
+     * @return resultado con la mejor ruta encontrada
+     */
+    ResultadoSolucion resolver();
+
+    /**
+     * Resuelve la instancia hasta terminar o hasta que se cancele el token, publicando cada mejora.
+     * La implementación por defecto es para solucionadores de una sola pasada: ignora el token y
+     * publica únicamente el resultado final.
+     *
+     * @param cancelacion  token de cancelación o plazo
+     * @param oyenteMejora oyente de mejoras, o null para no publicar
+     * @return resultado con la mejor ruta encontrada
+     */
+    default ResultadoSolucion resolver(Cancelacion cancelacion, OyenteMejora oyenteMejora) {
+        ResultadoSolucion resultado = resolver();
+        if (oyenteMejora != null && resultado.isCompleta()) {
+            oyenteMejora.alMejorar(resultado);
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,29 @@
+package Problema_Viajante;
+
+/**
+ * Tipo de cruce.
+ * Operadores de cruce disponibles para {@link EstrategiaGenetica}.
+ */
+public enum TipoCruce {
+    OX, PMX, CX, ERX;
+
+    /**
+     * Crea una instancia nueva del operador, con sus propios arreglos de trabajo.
+     *
+     * @param numCiudades cantidad de genes de cada cromosoma
+     * @return operador de cruce
+     */
+    public OperadorCruce crear(int numCiudades) {
+        switch (this) {
+            case PMX:
+                return new CrucePMX(numCiudades);
+            case CX:
+                return new CruceCiclo(numCiudades);
+            case ERX:
+                return new CruceRecombinacionAristas(numCiudades);
+            case OX:
+            default:
+                return new CruceOrden(numCiudades);
+        }
+    }
+}
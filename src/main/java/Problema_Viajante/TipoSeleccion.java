@@ -0,0 +1,23 @@
+package Problema_Viajante;
+
+/**
+ * Tipo de seleccion.
+ * Formas de elegir los padres en {@link EstrategiaGenetica}. En todas, los sobrevivientes se eligen
+ * después por truncamiento (μ+λ): los mejores entre padres e hijos.
+ */
+public enum TipoSeleccion {
+    /**
+     * Padres al azar con la misma probabilidad.
+     */
+    ALEATORIA,
+    /**
+     * Torneo: cada padre es el mejor de unos cromosomas elegidos al azar
+     * ({@link EstrategiaGenetica#setTamanioTorneo(int)}).
+     */
+    TORNEO,
+    /**
+     * Muestreo universal estocástico: todos los padres de la generación se eligen con una sola
+     * ruleta de punteros equiespaciados, con peso proporcional a cuánto mejora cada ruta a la peor.
+     */
+    SUS
+}